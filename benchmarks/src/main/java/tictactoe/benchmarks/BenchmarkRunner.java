@@ -0,0 +1,32 @@
+package tictactoe.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar.  Runs the benchmarks with the GC profiler attached, so every benchmark reports its allocation rate
+ * (gc.alloc.rate.norm, bytes per operation) next to its throughput, and writes the results to jmh-result.json to compare against a baseline.
+ * Any standard JMH command line options (e.g. a benchmark name pattern, -f, -wi, -i) are passed through.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class BenchmarkRunner
+{
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException
+    {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+}
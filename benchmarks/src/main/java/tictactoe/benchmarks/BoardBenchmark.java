@@ -0,0 +1,136 @@
+package tictactoe.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import tictactoe.Board;
+import tictactoe.BoardSnapshot;
+import tictactoe.Player;
+import tictactoe.Position;
+
+/**
+ * Benchmarks of the Board hot paths: making moves, checking squares, taking and canonicalizing snapshots and rendering.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BoardBenchmark
+{
+    @Param({"3:3", "15:5"})
+    public String size; // board length and number in a row needed to win
+
+    private Board board;
+    private Position[] positions; // every square of the board
+    private Position center;
+    private BoardSnapshot snapshot;
+
+    @Setup
+    public void setUp()
+    {
+        String[] parts = size.split(":");
+        board = new Board(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+        positions = new Position[board.getTotalSquares()];
+        for(int square = 0; square < positions.length; square++)
+            positions[square] = Position.valueOf(square, board);
+        center = positions[positions.length / 2];
+
+        // half fill the board so rendering and win checks see a realistic position
+        for(int square = 0; square < positions.length / 2; square += 2)
+            board.setSquare(positions[square], square % 4 == 0 ? Player.X : Player.O);
+        snapshot = board.snapshot();
+    }
+
+    /**
+     * Makes and undoes a move on an empty square, which includes the win check in updateCounts.
+     */
+    @Benchmark
+    public Player setSquare()
+    {
+        Position pos = positions[positions.length - 1];
+        board.setSquare(pos, Player.X);
+        Player won = board.getHasWon();
+        board.unmakeMove(pos);
+        return won;
+    }
+
+    /**
+     * Makes and undoes a move through the primitive square number overloads.
+     */
+    @Benchmark
+    public Player setSquareIndex()
+    {
+        int square = positions.length - 1;
+        board.setSquare(square, Player.X);
+        Player won = board.getHasWon();
+        board.unmakeMove(square);
+        return won;
+    }
+
+    /**
+     * Runs only the win check for the center square.
+     */
+    @Benchmark
+    public Player updateCounts()
+    {
+        board.updateCounts(center, Player.X);
+        return board.getHasWon();
+    }
+
+    /**
+     * Checks every square of the board for occupancy.
+     */
+    @Benchmark
+    public void isSquareOccupied(Blackhole bh)
+    {
+        for(Position pos : positions)
+            bh.consume(board.isSquareOccupied(pos));
+    }
+
+    /**
+     * Renders the board as text.
+     */
+    @Benchmark
+    public String boardToString()
+    {
+        return board.toString();
+    }
+
+    /**
+     * Takes an immutable snapshot of the board.
+     */
+    @Benchmark
+    public BoardSnapshot snapshot()
+    {
+        return board.snapshot();
+    }
+
+    /**
+     * Derives the snapshot after a move, including its win check.
+     */
+    @Benchmark
+    public BoardSnapshot snapshotWithMove()
+    {
+        return snapshot.withMove(positions.length - 1);
+    }
+
+    /**
+     * Finds the canonical orientation of the snapshot under the 8 symmetries.
+     */
+    @Benchmark
+    public BoardSnapshot canonical()
+    {
+        return snapshot.canonical();
+    }
+}
@@ -0,0 +1,54 @@
+package tictactoe.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import tictactoe.Board;
+import tictactoe.MovePolicy;
+import tictactoe.Player;
+import tictactoe.RandomPolicy;
+import tictactoe.Simulator;
+
+/**
+ * Benchmark of complete random games, the inner loop of the Simulator.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PlayoutBenchmark
+{
+    @Param({"3:3", "15:5"})
+    public String size; // board length and number in a row needed to win
+
+    private Board board;
+    private MovePolicy policy;
+
+    @Setup
+    public void setUp()
+    {
+        String[] parts = size.split(":");
+        board = new Board(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+        policy = new RandomPolicy(42);
+    }
+
+    /**
+     * Plays one random game to the end.
+     */
+    @Benchmark
+    public Player randomPlayout()
+    {
+        board.reset();
+        return Simulator.playGame(board, policy, policy);
+    }
+}
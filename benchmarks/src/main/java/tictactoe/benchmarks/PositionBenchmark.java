@@ -0,0 +1,63 @@
+package tictactoe.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import tictactoe.Position;
+
+/**
+ * Benchmarks of Position construction and conversion back to a square number.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PositionBenchmark
+{
+    public int square = 7; // non final so the JIT cannot fold the constructor arguments
+    private Position position = new Position(7);
+
+    /**
+     * Creates a Position from a square number, as Game does for every move.
+     */
+    @Benchmark
+    public Position construct()
+    {
+        return new Position(square);
+    }
+
+    /**
+     * Looks up the interned Position of a square, which allocates nothing.
+     */
+    @Benchmark
+    public Position valueOf()
+    {
+        return Position.valueOf(square, 3);
+    }
+
+    /**
+     * Converts a Position back to a square number.
+     */
+    @Benchmark
+    public int toInt()
+    {
+        return position.toInt();
+    }
+
+    /**
+     * Creates a Position and converts it back, the round trip of every move.
+     */
+    @Benchmark
+    public int constructAndToInt()
+    {
+        return new Position(square).toInt();
+    }
+}
@@ -0,0 +1,269 @@
+package tictactoe;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The BatchEvaluator class solves batches of positions in parallel, finding who wins each one with best play and the best move.
+ * Positions are given packed 2 bits per square (0 empty, 1 X, 2 O), square 0 in the lowest bits, 32 squares to each long,
+ * so a 3x3 position is a single long.  Positions are split across a fork-join pool; each worker thread decodes into its own Board and searches with its own Solver,
+ * and every Solver shares one TranspositionTable, so a subposition reached from many positions in the batch (or in earlier batches) is solved once.
+ * Results are returned in input order.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class BatchEvaluator
+{
+	/* Static fields */
+	private static final int POSITIONS_PER_TASK = 64; // ranges smaller than this are evaluated by a single task
+	private static final int SQUARES_PER_WORD = 32;
+	private static final long SQUARE_MASK = 0x3;
+	private static final int EMPTY = 0;
+	private static final int X = 1;
+	private static final int O = 2;
+
+	/* Instance variables */
+    private final int length;
+    private final int winLength;
+    private final int words; // longs per encoded position
+    private final int maxDepth;
+    private final TranspositionTable table;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<Worker> workers;
+
+    /**
+     * Constructor for an evaluator which solves positions to the end, using every available processor and the process wide PositionCache.
+     *
+     * @param length length of a side of the board
+     * @param winLength number of squares in a row needed to win
+     */
+    public BatchEvaluator(int length, int winLength)
+    {
+        this(length, winLength, Integer.MAX_VALUE, PositionCache.shared(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for an evaluator.
+     *
+     * @param length length of a side of the board
+     * @param winLength number of squares in a row needed to win
+     * @param maxDepth number of moves to search ahead of each position, positions not decided by then count as draws
+     * @param table TranspositionTable shared by every search
+     * @param parallelism number of worker threads
+     */
+    public BatchEvaluator(int length, int winLength, int maxDepth, TranspositionTable table, int parallelism)
+    {
+        Board.checkSize(length, winLength);
+        this.length = length;
+        this.winLength = winLength;
+        this.maxDepth = maxDepth;
+        this.table = table;
+        words = wordsFor(length * length);
+        pool = new ForkJoinPool(parallelism);
+        workers = new ThreadLocal<Worker>()
+        {
+            @Override
+            protected Worker initialValue()
+            {
+                return new Worker();
+            }
+        };
+    }
+
+    /**
+     * Returns the number of longs holding one encoded position on a board.
+     *
+     * @param totalSquares number of squares on the board
+     * @return int longs per position
+     */
+    public static int wordsFor(int totalSquares)
+    {
+        return (totalSquares + SQUARES_PER_WORD - 1) / SQUARES_PER_WORD;
+    }
+
+    /**
+     * Encodes the position on a board, 2 bits per square.
+     *
+     * @param board Board to encode
+     * @param out array to write to
+     * @param offset index in out of the position's first long
+     */
+    public static void encode(Board board, long[] out, int offset)
+    {
+        int words = wordsFor(board.getTotalSquares());
+        for(int i = 0; i < words; i++)
+            out[offset + i] = 0;
+        for(int square = 0; square < board.getTotalSquares(); square++)
+        {
+            Player p = board.getSquare(square);
+            long code = p == Player.X ? X : (p == Player.O ? O : EMPTY);
+            out[offset + square / SQUARES_PER_WORD] |= code << (2 * (square % SQUARES_PER_WORD));
+        }
+    }
+
+    /**
+     * Decodes a position onto a board, replacing its position.
+     *
+     * @param in array holding encoded positions
+     * @param offset index in in of the position's first long
+     * @param board Board of the position's size to decode onto
+     * @throws IllegalArgumentException if the encoding is invalid or the position cannot arise in a game: X and O do not have a legal number of stones,
+     *         both have a line, or the player with a line did not make the last move
+     */
+    public static void decode(long[] in, int offset, Board board)
+    {
+        board.reset();
+        int xCount = 0;
+        int oCount = 0;
+        for(int square = 0; square < board.getTotalSquares(); square++)
+        {
+            int code = (int)(in[offset + square / SQUARES_PER_WORD] >>> (2 * (square % SQUARES_PER_WORD)) & SQUARE_MASK);
+            if(code == X)
+            {
+                board.setSquare(square, Player.X);
+                xCount++;
+            }
+            else if(code == O)
+            {
+                board.setSquare(square, Player.O);
+                oCount++;
+            }
+            else if(code != EMPTY)
+                throw new IllegalArgumentException("Invalid square code " + code + " at square " + square);
+        }
+        if(xCount != oCount && xCount != oCount + 1)
+            throw new IllegalArgumentException("Position has " + xCount + " X and " + oCount + " O");
+        Player winner = board.getHasWon();
+        if(winner == Player.NONE)
+            return;
+        if(board.hasLine(winner.getOpponent()))
+            throw new IllegalArgumentException("Both X and O have a line");
+        if((winner == Player.X) != (xCount > oCount)) // the game ended with the winner's move
+            throw new IllegalArgumentException(winner.name() + " has a line but did not move last");
+    }
+
+    /**
+     * Evaluates a batch of positions.
+     *
+     * @param positions encoded positions, one after another
+     * @return BatchResult with an entry for each position, in the same order
+     * @throws IllegalArgumentException if the array does not hold whole positions, or a position is invalid
+     */
+    public BatchResult evaluate(long[] positions)
+    {
+        if(positions.length % words != 0)
+            throw new IllegalArgumentException("Positions are " + words + " longs each");
+        BatchResult result = new BatchResult(positions.length / words);
+        pool.invoke(new EvaluateTask(positions, result, 0, result.getCount()));
+        return result;
+    }
+
+    /**
+     * Returns the table shared by every search, e.g. to clear it between unrelated batches.
+     *
+     * @return TranspositionTable of the evaluator
+     */
+    public TranspositionTable getTable()
+    {
+        return table;
+    }
+
+    /**
+     * Shuts down the worker threads.
+     */
+    public void shutdown()
+    {
+        pool.shutdown();
+    }
+
+    /**
+     * The Board and Solver owned by one worker thread.
+     */
+    private class Worker
+    {
+        private final Board board = new Board(length, winLength);
+        private final Solver solver = new Solver(table, maxDepth);
+    }
+
+    /**
+     * Task evaluating a range of positions, splitting it in half until it is small enough to evaluate directly.
+     */
+    private class EvaluateTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+        private final long[] positions;
+        private final BatchResult result;
+        private final int from;
+        private final int to;
+
+        EvaluateTask(long[] positions, BatchResult result, int from, int to)
+        {
+            this.positions = positions;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if(to - from > POSITIONS_PER_TASK)
+            {
+                int middle = (from + to) >>> 1;
+                invokeAll(new EvaluateTask(positions, result, from, middle), new EvaluateTask(positions, result, middle, to));
+                return;
+            }
+
+            Worker worker = workers.get();
+            for(int i = from; i < to; i++)
+            {
+                decode(positions, i * words, worker.board);
+                int value = worker.solver.evaluate(worker.board);
+                Player current = worker.board.getCurrentPlayer();
+                Player winner = value > 0 ? current : (value < 0 ? current.getOpponent() : Player.NONE);
+                result.set(i, value, worker.solver.getBestMove(), winner);
+            }
+        }
+    }
+
+    /**
+     * Evaluates a batch of random positions and prints the positions per second and how many each player wins.
+     *
+     * @param args number of positions (default 100000), optionally followed by board length and number in a row needed to win
+     */
+    public static void main(String[] args)
+    {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int length = args.length > 2 ? Integer.parseInt(args[1]) : Board.getDefaultLength();
+        int winLength = args.length > 2 ? Integer.parseInt(args[2]) : Board.getDefaultLength();
+
+        // random positions reached by random moves, stopping at a random point of the game
+        Board board = new Board(length, winLength);
+        int words = wordsFor(board.getTotalSquares());
+        long[] positions = new long[count * words];
+        SplittableRandom random = new SplittableRandom(1);
+        RandomPolicy policy = new RandomPolicy(2);
+        for(int i = 0; i < count; i++)
+        {
+            board.reset();
+            int moves = random.nextInt(board.getTotalSquares());
+            while(board.getMovesCounter() < moves && board.getHasWon() == Player.NONE)
+                board.setSquare(policy.chooseMove(board), board.getCurrentPlayer());
+            encode(board, positions, i * words);
+        }
+
+        BatchEvaluator evaluator = new BatchEvaluator(length, winLength);
+        long start = System.nanoTime();
+        BatchResult result = evaluator.evaluate(positions);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        evaluator.shutdown();
+
+        long[] wins = new long[Player.values().length];
+        for(int i = 0; i < result.getCount(); i++)
+            wins[result.getWinner(i).ordinal()]++;
+        System.out.println(String.format("X wins: %d, O wins: %d, draws: %d", wins[Player.X.ordinal()], wins[Player.O.ordinal()], wins[Player.NONE.ordinal()]));
+        System.out.println(String.format("%.0f positions per second", count / seconds));
+    }
+}
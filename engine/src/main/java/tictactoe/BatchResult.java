@@ -0,0 +1,87 @@
+package tictactoe;
+
+/**
+ * The BatchResult class holds the evaluations of a batch of positions from a BatchEvaluator, in the order the positions were given.
+ * Results are kept in primitive arrays, one entry per position.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class BatchResult
+{
+	/* Static fields */
+	private static final Player[] PLAYERS = Player.values();
+
+	/* Instance variables */
+    private final int[] values;
+    private final int[] bestMoves;
+    private final byte[] winners; // Player ordinal of the winner with best play, NONE for a draw
+
+    /**
+     * Constructor for an empty result of a batch.
+     *
+     * @param count number of positions in the batch
+     */
+    BatchResult(int count)
+    {
+        values = new int[count];
+        bestMoves = new int[count];
+        winners = new byte[count];
+    }
+
+    /**
+     * Stores the evaluation of one position.
+     *
+     * @param index position's index in the batch
+     * @param value value for the player to move
+     * @param bestMove best move, or -1 if the game is over
+     * @param winner Player who wins with best play, or Player.NONE
+     */
+    void set(int index, int value, int bestMove, Player winner)
+    {
+        values[index] = value;
+        bestMoves[index] = bestMove;
+        winners[index] = (byte)winner.ordinal();
+    }
+
+    /**
+     * @return int number of positions evaluated
+     */
+    public int getCount()
+    {
+        return values.length;
+    }
+
+    /**
+     * Returns the value of a position, as returned by Solver.evaluate.
+     *
+     * @param index position's index in the batch
+     * @return int value for the player to move: positive for a win, negative for a loss, 0 for a draw, larger for quicker wins
+     */
+    public int getValue(int index)
+    {
+        return values[index];
+    }
+
+    /**
+     * Returns the best move in a position.
+     *
+     * @param index position's index in the batch
+     * @return int square number, or -1 if the game was already over
+     */
+    public int getBestMove(int index)
+    {
+        return bestMoves[index];
+    }
+
+    /**
+     * Returns who wins a position with best play from both sides.
+     *
+     * @param index position's index in the batch
+     * @return Player who wins, or Player.NONE for a draw
+     */
+    public Player getWinner(int index)
+    {
+        return PLAYERS[winners[index]];
+    }
+}
@@ -0,0 +1,526 @@
+package tictactoe;
+
+import java.util.Arrays;
+
+/**
+ * Board class represents Model of game
+ *
+ * @author Alexander Koster
+ * @version 2017-06-30
+ */
+public class Board
+{
+	/* Static fields */
+	private static final int DEFAULT_LENGTH = 3; // width and height of the classic tic tac toe board
+	private static final int WORD_SIZE = 64; // number of squares held by each long in the bitmask arrays
+	// Row and column steps of the four line directions a player can win along: across a row, down a column, "back slash" diagonal and "forward slash" diagonal.
+	private static final int[] ROW_STEPS = {0, 1, 1, 1};
+	private static final int[] COL_STEPS = {1, 0, 1, -1};
+	private static final int METRICS_SAMPLE_INTERVAL = 1024; // with metrics enabled, one move in this many is timed and move counts are reported in batches of this size
+
+	/* Instance variables */
+
+    private final int length; // for width and height
+    private final int winLength; // number of squares in a row needed to win
+    private final Position[] positions; // interned Position of each square, giving its row and column without dividing
+
+    // Bitmasks representing the squares occupied by each player.  Bit n (bit n % 64 of word n / 64) is set if the player has moved on square n.
+    private final long[] xBits;
+    private final long[] oBits;
+
+    private int movesCount;
+    private final int[] moves; // square numbers of the moves played, in order of play
+
+    private Player hasWon;
+    private int winningMove; // index of the move (in order of play) which won the game, or -1 if no player has won
+
+    private GameMetrics metrics; // receives move counts and sampled move latencies, or null if not instrumented
+    private int metricsCountdown = METRICS_SAMPLE_INTERVAL; // moves left until the next timed move
+    private int metricsFlushed; // moves since the last timed move which have already been reported by flushMetrics
+
+
+    /**
+     * Constructor for objects of class Board.  Creates the classic 3x3 board where 3 in a row wins.
+     */
+    public Board()
+    {
+        this(DEFAULT_LENGTH, DEFAULT_LENGTH);
+    }
+
+    /**
+     * Constructor for a square board of any size where winLength squares in a row (across a row, down a column, or through a diagonal) wins.
+     * For example a 15x15 board with a winLength of 5 plays gomoku.
+     *
+     * @param length width and height of the board
+     * @param winLength number of squares in a row needed to win, between 1 and length
+     */
+    public Board(int length, int winLength)
+    {
+        checkSize(length, winLength);
+
+    	// initialize instance variables
+        this.length = length;
+        this.winLength = winLength;
+        positions = Position.allOf(length);
+        int words = (length * length + WORD_SIZE - 1) / WORD_SIZE;
+        xBits = new long[words];
+        oBits = new long[words];
+        moves = new int[length * length];
+        movesCount = 0;
+        hasWon = Player.NONE;
+        winningMove = -1;
+    }
+
+    /**
+     * Copy constructor.  The copy can be changed without affecting the original, e.g. to search a position on another thread.
+     *
+     * @param other Board to copy
+     */
+    public Board(Board other)
+    {
+        length = other.length;
+        winLength = other.winLength;
+        positions = other.positions;
+        xBits = other.xBits.clone();
+        oBits = other.oBits.clone();
+        moves = other.moves.clone();
+        movesCount = other.movesCount;
+        hasWon = other.hasWon;
+        winningMove = other.winningMove;
+    }
+
+    /* Getter / Accesesor methods */
+
+    /**
+     * Returns length of a side of the classic board created by the no argument constructor, which is also the win length of that board.
+     * Boards of other sizes have their own length (see getLength); this is the size assumed where none is given,
+     * such as by Position's constructors without a length and by the command line tools.
+     *
+     * @return int representing length of a side of the default board
+     */
+    public static int getDefaultLength()
+    {
+    	return DEFAULT_LENGTH;
+    }
+
+    /**
+     * Checks a board size, for classes which work with boards of a given size without creating one.
+     *
+     * @param length width and height of the board
+     * @param winLength number of squares in a row needed to win
+     * @throws IllegalArgumentException unless length is positive and winLength is between 1 and length
+     */
+    public static void checkSize(int length, int winLength)
+    {
+        if(length < 1 || winLength < 1 || winLength > length)
+            throw new IllegalArgumentException("Invalid board size " + length + " with " + winLength + " in a row");
+    }
+
+    /**
+     * Returns length of a side of the board (same as width or height since board is square).
+     *
+     * @return int representing length of a side of the board
+     */
+    public int getLength()
+    {
+    	return length;
+    }
+
+    /**
+     * Returns the number of squares in a row needed to win.
+     *
+     * @return int representing the number of squares in a row needed to win
+     */
+    public int getWinLength()
+    {
+    	return winLength;
+    }
+
+    /**
+     * Returns the number of moves played in the game (sum of moves by both players)
+     *
+     * @return int representing how many moves have been played (sum of moves by both players)
+     */
+    public int getMovesCounter()
+    {
+        return movesCount;
+    }
+
+    /**
+     * Returns a move played in the game.
+     *
+     * @param index index of the move in order of play, between 0 and one less than getMovesCounter()
+     * @return int square number of the move
+     */
+    public int getMove(int index)
+    {
+        if(index < 0 || index >= movesCount)
+            throw new IndexOutOfBoundsException("Move " + index + " has not been played");
+        return moves[index];
+    }
+
+    /**
+     * Returns the total number of possible moves
+     *
+     * @return int representing total number of moves
+     */
+    public int getTotalSquares()
+    {
+    	return length * length;
+    }
+
+    /**
+     * Checks to see if move is legal (if space is occupied or not)
+     *
+     * @param pos Position object representing square to check if a move would be legal
+     * @return Returns false if empty, true if occupied.
+     */
+    public boolean isSquareOccupied(Position pos)
+    {
+    	int row = pos.getRow();
+    	int col = pos.getColumn();
+        // check if row and col are in grid, though that should already be the case when this method is called
+        if(row < 0 || row >= length || col < 0 || col >= length)
+            return true;
+        else if(getSquare(row, col) == Player.NONE)
+            return false;
+        else
+            return true;
+    }
+
+    /**
+     * Returns the Player occupying a square.
+     *
+     * @param row row of the square
+     * @param col column of the square
+     * @return Player occupying the square, or Player.NONE if empty
+     */
+    private Player getSquare(int row, int col)
+    {
+        return getSquare(row * length + col);
+    }
+
+    /**
+     * Checks if a square, given by its square number, is occupied.  Primitive alternative to isSquareOccupied(Position) for search and simulation code.
+     *
+     * @param square square number between 0 and one less than the number of squares in the board
+     * @return Returns false if empty, true if occupied.
+     */
+    public boolean isSquareOccupied(int square)
+    {
+        return isBitSet(xBits, square) || isBitSet(oBits, square);
+    }
+
+    /**
+     * Takes an immutable snapshot of the position, which can be shared between threads while this board carries on changing.
+     *
+     * @return BoardSnapshot of the position as it is now
+     */
+    public BoardSnapshot snapshot()
+    {
+        return BoardSnapshot.of(this);
+    }
+
+    /**
+     * Returns one word of a player's bitmask, so the position can be copied in bulk (see BoardSnapshot).
+     *
+     * @param p Player.X or Player.O
+     * @param word index of the word, holding squares word * 64 to word * 64 + 63
+     * @return long bitmask with bit n set if p occupies square word * 64 + n
+     */
+    long getBits(Player p, int word)
+    {
+        return p == Player.X ? xBits[word] : oBits[word];
+    }
+
+    /**
+     * Returns the Player occupying a square given by its square number.
+     *
+     * @param square square number between 0 and one less than the number of squares in the board
+     * @return Player occupying the square, or Player.NONE if empty
+     */
+    public Player getSquare(int square)
+    {
+        if(isBitSet(xBits, square))
+            return Player.X;
+        else if(isBitSet(oBits, square))
+            return Player.O;
+        else
+            return Player.NONE;
+    }
+
+    /**
+     * Returns the Player whose turn it is.  X always moves first.
+     *
+     * @return Player.X or Player.O
+     */
+    public Player getCurrentPlayer()
+    {
+        if(movesCount % 2 == 0)
+            return Player.X;
+        else
+            return Player.O;
+    }
+
+    /**
+     * Gets number of squares in board
+     *
+     * @return Total number of squares on board.
+     */
+    public int getSquareCount()
+    {
+        int temp = 0;
+        for(int i = 0; i < length; i++)
+            for(int j = 0; j < length; j++)
+                temp++;
+        return temp;
+    }
+
+    /**
+     * Returns winning Player enum value.  Otherwise Player.NONE.
+     *
+     * @return Player.NONE returned if no player has won.  Otherwise returns winning Player enum value.
+     */
+    public Player getHasWon()
+    {
+        return hasWon;
+    }
+
+    /**
+     * Tests whether a player has winLength squares in a row anywhere on the board.  Unlike getHasWon this does not depend on the order
+     * the squares were set in, so it also finds a second player's line on a position set up square by square.
+     *
+     * @param p Player to look for a line of
+     * @return true if p occupies a whole line of winLength squares
+     */
+    public boolean hasLine(Player p)
+    {
+        long[] bits = p == Player.X ? xBits : (p == Player.O ? oBits : null);
+        if(bits == null)
+            return false;
+        for(int square = 0; square < length * length; square++)
+        {
+            if(!isBitSet(bits, square))
+                continue;
+            int row = square / length;
+            int col = square % length;
+            for(int dir = 0; dir < ROW_STEPS.length; dir++)
+                if(1 + countInDirection(bits, row, col, ROW_STEPS[dir], COL_STEPS[dir]) >= winLength)
+                    return true;
+        }
+        return false;
+    }
+
+    /* Setter / mutator methods */
+
+    /**
+     * Clears every square so the board can be reused for a new game without allocating a new one.
+     */
+    public void reset()
+    {
+        Arrays.fill(xBits, 0);
+        Arrays.fill(oBits, 0);
+        movesCount = 0;
+        hasWon = Player.NONE;
+        winningMove = -1;
+        flushMetrics();
+    }
+
+    /**
+     * Instruments the board: moves made with setSquare are counted and one in every 1024 is timed, so the cost is spread thinly over many moves.
+     * Copies of the board made with the copy constructor are not instrumented.
+     *
+     * @param m GameMetrics to report to, or null to stop reporting
+     */
+    public void setMetrics(GameMetrics m)
+    {
+        flushMetrics();
+        metrics = m;
+        metricsCountdown = METRICS_SAMPLE_INTERVAL;
+        metricsFlushed = 0;
+    }
+
+    /**
+     * Reports the moves made since the last timed move which have not been reported yet, so counts are not held back between games.
+     * The countdown to the next timed move carries on, so short games still get timed moves.
+     */
+    void flushMetrics()
+    {
+        if(metrics == null)
+            return;
+        int made = METRICS_SAMPLE_INTERVAL - metricsCountdown;
+        metrics.recordMoves(made - metricsFlushed);
+        metricsFlushed = made;
+    }
+
+    /**
+     * Set state of a square.
+     *
+     * @param pos Position object representing square on board
+     * @param value Value to set in square
+     */
+    public void setSquare(Position pos, Player value)
+    {
+        setSquare(pos.getRow() * length + pos.getColumn(), value);
+    }
+
+    /**
+     * Set state of a square given by its square number.  Primitive alternative to setSquare(Position, Player) for search and simulation code.
+     *
+     * @param square square number between 0 and one less than the number of squares in the board
+     * @param value Value to set in square
+     */
+    public void setSquare(int square, Player value)
+    {
+        if(metrics != null && --metricsCountdown == 0)
+        {
+            long start = System.nanoTime();
+            applyMove(square, value);
+            metrics.recordMoveLatency(METRICS_SAMPLE_INTERVAL - metricsFlushed, System.nanoTime() - start);
+            metricsCountdown = METRICS_SAMPLE_INTERVAL;
+            metricsFlushed = 0;
+        }
+        else
+        {
+            applyMove(square, value);
+        }
+    }
+
+    /**
+     * Sets a square, checks for a win and records the move.
+     *
+     * @param square square number
+     * @param value Value to set in square
+     */
+    private void applyMove(int square, Player value)
+    {
+        if(value == Player.X)
+            xBits[square / WORD_SIZE] |= 1L << square;
+        else if(value == Player.O)
+            oBits[square / WORD_SIZE] |= 1L << square;
+        Position pos = positions[square];
+        checkWin(pos.getRow(), pos.getColumn(), value);
+        moves[movesCount] = square;
+        movesCount++;
+    }
+
+    /**
+     * Undo the most recent move made with setSquare, restoring the board to the state it was in before that move.
+     *
+     * @param pos Position object representing the square of the most recent move
+     */
+    public void unmakeMove(Position pos)
+    {
+        unmakeMove(pos.getRow() * length + pos.getColumn());
+    }
+
+    /**
+     * Undo the most recent move, given by its square number.
+     *
+     * @param square square number of the most recent move
+     */
+    public void unmakeMove(int square)
+    {
+        xBits[square / WORD_SIZE] &= ~(1L << square);
+        oBits[square / WORD_SIZE] &= ~(1L << square);
+        movesCount--;
+
+        if(movesCount == winningMove)
+        {
+            hasWon = Player.NONE;
+            winningMove = -1;
+        }
+    }
+
+    /**
+     * Method to check if the square just moved on completed a winning line (across a row, down a column, or through a diagonal).
+     * Only the squares within winLength of the move along each direction are scanned, so the cost does not grow with the size of the board.
+     *
+     * @param pos Position object representing square on board
+     * @param value
+     */
+    public void updateCounts(Position pos, Player value)
+    {
+        checkWin(pos.getRow(), pos.getColumn(), value);
+    }
+
+    /**
+     * Checks the lines through (row, col) for a win by value and records the winner.
+     *
+     * @param row row of the square just moved on
+     * @param col column of the square just moved on
+     * @param value Player who moved
+     */
+    private void checkWin(int row, int col, Player value)
+    {
+        long[] bits;
+        if(value == Player.X)
+            bits = xBits;
+        else if(value == Player.O)
+            bits = oBits;
+        else
+            return;
+
+        // the first line completed stays the winning line
+        if(hasWon != Player.NONE)
+            return;
+
+        for(int dir = 0; dir < ROW_STEPS.length; dir++)
+        {
+            int count = 1 + countInDirection(bits, row, col, ROW_STEPS[dir], COL_STEPS[dir])
+                    + countInDirection(bits, row, col, -ROW_STEPS[dir], -COL_STEPS[dir]);
+            if(count >= winLength)
+            {
+                hasWon = value;
+                winningMove = movesCount;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Counts consecutive squares set in bits starting next to (row, col) and stepping in one direction.  Stops counting once a winning line is certain.
+     *
+     * @param bits bitmask of the player's squares
+     * @param row row of the starting square
+     * @param col column of the starting square
+     * @param rowStep step applied to the row each square
+     * @param colStep step applied to the column each square
+     * @return number of consecutive squares set, at most winLength - 1
+     */
+    private int countInDirection(long[] bits, int row, int col, int rowStep, int colStep)
+    {
+        int count = 0;
+        int r = row + rowStep;
+        int c = col + colStep;
+        while(count < winLength - 1 && r >= 0 && r < length && c >= 0 && c < length && isBitSet(bits, r * length + c))
+        {
+            count++;
+            r += rowStep;
+            c += colStep;
+        }
+        return count;
+    }
+
+    /**
+     * Tests a single square in a bitmask.
+     *
+     * @param bits bitmask to test
+     * @param square square number
+     * @return true if the square's bit is set
+     */
+    private static boolean isBitSet(long[] bits, int square)
+    {
+        return (bits[square / WORD_SIZE] & (1L << square)) != 0;
+    }
+
+     /**
+     * Overriding toString method.  String representation of Board state, rendered by a BoardRenderer.
+     *
+     * @return  String representation of board (multiple lines)
+     */
+    public String toString()
+    {
+        return new BoardRenderer().render(this).toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,245 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The BoardRenderer class draws a Board as text into a reusable byte buffer, so rendering a frame creates no garbage and the frame can be written out in a single call.
+ * Two layouts are supported: the board state next to the square numbers (as printed by the console game),
+ * and the same layout prefixed with ANSI escape codes which redraw it in place at the top of a terminal instead of scrolling.
+ * A BoardRenderer is not thread safe; give each thread or Display its own.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class BoardRenderer
+{
+	/* Static fields */
+	private static final int INITIAL_SIZE = 256;
+	private static final byte[] HEADER = "Board State\tSquare Nums\n".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] CURSOR_HOME = "\033[H".getBytes(StandardCharsets.US_ASCII); // move the cursor to the top left corner
+	private static final byte[] CLEAR_LINE = "\033[K".getBytes(StandardCharsets.US_ASCII); // clear the rest of the current line
+	private static final byte[] CLEAR_BELOW = "\033[J".getBytes(StandardCharsets.US_ASCII); // clear everything below the cursor
+
+	/* Instance variables */
+    private byte[] buffer;
+    private int size; // number of bytes of the current frame in buffer
+    private boolean ansi; // true while rendering the in place layout
+
+    /**
+     * Constructor for objects of class BoardRenderer
+     */
+    public BoardRenderer()
+    {
+        buffer = new byte[INITIAL_SIZE];
+    }
+
+    /**
+     * Renders the board state next to the square numbers, replacing the previous frame.
+     *
+     * @param board Board to render
+     * @return this BoardRenderer, holding the new frame
+     */
+    public BoardRenderer render(Board board)
+    {
+        size = 0;
+        ansi = false;
+        renderBoard(board);
+        return this;
+    }
+
+    /**
+     * Renders the same layout as render, wrapped in ANSI escape codes which move the cursor home and clear leftovers of the previous frame,
+     * so printing each frame redraws the board in place on a terminal.
+     *
+     * @param board Board to render
+     * @return this BoardRenderer, holding the new frame
+     */
+    public BoardRenderer renderInPlace(Board board)
+    {
+        size = 0;
+        ansi = true;
+        append(CURSOR_HOME);
+        renderBoard(board);
+        append(CLEAR_BELOW);
+        return this;
+    }
+
+    /**
+     * Returns the buffer holding the current frame.  Only the first getSize() bytes are part of the frame.
+     *
+     * @return byte array of US-ASCII text, reused by the next render
+     */
+    public byte[] getBuffer()
+    {
+        return buffer;
+    }
+
+    /**
+     * Returns the length of the current frame.
+     *
+     * @return int number of bytes in the frame
+     */
+    public int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Writes the current frame and flushes, so the frame reaches the stream in one piece.
+     *
+     * @param out OutputStream to write to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(OutputStream out) throws IOException
+    {
+        out.write(buffer, 0, size);
+        out.flush();
+    }
+
+    /**
+     * Overriding toString method.
+     *
+     * @return String holding the current frame
+     */
+    public String toString()
+    {
+        return new String(buffer, 0, size, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Renders the two panels: board state on the left and square numbers on the right, with a line between rows.
+     *
+     * @param board Board to render
+     */
+    private void renderBoard(Board board)
+    {
+        int length = board.getLength();
+        int width = digits(board.getTotalSquares()); // widest square number, so columns line up on larger boards
+        int lineWidth = length * (width + 3) - 1;
+
+        append(HEADER);
+        for(int row = 0; row < length; row++)
+        {
+            endLine();
+            if(row > 0)
+            {
+                // horizontal line between rows
+                for(int i = 0; i < lineWidth; i++)
+                    append('-');
+                append('\t');
+                for(int i = 0; i < lineWidth; i++)
+                    append('-');
+                endLine();
+            }
+
+            for(int col = 0; col < length; col++)
+            {
+                Player p = board.getSquare(row * length + col);
+                append(' ');
+                for(int i = 1; i < width; i++)
+                    append(' ');
+                append(p == Player.X ? 'X' : (p == Player.O ? 'O' : ' '));
+                append(' ');
+                if(col < length - 1)
+                    append('|');
+            }
+            append('\t');
+            for(int col = 0; col < length; col++)
+            {
+                int number = row * length + col + 1;
+                append(' ');
+                for(int i = digits(number); i < width; i++)
+                    append(' ');
+                appendNumber(number);
+                append(' ');
+                if(col < length - 1)
+                    append('|');
+            }
+        }
+        endLine();
+    }
+
+    /**
+     * Ends a line, clearing the rest of the terminal line first when redrawing in place.
+     */
+    private void endLine()
+    {
+        if(ansi)
+            append(CLEAR_LINE);
+        append('\n');
+    }
+
+    /**
+     * Counts the decimal digits of a positive number.
+     *
+     * @param number positive int
+     * @return int number of digits
+     */
+    private static int digits(int number)
+    {
+        int count = 1;
+        while(number >= 10)
+        {
+            number /= 10;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Appends the decimal digits of a positive number without creating a String.
+     *
+     * @param number positive int
+     */
+    private void appendNumber(int number)
+    {
+        int count = digits(number);
+        ensureCapacity(count);
+        for(int i = size + count - 1; i >= size; i--)
+        {
+            buffer[i] = (byte)('0' + number % 10);
+            number /= 10;
+        }
+        size += count;
+    }
+
+    /**
+     * Appends one character.
+     *
+     * @param c US-ASCII character
+     */
+    private void append(char c)
+    {
+        ensureCapacity(1);
+        buffer[size++] = (byte)c;
+    }
+
+    /**
+     * Appends bytes.
+     *
+     * @param bytes US-ASCII text
+     */
+    private void append(byte[] bytes)
+    {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    /**
+     * Grows the buffer if needed.  The buffer only grows, so after the first frame of a board size rendering allocates nothing.
+     *
+     * @param extra number of bytes about to be appended
+     */
+    private void ensureCapacity(int extra)
+    {
+        if(size + extra > buffer.length)
+        {
+            byte[] bigger = new byte[Math.max(buffer.length * 2, size + extra)];
+            System.arraycopy(buffer, 0, bigger, 0, size);
+            buffer = bigger;
+        }
+    }
+}
\ No newline at end of file
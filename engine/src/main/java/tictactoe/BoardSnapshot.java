@@ -0,0 +1,374 @@
+package tictactoe;
+
+import java.util.Arrays;
+
+/**
+ * The BoardSnapshot class is an immutable copy of a board position, safe to share between threads without locking or copying.
+ * Positions of up to 32 squares (including 3x3) are packed into a single long, X's squares in the low 32 bits and O's in the high 32 bits;
+ * larger positions keep the bitmasks of both players in a small long array.
+ * A snapshot of a small board is taken from a live Board in constant time, and withMove derives the snapshot after a move without touching the original.
+ * Snapshots are equal if they hold the same position under the same rules, so they work as hash map keys.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public final class BoardSnapshot
+{
+	/* Static fields */
+	private static final int PACKED_SQUARES = 32; // largest board packed into a single long
+	private static final int WORD_SIZE = 64;
+	private static final int[] ROW_STEPS = {0, 1, 1, 1};
+	private static final int[] COL_STEPS = {1, 0, 1, -1};
+	private static final ThreadLocal<long[][]> SCRATCH = new ThreadLocal<long[][]>() // canonical and mapped words while canonicalizing large boards
+	{
+	    @Override
+	    protected long[][] initialValue()
+	    {
+	        return new long[2][0];
+	    }
+	};
+
+	/* Instance variables */
+    private final int length;
+    private final int winLength;
+    private final long packed; // X's squares in bits 0-31, O's in bits 32-63, if the board has at most 32 squares
+    private final long[] words; // X's bitmask words then O's, if the board has more than 32 squares, otherwise null
+    private final int movesCount;
+    private final Player winner;
+    private final int hash;
+
+    /**
+     * Constructor used by of and withMove.
+     *
+     * @param length length of a side of the board
+     * @param winLength number of squares in a row needed to win
+     * @param packed packed position of a small board
+     * @param words bitmask words of a large board, owned by the new snapshot, or null
+     * @param movesCount number of stones on the board
+     * @param winner Player who has won, or Player.NONE
+     */
+    private BoardSnapshot(int length, int winLength, long packed, long[] words, int movesCount, Player winner)
+    {
+        this.length = length;
+        this.winLength = winLength;
+        this.packed = packed;
+        this.words = words;
+        this.movesCount = movesCount;
+        this.winner = winner;
+        long mixed = words == null ? packed : Arrays.hashCode(words);
+        mixed = (mixed ^ (mixed >>> 31)) * 0x9E3779B97F4A7C15L; // spread the bits, as packed positions differ in few of them
+        hash = (int)(mixed ^ (mixed >>> 32)) * 31 + length * 17 + winLength;
+    }
+
+    /**
+     * Takes a snapshot of a board's position.  This copies one long for boards of up to 32 squares, and two bitmasks otherwise.
+     *
+     * @param board Board to copy
+     * @return BoardSnapshot of the board as it is now
+     */
+    public static BoardSnapshot of(Board board)
+    {
+        long packed = 0;
+        long[] words = null;
+        if(board.getTotalSquares() <= PACKED_SQUARES)
+            packed = board.getBits(Player.X, 0) | board.getBits(Player.O, 0) << PACKED_SQUARES;
+        else
+        {
+            int count = (board.getTotalSquares() + WORD_SIZE - 1) / WORD_SIZE;
+            words = new long[2 * count];
+            for(int i = 0; i < count; i++)
+            {
+                words[i] = board.getBits(Player.X, i);
+                words[count + i] = board.getBits(Player.O, i);
+            }
+        }
+        return new BoardSnapshot(board.getLength(), board.getWinLength(), packed, words, board.getMovesCounter(), board.getHasWon());
+    }
+
+    /**
+     * Returns the snapshot after the player to move plays a square.
+     *
+     * @param square empty square number
+     * @return new BoardSnapshot; this one is unchanged
+     * @throws IllegalArgumentException if the square is off the board or occupied
+     * @throws IllegalStateException if the game is over
+     */
+    public BoardSnapshot withMove(int square)
+    {
+        if(square < 0 || square >= getTotalSquares())
+            throw new IllegalArgumentException("Square " + square + " is off the board");
+        if(isSquareOccupied(square))
+            throw new IllegalArgumentException("Square " + square + " is occupied");
+        if(isOver())
+            throw new IllegalStateException("Game is over");
+
+        Player mover = getCurrentPlayer();
+        long newPacked = packed;
+        long[] newWords = null;
+        if(words == null)
+            newPacked |= 1L << (square + (mover == Player.X ? 0 : PACKED_SQUARES));
+        else
+        {
+            newWords = words.clone();
+            newWords[(mover == Player.X ? 0 : words.length / 2) + square / WORD_SIZE] |= 1L << square;
+        }
+        Player newWinner = completesLine(newPacked, newWords, square, mover) ? mover : Player.NONE;
+        return new BoardSnapshot(length, winLength, newPacked, newWords, movesCount + 1, newWinner);
+    }
+
+    /**
+     * Checks whether a stone is part of a line of winLength stones of its player.
+     *
+     * @param newPacked packed position holding the stone, for a small board
+     * @param newWords bitmask words holding the stone, for a large board, or null
+     * @param square square number of the stone
+     * @param p Player owning the stone
+     * @return true if the line is long enough to win
+     */
+    private boolean completesLine(long newPacked, long[] newWords, int square, Player p)
+    {
+        int row = square / length;
+        int col = square % length;
+        for(int d = 0; d < ROW_STEPS.length; d++)
+        {
+            int count = 1;
+            for(int sign = -1; sign <= 1; sign += 2)
+            {
+                int r = row + sign * ROW_STEPS[d];
+                int c = col + sign * COL_STEPS[d];
+                while(r >= 0 && r < length && c >= 0 && c < length && squareOf(newPacked, newWords, r * length + c) == p)
+                {
+                    count++;
+                    r += sign * ROW_STEPS[d];
+                    c += sign * COL_STEPS[d];
+                }
+            }
+            if(count >= winLength)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Builds a Board holding this position.  The board's move history is in square order, not the order of play.
+     *
+     * @return new Board
+     */
+    public Board toBoard()
+    {
+        Board board = new Board(length, winLength);
+        for(int square = 0; square < getTotalSquares(); square++)
+        {
+            Player p = getSquare(square);
+            if(p != Player.NONE)
+                board.setSquare(square, p);
+        }
+        return board;
+    }
+
+    /* Getter / Accesesor methods */
+
+    /**
+     * @return int length of a side of the board
+     */
+    public int getLength()
+    {
+        return length;
+    }
+
+    /**
+     * @return int number of squares in a row needed to win
+     */
+    public int getWinLength()
+    {
+        return winLength;
+    }
+
+    /**
+     * @return int number of squares on the board
+     */
+    public int getTotalSquares()
+    {
+        return length * length;
+    }
+
+    /**
+     * @return int number of moves played
+     */
+    public int getMovesCounter()
+    {
+        return movesCount;
+    }
+
+    /**
+     * @return Player to move next
+     */
+    public Player getCurrentPlayer()
+    {
+        return movesCount % 2 == 0 ? Player.X : Player.O;
+    }
+
+    /**
+     * @return Player who has won, or Player.NONE
+     */
+    public Player getWinner()
+    {
+        return winner;
+    }
+
+    /**
+     * @return true if the game has been won or every square is taken
+     */
+    public boolean isOver()
+    {
+        return winner != Player.NONE || movesCount == getTotalSquares();
+    }
+
+    /**
+     * Returns the player occupying a square.
+     *
+     * @param square square number between 0 and one less than the number of squares
+     * @return Player occupying the square, or Player.NONE if empty
+     */
+    public Player getSquare(int square)
+    {
+        return squareOf(packed, words, square);
+    }
+
+    /**
+     * Looks up a square in a packed position or bitmask words.
+     *
+     * @param packed packed position of a small board
+     * @param words bitmask words of a large board, or null
+     * @param square square number
+     * @return Player occupying the square, or Player.NONE if empty
+     */
+    private static Player squareOf(long packed, long[] words, int square)
+    {
+        if(words == null)
+        {
+            if((packed & (1L << square)) != 0)
+                return Player.X;
+            if((packed & (1L << (square + PACKED_SQUARES))) != 0)
+                return Player.O;
+            return Player.NONE;
+        }
+        long bit = 1L << square;
+        if((words[square / WORD_SIZE] & bit) != 0)
+            return Player.X;
+        if((words[words.length / 2 + square / WORD_SIZE] & bit) != 0)
+            return Player.O;
+        return Player.NONE;
+    }
+
+    /**
+     * @param square square number between 0 and one less than the number of squares
+     * @return true if the square is occupied
+     */
+    public boolean isSquareOccupied(int square)
+    {
+        return getSquare(square) != Player.NONE;
+    }
+
+    /**
+     * Returns the packed position of a board of up to 32 squares, e.g. to store it in a primitive array.
+     *
+     * @return long with X's squares in bits 0-31 and O's in bits 32-63
+     * @throws IllegalStateException if the board has more than 32 squares
+     */
+    public long getPacked()
+    {
+        if(words != null)
+            throw new IllegalStateException("Board too large to pack into a long");
+        return packed;
+    }
+
+    /**
+     * Returns the symmetry which maps this position onto its canonical form, the smallest encoding of the position over the 8 symmetries.
+     * A move m on this board is square Symmetry.forLength(getLength()).map(t, m) on the canonical board.
+     *
+     * @return int symmetry number between 0 and 7
+     */
+    public int getCanonicalTransform()
+    {
+        Symmetry symmetry = Symmetry.forLength(length);
+        if(words == null)
+            return Symmetry.getTransform(symmetry.canonicalPacked(packed));
+        long[][] scratch = scratchFor(words.length);
+        return symmetry.canonicalWords(words, scratch[0], scratch[1]);
+    }
+
+    /**
+     * Returns the position in its canonical orientation.  Positions which are rotations or reflections of each other have equal canonical snapshots,
+     * so canonical snapshots work as keys of caches and opening books which should not tell them apart.
+     *
+     * @return BoardSnapshot of the canonical position, this snapshot if it is already canonical
+     */
+    public BoardSnapshot canonical()
+    {
+        Symmetry symmetry = Symmetry.forLength(length);
+        if(words == null)
+        {
+            long canonical = symmetry.canonicalPacked(packed);
+            if(Symmetry.getTransform(canonical) == 0)
+                return this;
+            return new BoardSnapshot(length, winLength, Symmetry.getKey(canonical), null, movesCount, winner);
+        }
+        long[][] scratch = scratchFor(words.length);
+        if(symmetry.canonicalWords(words, scratch[0], scratch[1]) == 0)
+            return this;
+        return new BoardSnapshot(length, winLength, 0, Arrays.copyOf(scratch[0], words.length), movesCount, winner);
+    }
+
+    /**
+     * Returns the calling thread's scratch arrays for canonicalizing, so only a canonical snapshot which differs from this one allocates.
+     *
+     * @param count number of bitmask words of the position
+     * @return two arrays of at least count words: the canonical words found so far, and the words under the symmetry being tried
+     */
+    private static long[][] scratchFor(int count)
+    {
+        long[][] scratch = SCRATCH.get();
+        if(scratch[0].length < count)
+        {
+            scratch[0] = new long[count];
+            scratch[1] = new long[count];
+        }
+        return scratch;
+    }
+
+    /**
+     * Compares positions and rules.
+     *
+     * @param o Object to compare with
+     * @return true if o is a BoardSnapshot of the same position on a board of the same length and win length
+     */
+    @Override
+    public boolean equals(Object o)
+    {
+        if(this == o)
+            return true;
+        if(!(o instanceof BoardSnapshot))
+            return false;
+        BoardSnapshot other = (BoardSnapshot)o;
+        return hash == other.hash && length == other.length && winLength == other.winLength
+                && packed == other.packed && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return hash;
+    }
+
+    /**
+     * Overriding toString method.
+     *
+     * @return String rendering of the position, as printed by the console game
+     */
+    @Override
+    public String toString()
+    {
+        return toBoard().toString();
+    }
+}
@@ -0,0 +1,115 @@
+package tictactoe;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The ConcurrentLongSet class is a fixed capacity hash set of long keys which many threads can add to at once without locking.
+ * Keys are stored unboxed in an open addressing table of atomic longs; a thread claims an empty slot with a single compare and set.
+ * Keys cannot be removed.  The table does not grow, so size it for the expected number of keys (it works best at most half full).
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class ConcurrentLongSet
+{
+	/* Static fields */
+	private static final long EMPTY = 0; // marks an empty slot.  The key 0 is stored as ZERO_KEY instead.
+	private static final long ZERO_KEY = Long.MIN_VALUE;
+
+	/* Instance variables */
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final AtomicInteger size;
+
+    /**
+     * Constructor for a set holding at most 2^sizeBits keys.
+     *
+     * @param sizeBits base two logarithm of the number of slots
+     */
+    public ConcurrentLongSet(int sizeBits)
+    {
+        if(sizeBits < 1 || sizeBits > 30)
+            throw new IllegalArgumentException("Invalid set size " + sizeBits);
+        slots = new AtomicLongArray(1 << sizeBits);
+        mask = (1 << sizeBits) - 1;
+        size = new AtomicInteger();
+    }
+
+    /**
+     * Adds a key.
+     *
+     * @param key key to add.  Long.MIN_VALUE and 0 are treated as the same key.
+     * @return true if the key was not already in the set
+     * @throws IllegalStateException if the set is full
+     */
+    public boolean add(long key)
+    {
+        if(key == EMPTY)
+            key = ZERO_KEY;
+        int slot = mix(key) & mask;
+        for(int probes = 0; probes <= mask; probes++)
+        {
+            long current = slots.get(slot);
+            if(current == key)
+                return false;
+            if(current == EMPTY)
+            {
+                if(slots.compareAndSet(slot, EMPTY, key))
+                {
+                    size.incrementAndGet();
+                    return true;
+                }
+                if(slots.get(slot) == key) // another thread added the same key
+                    return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        throw new IllegalStateException("Set is full");
+    }
+
+    /**
+     * Checks for a key.
+     *
+     * @param key key to look for
+     * @return true if the key has been added
+     */
+    public boolean contains(long key)
+    {
+        if(key == EMPTY)
+            key = ZERO_KEY;
+        int slot = mix(key) & mask;
+        for(int probes = 0; probes <= mask; probes++)
+        {
+            long current = slots.get(slot);
+            if(current == key)
+                return true;
+            if(current == EMPTY)
+                return false;
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * @return int number of keys in the set
+     */
+    public int size()
+    {
+        return size.get();
+    }
+
+    /**
+     * Spreads the bits of a key so keys differing only in their high bits land in different slots.
+     *
+     * @param key key to hash
+     * @return int hash of the key
+     */
+    private static int mix(long key)
+    {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        return (int)key;
+    }
+}
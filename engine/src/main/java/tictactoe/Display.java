@@ -0,0 +1,312 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.StringTokenizer;
+
+/**
+ * The Display class is used to represent the View component of the Model-View-Controller design pattern. 
+ * Here, the Display class is mainly responsible for receiving input from the user and outputting messages and game state information to the console.
+ * This abstraction moves all the user input/output to a single place (the Display class) allowing other classes to deal with other functionality of the game.
+ * As a GameListener it prints the board and messages in response to the Game's events.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class Display implements GameListener
+{
+	// Static fields
+	private static final int QUIT_SIGNAL = -1;
+
+	
+	// Instance variables
+    private Board myBoard;
+    private BoardRenderer renderer; // reused for every frame so printing the board creates no garbage
+    private boolean redrawInPlace; // true to redraw the board at the top of the terminal instead of scrolling
+    private MoveInput input; // source of the user's moves, kept for the life of the Display
+    private StringTokenizer pendingTokens; // tokens left over from the last line read, so several moves may be entered on one line
+    private GameMetrics metrics; // counts out of range squares entered, or null
+
+    /**
+     * Constructor for objects of class Display
+     * @param b a Board object to Display
+     */
+    public Display(Board b)
+    {
+        this(b, false);
+    }
+
+    /**
+     * Constructor for a Display which can redraw the board in place using ANSI escape codes.
+     * @param b a Board object to Display
+     * @param inPlace true to redraw the board at the top of an ANSI terminal each turn, false to print it below the previous one
+     */
+    public Display(Board b, boolean inPlace)
+    {
+        this(b, inPlace, ReaderMoveInput.console());
+    }
+
+    /**
+     * Constructor for a Display reading moves from any MoveInput, such as a file of recorded moves or a queue filled by a load test.
+     * @param b a Board object to Display
+     * @param inPlace true to redraw the board at the top of an ANSI terminal each turn, false to print it below the previous one
+     * @param in MoveInput to read the user's moves from
+     */
+    public Display(Board b, boolean inPlace, MoveInput in)
+    {
+        myBoard = b;
+        renderer = new BoardRenderer();
+        redrawInPlace = inPlace;
+        input = in;
+        pendingTokens = new StringTokenizer("");
+    }
+
+    /**
+     * Static method to return QUIT_VALUE an internal value representing the user wishes to quit the game
+     * 
+	 * @return int QUIT_VALUE field (-2)
+	 */
+	public static int getQuitSignal()
+	{
+		return QUIT_SIGNAL;
+	}
+
+	/**
+     * Sets metrics to count out of range square numbers, which are rejected here before reaching the Game.
+     *
+     * @param m GameMetrics to report to, or null to stop reporting
+     */
+    public void setMetrics(GameMetrics m)
+    {
+        metrics = m;
+    }
+
+	/**
+     * Prints a representation of myBoard's current state to the console.  The board is rendered into a reused buffer and written with a single flush.
+     */
+    public void printBoard()
+    {
+        if(redrawInPlace)
+            renderer.renderInPlace(myBoard);
+        else
+            renderer.render(myBoard);
+        System.out.write(renderer.getBuffer(), 0, renderer.getSize());
+        System.out.println();
+    }
+    
+    /**
+     * Method used to prompt the player to select a square and input its numeric value.
+     * 
+     * @return int representing the value the user provided.
+     *
+     */
+    public int promptPlayer()
+    {
+        boolean continueLoop = true;
+        int value = QUIT_SIGNAL; // Here using QUIT_SIGNAL to initialize value without providing a meaningful/correct input such as 0, which could represent a square number.
+        while(continueLoop)
+        {
+        	System.out.print("Enter square number or enter a letter to quit: ");
+        	String token = nextToken();
+        	if(token == null) // End of input
+        	{
+        		return QUIT_SIGNAL;
+        	}
+        	try
+        	{
+        		value = Integer.parseInt(token);
+        	}
+        	catch (NumberFormatException nfe) // A letter was entered
+        	{
+        		continueLoop = false;
+        		return QUIT_SIGNAL;
+        	}
+
+        	// Checking if value within bounds of tic tac toe board grid
+        	if(value < 1 || value > myBoard.getTotalSquares())
+        	{
+        		if(metrics != null)
+        		    metrics.recordIllegalMove();
+        		printIllegalMoveMessage();
+        		continueLoop = true;
+        	}
+        	else
+        	{
+        		continueLoop = false;
+        	}
+        }
+        return value;
+    }
+   
+    /**
+     * Reads the next whitespace separated token of input, reading a new line when the current one is used up.
+     * 
+     * @return String token, or null at the end of input
+     */
+    private String nextToken()
+    {
+        try
+        {
+            while(!pendingTokens.hasMoreTokens())
+            {
+                String line = input.readLine();
+                if(line == null)
+                    return null;
+                pendingTokens = new StringTokenizer(line);
+            }
+            return pendingTokens.nextToken();
+        }
+        catch(IOException ioe)
+        {
+            throw new UncheckedIOException("Could not read input", ioe);
+        }
+    }
+
+    /**
+     * Displays a welcome message to the console.  Used when the game begins.
+     */
+    public void printWelcomeMessage()
+    {
+        System.out.println("Welcome to Tic Tac Toe!\nWritten by Alex Koster (http://github.com/alexkoster)");
+    }
+    
+    /**
+     * Displays a message to the console indicating to the user the square they selected is occupied.
+     */
+    public void printSquareOccupiedMessage()
+    {
+    	System.out.println("Square occupied. Please try again.");
+    }
+    
+    /**
+     * Displays a message to the console indicating an illegal move was selected.  Used while the game is being played.
+     */
+    public void printIllegalMoveMessage()
+    {
+        System.out.println("You have attempted to make an illegal move.");
+    }
+    
+    /**
+     * Prints player's symbol
+     * 
+     * @param p Player enum to be printed to console
+     */
+    public void printPlayerSymbol(Player p)
+    {
+        System.out.print("Player ");
+        System.out.println(p.name());
+    }
+    
+    /**
+     * Displays the square chosen by a computer controlled player.
+     * 
+     * @param square square number between 0 and one less than the number of squares, displayed starting from 1 to match the user's input
+     */
+    public void printComputerMove(int square)
+    {
+        System.out.print("Computer chooses square ");
+        System.out.println(square + 1);
+    }
+    
+    /**
+     * Displays a message to the console indicating the game was drawn.  Used when the game ends in a draw.
+     */
+    public void printDrawMessage()
+    {
+        System.out.println("No more moves! Game drawn!");
+    }
+    
+    /**
+     * Displays a message to the console indicating a player has won the game.  Used at the end of a game if the game is not drawn.
+     */
+    public void printWinMessage()
+    {
+    	System.out.println();
+        System.out.print(myBoard.getHasWon().name());
+        System.out.println(" has won!");
+    }
+    
+    /**
+     * Displays a message to the console indicating that the quit request was recieved and acted upon.
+     */
+    public void printQuitMessage()
+    {
+    	System.out.println("Quitting game!");
+    }
+
+    /**
+     * Prints the board and whose turn it is.
+     * 
+     * @param game Game waiting for the move
+     * @param player Player to move
+     */
+    public void onMoveRequested(Game game, Player player)
+    {
+        // Print a new line for aesthetics
+        System.out.println();
+        printBoard();
+        printPlayerSymbol(player);
+    }
+    
+    /**
+     * Prints the square chosen by a computer player.
+     * 
+     * @param game Game the move was played in
+     * @param player Player who moved
+     * @param square square number between 0 and one less than the number of squares
+     */
+    public void onMoveMade(Game game, Player player, int square)
+    {
+        if(game.isComputer(player))
+            printComputerMove(square);
+    }
+    
+    /**
+     * Prints why a move was rejected.
+     * 
+     * @param game Game the move was submitted to
+     * @param player Player to move
+     * @param square square number that was submitted
+     * @param reason Game.Rejection explaining why
+     */
+    public void onMoveRejected(Game game, Player player, int square, Game.Rejection reason)
+    {
+        if(reason == Game.Rejection.OCCUPIED)
+            printSquareOccupiedMessage();
+        else
+            printIllegalMoveMessage();
+    }
+    
+    /**
+     * Prints the final board and the winner.
+     * 
+     * @param game Game that was won
+     * @param winner Player who won
+     */
+    public void onGameWon(Game game, Player winner)
+    {
+        printBoard();
+        printWinMessage();
+    }
+    
+    /**
+     * Prints the final board and the draw message.
+     * 
+     * @param game Game that was drawn
+     */
+    public void onGameDrawn(Game game)
+    {
+        printBoard();
+        printDrawMessage();
+    }
+    
+    /**
+     * Prints the quit message.
+     * 
+     * @param game Game that was quit
+     */
+    public void onGameQuit(Game game)
+    {
+        printQuitMessage();
+    }
+}
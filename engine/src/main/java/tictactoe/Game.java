@@ -0,0 +1,491 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+//TODO define constants  - magic numbers
+
+/**
+ * The Game class is the controller: a state machine which advances a Board one event at a time and reports each step to its GameListeners.
+ * Moves for human players are submitted with submitMove from any thread, so a game needs no thread of its own while it waits for a move.
+ * Computer players move as soon as it is their turn, either straight away on the thread that advanced the game,
+ * or as a task on an Executor, so thousands of games can share a small pool of threads.
+ * The console game is a Display registered as a listener, driven by mainLoop.
+ *
+ * @author (your name)
+ * @version (a version number or a date)
+ */
+public class Game
+{
+    /**
+     * The states a game moves through.  A game starts in NEW, waits in AWAITING_MOVE, and ends in WON, DRAWN or QUIT.
+     */
+    public enum State
+    {
+        NEW, AWAITING_MOVE, WON, DRAWN, QUIT
+    }
+
+    /**
+     * The reasons a submitted move is refused.
+     */
+    public enum Rejection
+    {
+        NOT_IN_PROGRESS, // the game has not started or has ended
+        NOT_YOUR_TURN, // the player to move is computer controlled
+        ILLEGAL_SQUARE, // the square number is off the board
+        OCCUPIED // the square is taken
+    }
+
+    // Instance variables
+    private Board myBoard; // Model
+    private Display myDisplay; // View, or null if the game is not played on the console
+    private MovePolicy xPolicy; // chooses X's moves, or null if X is played by the user
+    private MovePolicy oPolicy; // chooses O's moves, or null if O is played by the user
+    private Executor executor; // runs computer moves, or null to play them on the thread advancing the game
+    private Runnable computerMove; // task playing the computer's move on the executor
+    private List<GameListener> listeners;
+    private State state;
+    private GameRecordWriter recorder; // archive the game is appended to when it ends, or null
+    private GameMetrics metrics; // receives move, decision and outcome metrics, or null
+
+    /**
+     * Constructor for objects of class Game
+     * 
+     * @param b Board model object to control
+     * @param d Display view object to control?
+     */
+    public Game(Board b, Display d)
+    {
+        // Initialize instance variables
+        this(b, d, null, null);
+    }
+
+    /**
+     * Constructor for a console game where either player may be controlled by the computer.
+     * 
+     * @param b Board model object to control
+     * @param d Display view object to control, registered as a listener
+     * @param x MovePolicy choosing X's moves, or null for the user to play X
+     * @param o MovePolicy choosing O's moves, or null for the user to play O
+     */
+    public Game(Board b, Display d, MovePolicy x, MovePolicy o)
+    {
+        this(b, x, o, null);
+        myDisplay = d;
+        if(d != null)
+            addListener(d);
+    }
+
+    /**
+     * Constructor for a game with no display, whose computer moves are played on the thread advancing the game.
+     * 
+     * @param b Board model object to control
+     * @param x MovePolicy choosing X's moves, or null for moves submitted with submitMove
+     * @param o MovePolicy choosing O's moves, or null for moves submitted with submitMove
+     */
+    public Game(Board b, MovePolicy x, MovePolicy o)
+    {
+        this(b, x, o, null);
+    }
+
+    /**
+     * Constructor for a game with no display, whose computer moves are run as tasks on an executor shared with other games.
+     * 
+     * @param b Board model object to control
+     * @param x MovePolicy choosing X's moves, or null for moves submitted with submitMove
+     * @param o MovePolicy choosing O's moves, or null for moves submitted with submitMove
+     * @param e Executor to run computer moves on, or null to play them on the thread advancing the game
+     */
+    public Game(Board b, MovePolicy x, MovePolicy o, Executor e)
+    {
+        myBoard = b;
+        xPolicy = x;
+        oPolicy = o;
+        executor = e;
+        computerMove = this::playComputerMove;
+        listeners = new CopyOnWriteArrayList<GameListener>();
+        state = State.NEW;
+    }
+
+    /**
+     * Adds a listener to be told of every later event.
+     * 
+     * @param listener GameListener to add
+     */
+    public void addListener(GameListener listener)
+    {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener.
+     * 
+     * @param listener GameListener to remove
+     */
+    public void removeListener(GameListener listener)
+    {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Sets an archive to append the game to when it ends (won, drawn or quit).
+     * 
+     * @param writer GameRecordWriter to record the game with, or null to stop recording
+     */
+    public void setRecorder(GameRecordWriter writer)
+    {
+        recorder = writer;
+    }
+
+    /**
+     * Sets metrics for the game: the board's moves, rejected moves, the computer players' decision times and the outcome.
+     * 
+     * @param m GameMetrics to report to, or null to stop reporting
+     */
+    public void setMetrics(GameMetrics m)
+    {
+        metrics = m;
+        myBoard.setMetrics(m);
+        if(myDisplay != null)
+            myDisplay.setMetrics(m);
+    }
+
+    /**
+     * Returns the board being played on.  Only read it from a listener or while the game is waiting for a human move.
+     * 
+     * @return Board of the game
+     */
+    public Board getBoard()
+    {
+        return myBoard;
+    }
+
+    /**
+     * Returns the current state.
+     * 
+     * @return State of the game
+     */
+    public synchronized State getState()
+    {
+        return state;
+    }
+
+    /**
+     * Returns whether the game has ended.
+     * 
+     * @return true if the game was won, drawn or quit
+     */
+    public synchronized boolean isOver()
+    {
+        return state == State.WON || state == State.DRAWN || state == State.QUIT;
+    }
+
+    /**
+     * Returns whether a player is controlled by the computer.
+     * 
+     * @param p Player to check
+     * @return true if p's moves are chosen by a MovePolicy
+     */
+    public boolean isComputer(Player p)
+    {
+        return policyFor(p) != null;
+    }
+
+    /**
+     * Starts the game.  If the computer moves first it moves now, or is scheduled on the executor.
+     * 
+     * @throws IllegalStateException if the game has already started
+     */
+    public synchronized void start()
+    {
+        if(state != State.NEW)
+            throw new IllegalStateException("Game already started");
+        state = State.AWAITING_MOVE;
+        for(GameListener listener : listeners)
+            listener.onGameStarted(this);
+        advance();
+    }
+
+    /**
+     * Submits a move for the player to move, who must be a human player.  Any computer reply follows straight away or is scheduled on the executor.
+     * 
+     * @param square square number between 0 and one less than the number of squares
+     * @return true if the move was played, false if it was rejected
+     */
+    public synchronized boolean submitMove(int square)
+    {
+        Player player = myBoard.getCurrentPlayer();
+        Rejection reason = null;
+        if(state != State.AWAITING_MOVE)
+            reason = Rejection.NOT_IN_PROGRESS;
+        else if(isComputer(player))
+            reason = Rejection.NOT_YOUR_TURN;
+        else if(square < 0 || square >= myBoard.getTotalSquares())
+            reason = Rejection.ILLEGAL_SQUARE;
+        else if(myBoard.isSquareOccupied(square))
+            reason = Rejection.OCCUPIED;
+
+        if(reason != null)
+        {
+            if(metrics != null)
+            {
+                if(reason == Rejection.OCCUPIED)
+                    metrics.recordOccupiedSquare();
+                else
+                    metrics.recordIllegalMove();
+            }
+            for(GameListener listener : listeners)
+                listener.onMoveRejected(this, player, square, reason);
+            if(reason == Rejection.ILLEGAL_SQUARE || reason == Rejection.OCCUPIED)
+            {
+                // ask the same player again
+                for(GameListener listener : listeners)
+                    listener.onMoveRequested(this, player);
+            }
+            return false;
+        }
+
+        play(player, square);
+        advance();
+        return true;
+    }
+
+    /**
+     * Abandons the game.
+     * 
+     * @return true if the game was quit, false if it had already ended
+     */
+    public synchronized boolean quit()
+    {
+        if(isOver())
+            return false;
+        state = State.QUIT;
+        recordGame();
+        for(GameListener listener : listeners)
+            listener.onGameQuit(this);
+        notifyAll();
+        return true;
+    }
+
+    /**
+     * Requests moves until the game ends or waits for a human move, playing computer moves on this thread or scheduling the next one on the executor.
+     */
+    private void advance()
+    {
+        while(state == State.AWAITING_MOVE)
+        {
+            Player player = myBoard.getCurrentPlayer();
+            for(GameListener listener : listeners)
+                listener.onMoveRequested(this, player);
+            MovePolicy policy = policyFor(player);
+            if(policy == null)
+                break; // wait for submitMove
+            if(executor != null)
+            {
+                executor.execute(computerMove);
+                break;
+            }
+            play(player, chooseMove(policy, new Board(myBoard))); // a copy, so the search's moves are not counted as the game's
+        }
+        notifyAll();
+    }
+
+    /**
+     * Plays the computer's move on the executor.  The move is chosen on a copy of the board without holding the game's lock,
+     * so the game can still be read, recorded or quit meanwhile.  If choosing or playing the move fails, the game is abandoned.
+     */
+    private void playComputerMove()
+    {
+        MovePolicy policy;
+        Board board;
+        synchronized(this)
+        {
+            policy = policyFor(myBoard.getCurrentPlayer());
+            if(state != State.AWAITING_MOVE || policy == null)
+                return;
+            board = new Board(myBoard);
+        }
+        int square;
+        try
+        {
+            square = chooseMove(policy, board);
+        }
+        catch(RuntimeException re)
+        {
+            abandon(re);
+            return;
+        }
+        synchronized(this)
+        {
+            if(state != State.AWAITING_MOVE || myBoard.getMovesCounter() != board.getMovesCounter())
+                return; // quit while thinking
+            try
+            {
+                play(myBoard.getCurrentPlayer(), square);
+                advance();
+            }
+            catch(RuntimeException re)
+            {
+                abandon(re);
+            }
+        }
+    }
+
+    /**
+     * Ends a game whose computer move failed on the executor, where no caller would see the failure: the game moves to QUIT, unless it is there already,
+     * and its listeners are told it was quit, even if some of them had been told it was won or drawn before another listener failed.
+     * The game is not recorded.  The failure is then rethrown for the executor to report.
+     *
+     * @param failure RuntimeException thrown while choosing or playing the move
+     */
+    private void abandon(RuntimeException failure)
+    {
+        synchronized(this)
+        {
+            if(state != State.QUIT)
+            {
+                state = State.QUIT;
+                myBoard.flushMetrics();
+                for(GameListener listener : listeners)
+                {
+                    try
+                    {
+                        listener.onGameQuit(this);
+                    }
+                    catch(RuntimeException re)
+                    {
+                        failure.addSuppressed(re);
+                    }
+                }
+                notifyAll();
+            }
+        }
+        throw failure;
+    }
+
+    /**
+     * Asks a computer player for its move.
+     * 
+     * @param policy MovePolicy of the player to move
+     * @param board Board holding the game's position, which the policy may search
+     * @return int square number of the move
+     * @throws IllegalStateException if the policy chooses an illegal move
+     */
+    private int chooseMove(MovePolicy policy, Board board)
+    {
+        long start = System.nanoTime();
+        int square = policy.chooseMove(board);
+        if(metrics != null)
+            metrics.recordDecision(System.nanoTime() - start);
+        if(square < 0 || square >= board.getTotalSquares() || board.isSquareOccupied(square))
+            throw new IllegalStateException("Player " + board.getCurrentPlayer().name() + " chose illegal square " + square);
+        return square;
+    }
+
+    /**
+     * Plays a legal move and moves to WON or DRAWN if it ends the game.
+     * 
+     * @param player Player to move
+     * @param square empty square number
+     */
+    private void play(Player player, int square)
+    {
+        myBoard.setSquare(square, player);
+        for(GameListener listener : listeners)
+            listener.onMoveMade(this, player, square);
+
+        if(myBoard.getHasWon() != Player.NONE)
+        {
+            state = State.WON;
+            recordGame();
+            if(metrics != null)
+                metrics.recordGame(player);
+            for(GameListener listener : listeners)
+                listener.onGameWon(this, player);
+        }
+        else if(myBoard.getMovesCounter() == myBoard.getTotalSquares())
+        {
+            state = State.DRAWN;
+            recordGame();
+            if(metrics != null)
+                metrics.recordGame(Player.NONE);
+            for(GameListener listener : listeners)
+                listener.onGameDrawn(this);
+        }
+    }
+
+    /**
+     * @param p Player
+     * @return MovePolicy choosing p's moves, or null if p is a human player
+     */
+    private MovePolicy policyFor(Player p)
+    {
+        return (p == Player.X) ? xPolicy : (p == Player.O ? oPolicy : null);
+    }
+
+    /**
+     * Appends the game to the recorder, if one is set, and reports the board's last moves to the metrics.
+     */
+    private void recordGame()
+    {
+        myBoard.flushMetrics();
+        if(recorder == null)
+            return;
+        try
+        {
+            recorder.append(myBoard);
+        }
+        catch(IOException ioe)
+        {
+            throw new UncheckedIOException("Could not record game", ioe);
+        }
+    }
+
+    /**
+     * Waits until a human player is to move or the game has ended.
+     * 
+     * @return true if a human player is to move, false if the game has ended
+     */
+    private synchronized boolean awaitHumanMove()
+    {
+        while(state == State.AWAITING_MOVE && isComputer(myBoard.getCurrentPlayer()))
+        {
+            try
+            {
+                wait();
+            }
+            catch(InterruptedException ie)
+            {
+                Thread.currentThread().interrupt();
+                quit();
+            }
+        }
+        return state == State.AWAITING_MOVE;
+    }
+
+    /**
+     * Method to start game and continue playing on the console until a player has won, the game is drawn or the user requests to quit the game.
+     * The Display prints the board and messages as it receives the game's events; this loop only reads the user's moves.
+     */
+    public void mainLoop()
+    {
+        myDisplay.printWelcomeMessage();
+        start();
+        while(awaitHumanMove())
+        {
+            int square = myDisplay.promptPlayer();
+            if(square == Display.getQuitSignal())
+            {
+                quit();
+                return;
+            }
+
+            // Subtracting 1 from input gathered from promptPlayer function
+            // so square numbers are between 0 and one less than the total number of squares.
+            submitMove(square - 1);
+        }
+    }
+}
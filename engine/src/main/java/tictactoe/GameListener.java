@@ -0,0 +1,84 @@
+package tictactoe;
+
+/**
+ * The GameListener interface receives the events of a Game as it advances: the game starting, a player being asked to move,
+ * a move being made or rejected, and the game being won, drawn or quit.
+ * Listeners are called on whichever thread advances the game, while it holds the game's lock, so they should return quickly
+ * and must not wait for another thread that is trying to advance the same game.
+ * Every method does nothing by default, so a listener only overrides the events it needs.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public interface GameListener
+{
+    /**
+     * Called once when the game starts, before the first move is requested.
+     *
+     * @param game Game that started
+     */
+    default void onGameStarted(Game game)
+    {
+    }
+
+    /**
+     * Called when a player is due to move, including again after a rejected move.
+     *
+     * @param game Game waiting for the move
+     * @param player Player to move
+     */
+    default void onMoveRequested(Game game, Player player)
+    {
+    }
+
+    /**
+     * Called after a move has been played on the board, before any win or draw event.
+     *
+     * @param game Game the move was played in
+     * @param player Player who moved
+     * @param square square number between 0 and one less than the number of squares
+     */
+    default void onMoveMade(Game game, Player player, int square)
+    {
+    }
+
+    /**
+     * Called when a submitted move is refused.  The board is unchanged.
+     *
+     * @param game Game the move was submitted to
+     * @param player Player to move when the move was submitted
+     * @param square square number that was submitted
+     * @param reason Game.Rejection explaining why
+     */
+    default void onMoveRejected(Game game, Player player, int square, Game.Rejection reason)
+    {
+    }
+
+    /**
+     * Called when a move wins the game.
+     *
+     * @param game Game that was won
+     * @param winner Player who won
+     */
+    default void onGameWon(Game game, Player winner)
+    {
+    }
+
+    /**
+     * Called when the last square is filled without a winner.
+     *
+     * @param game Game that was drawn
+     */
+    default void onGameDrawn(Game game)
+    {
+    }
+
+    /**
+     * Called when the game is abandoned before it ended.
+     *
+     * @param game Game that was quit
+     */
+    default void onGameQuit(Game game)
+    {
+    }
+}
@@ -0,0 +1,279 @@
+package tictactoe;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The GameMetrics class collects counters and latency histograms from the game engine: moves made, setSquare latency (including the win check),
+ * computer move decision time, games completed by outcome, and moves rejected as illegal or occupied.
+ * Every counter is a LongAdder, so threads record without locking or contending with each other.
+ * Boards only time one move in 1024 and report move counts in batches (see Board.setMetrics), which keeps the cost far below 1% of throughput.
+ * Metrics can be read through JMX (registerMBean) and printed periodically as text (startReporting).
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class GameMetrics implements GameMetricsMBean
+{
+	/* Instance variables */
+    private final long startNanos;
+    private final LongAdder moves;
+    private final LatencyHistogram moveLatency;
+    private final LatencyHistogram decisionTime;
+    private final LongAdder xWins;
+    private final LongAdder oWins;
+    private final LongAdder draws;
+    private final LongAdder illegalMoves;
+    private final LongAdder occupiedSquares;
+    private ScheduledExecutorService reporter;
+
+    /**
+     * Constructor for a set of metrics starting from zero.
+     */
+    public GameMetrics()
+    {
+        startNanos = System.nanoTime();
+        moves = new LongAdder();
+        moveLatency = new LatencyHistogram();
+        decisionTime = new LatencyHistogram();
+        xWins = new LongAdder();
+        oWins = new LongAdder();
+        draws = new LongAdder();
+        illegalMoves = new LongAdder();
+        occupiedSquares = new LongAdder();
+    }
+
+    /* Recording methods */
+
+    /**
+     * Counts moves.
+     *
+     * @param count number of moves made
+     */
+    public void recordMoves(int count)
+    {
+        if(count > 0)
+            moves.add(count);
+    }
+
+    /**
+     * Counts a batch of moves and records the latency of the one that was timed.
+     *
+     * @param count number of moves made, including the timed one
+     * @param nanos time taken by the timed move
+     */
+    public void recordMoveLatency(int count, long nanos)
+    {
+        moves.add(count);
+        moveLatency.record(nanos);
+    }
+
+    /**
+     * Records the time a computer player took to choose a move.
+     *
+     * @param nanos decision time in nanoseconds
+     */
+    public void recordDecision(long nanos)
+    {
+        decisionTime.record(nanos);
+    }
+
+    /**
+     * Counts a completed game.
+     *
+     * @param winner Player who won, or Player.NONE for a draw
+     */
+    public void recordGame(Player winner)
+    {
+        recordGames(winner, 1);
+    }
+
+    /**
+     * Counts several completed games with the same outcome, e.g. the totals of a simulation batch.
+     *
+     * @param winner Player who won, or Player.NONE for a draw
+     * @param count number of games
+     */
+    public void recordGames(Player winner, long count)
+    {
+        if(count == 0)
+            return;
+        if(winner == Player.X)
+            xWins.add(count);
+        else if(winner == Player.O)
+            oWins.add(count);
+        else
+            draws.add(count);
+    }
+
+    /**
+     * Counts a move rejected for being outside the board.
+     */
+    public void recordIllegalMove()
+    {
+        illegalMoves.increment();
+    }
+
+    /**
+     * Counts a move rejected because its square was occupied.
+     */
+    public void recordOccupiedSquare()
+    {
+        occupiedSquares.increment();
+    }
+
+    /* Getter / Accesesor methods */
+
+    public long getMoves()
+    {
+        return moves.sum();
+    }
+
+    public double getMovesPerSecond()
+    {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds > 0 ? moves.sum() / seconds : 0;
+    }
+
+    public long getMoveLatencyP50()
+    {
+        return moveLatency.getPercentile(50);
+    }
+
+    public long getMoveLatencyP99()
+    {
+        return moveLatency.getPercentile(99);
+    }
+
+    public long getDecisions()
+    {
+        return decisionTime.getCount();
+    }
+
+    public double getDecisionTimeMeanMillis()
+    {
+        return decisionTime.getMean() / 1e6;
+    }
+
+    public long getDecisionTimeP99()
+    {
+        return decisionTime.getPercentile(99);
+    }
+
+    public long getXWins()
+    {
+        return xWins.sum();
+    }
+
+    public long getOWins()
+    {
+        return oWins.sum();
+    }
+
+    public long getDraws()
+    {
+        return draws.sum();
+    }
+
+    public long getIllegalMoves()
+    {
+        return illegalMoves.sum();
+    }
+
+    public long getOccupiedSquareAttempts()
+    {
+        return occupiedSquares.sum();
+    }
+
+    /* Publishing methods */
+
+    /**
+     * Registers the metrics with the platform MBean server, e.g. to view them in JConsole.
+     *
+     * @param name value of the name key of the ObjectName "tictactoe:type=GameMetrics,name=..."
+     * @throws JMException if the name is invalid or already registered
+     */
+    public void registerMBean(String name) throws JMException
+    {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName("tictactoe:type=GameMetrics,name=" + name));
+    }
+
+    /**
+     * Starts printing the metrics at a fixed interval on a background daemon thread.  The moves per second printed are for the last interval.
+     *
+     * @param period time between reports
+     * @param unit unit of period
+     * @param out PrintStream to print to
+     */
+    public synchronized void startReporting(long period, TimeUnit unit, final PrintStream out)
+    {
+        if(reporter != null)
+            return;
+        reporter = Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
+        {
+            public Thread newThread(Runnable r)
+            {
+                Thread t = new Thread(r, "metrics-reporter");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        final long[] last = {moves.sum(), System.nanoTime()}; // moves and time of the previous report
+        reporter.scheduleAtFixedRate(new Runnable()
+        {
+            public void run()
+            {
+                long nowMoves = moves.sum();
+                long now = System.nanoTime();
+                double rate = (nowMoves - last[0]) / ((now - last[1]) / 1e9);
+                last[0] = nowMoves;
+                last[1] = now;
+                out.println(report(rate));
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Stops periodic reports.
+     */
+    public synchronized void stopReporting()
+    {
+        if(reporter != null)
+        {
+            reporter.shutdown();
+            reporter = null;
+        }
+    }
+
+    /**
+     * Formats the metrics as one line of text.
+     *
+     * @param movesPerSecond move rate to print
+     * @return String report
+     */
+    private String report(double movesPerSecond)
+    {
+        return String.format("moves=%d (%.0f/s) move p50=%dns p99=%dns | decisions=%d mean=%.3fms p99=%dns | X=%d O=%d draw=%d | illegal=%d occupied=%d",
+                getMoves(), movesPerSecond, getMoveLatencyP50(), getMoveLatencyP99(),
+                getDecisions(), getDecisionTimeMeanMillis(), getDecisionTimeP99(),
+                getXWins(), getOWins(), getDraws(), getIllegalMoves(), getOccupiedSquareAttempts());
+    }
+
+    /**
+     * Overriding toString method.
+     *
+     * @return String report using the moves per second since the metrics were created
+     */
+    public String toString()
+    {
+        return report(getMovesPerSecond());
+    }
+}
@@ -0,0 +1,47 @@
+package tictactoe;
+
+
+/**
+ * The GameMetricsMBean interface is the JMX view of GameMetrics.  Times are in nanoseconds unless stated otherwise.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public interface GameMetricsMBean
+{
+    /** @return long moves made on instrumented boards */
+    long getMoves();
+
+    /** @return double moves per second since the metrics were created */
+    double getMovesPerSecond();
+
+    /** @return long median setSquare latency, including the win check */
+    long getMoveLatencyP50();
+
+    /** @return long 99th percentile setSquare latency, including the win check */
+    long getMoveLatencyP99();
+
+    /** @return long computer move decisions timed */
+    long getDecisions();
+
+    /** @return double mean computer move decision time in milliseconds */
+    double getDecisionTimeMeanMillis();
+
+    /** @return long 99th percentile computer move decision time */
+    long getDecisionTimeP99();
+
+    /** @return long games won by X */
+    long getXWins();
+
+    /** @return long games won by O */
+    long getOWins();
+
+    /** @return long games drawn */
+    long getDraws();
+
+    /** @return long moves rejected for being outside the board */
+    long getIllegalMoves();
+
+    /** @return long moves rejected because the square was occupied */
+    long getOccupiedSquareAttempts();
+}
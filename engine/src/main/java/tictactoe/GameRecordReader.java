@@ -0,0 +1,205 @@
+package tictactoe;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * The GameRecordReader class reads an archive written by GameRecordWriter one record at a time, so archives of any size can be scanned in constant memory.
+ * Call next() to decode the following record, then read it through the getters.  The move array is reused between records.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class GameRecordReader implements Closeable
+{
+	/* Static fields */
+	private static final int BUFFER_SIZE = 65536;
+
+	/* Instance variables */
+    private final DataInputStream in;
+    private int length;
+    private int winLength;
+    private int result;
+    private int moveCount;
+    private int[] moves;
+    private long[] occupied; // squares played so far in the record being decoded, a bit each
+
+    /**
+     * Opens an archive for reading.
+     *
+     * @param file Path of the archive
+     * @throws IOException if the file cannot be opened or is not an archive
+     */
+    public GameRecordReader(Path file) throws IOException
+    {
+        in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE));
+        if(in.readInt() != GameRecordWriter.MAGIC || in.readUnsignedByte() != GameRecordWriter.VERSION)
+        {
+            in.close();
+            throw new IOException(file + " is not a game archive");
+        }
+        moves = new int[Board.getDefaultLength() * Board.getDefaultLength()];
+        occupied = new long[1];
+    }
+
+    /**
+     * Decodes the next record.
+     *
+     * @return false at the end of the archive
+     * @throws IOException if reading fails, the archive ends part way through a record, or the record is corrupt:
+     * an invalid board size or result, or a move off the board or onto an occupied square
+     */
+    public boolean next() throws IOException
+    {
+        int first = in.read();
+        if(first < 0)
+            return false;
+        length = first;
+        winLength = in.readUnsignedByte();
+        result = in.readUnsignedByte();
+        moveCount = in.readUnsignedShort();
+        int totalSquares = length * length;
+        if(length < 1 || winLength < 1 || winLength > length)
+            throw new IOException("Corrupt record: " + length + "x" + length + " board with " + winLength + " in a row");
+        if(result > GameRecordWriter.DRAWN)
+            throw new IOException("Corrupt record: result " + result);
+        if(moveCount > totalSquares)
+            throw new IOException("Corrupt record: " + moveCount + " moves on a " + length + "x" + length + " board");
+        if(moves.length < moveCount)
+            moves = new int[totalSquares];
+        int words = (totalSquares + 63) / 64;
+        if(occupied.length < words)
+            occupied = new long[words];
+        Arrays.fill(occupied, 0, words, 0);
+        boolean wide = totalSquares > GameRecordWriter.MAX_BYTE_SQUARES;
+        for(int i = 0; i < moveCount; i++)
+        {
+            int square = wide ? in.readUnsignedShort() : in.readUnsignedByte();
+            if(square >= totalSquares)
+                throw new IOException("Corrupt record: move " + i + " to square " + square + " off a " + length + "x" + length + " board");
+            if((occupied[square >>> 6] & 1L << square) != 0)
+                throw new IOException("Corrupt record: move " + i + " to occupied square " + square);
+            occupied[square >>> 6] |= 1L << square;
+            moves[i] = square;
+        }
+        return true;
+    }
+
+    /**
+     * @return int length of a side of the board of the current record
+     */
+    public int getLength()
+    {
+        return length;
+    }
+
+    /**
+     * @return int number of squares in a row needed to win in the current record
+     */
+    public int getWinLength()
+    {
+        return winLength;
+    }
+
+    /**
+     * @return true if the current record's game was won or drawn, false if it was abandoned
+     */
+    public boolean isFinished()
+    {
+        return result != GameRecordWriter.UNFINISHED;
+    }
+
+    /**
+     * @return Player who won the current record's game, or Player.NONE for a draw or unfinished game
+     */
+    public Player getWinner()
+    {
+        if(result == GameRecordWriter.X_WON)
+            return Player.X;
+        else if(result == GameRecordWriter.O_WON)
+            return Player.O;
+        else
+            return Player.NONE;
+    }
+
+    /**
+     * @return int number of moves in the current record
+     */
+    public int getMoveCount()
+    {
+        return moveCount;
+    }
+
+    /**
+     * @param index index of the move in order of play
+     * @return int square number of the move
+     */
+    public int getMove(int index)
+    {
+        if(index < 0 || index >= moveCount)
+            throw new IndexOutOfBoundsException("Move " + index + " is not in the record");
+        return moves[index];
+    }
+
+    /**
+     * Replays the current record onto a new Board.
+     *
+     * @return Board holding the recorded game
+     */
+    public Board toBoard()
+    {
+        Board board = new Board(length, winLength);
+        for(int i = 0; i < moveCount; i++)
+            board.setSquare(moves[i], board.getCurrentPlayer());
+        return board;
+    }
+
+    /**
+     * Closes the archive.
+     *
+     * @throws IOException if closing fails
+     */
+    public void close() throws IOException
+    {
+        in.close();
+    }
+
+    /**
+     * Prints the number of games and outcomes in an archive.
+     *
+     * @param args path of the archive
+     * @throws IOException if the archive cannot be read
+     */
+    public static void main(String[] args) throws IOException
+    {
+        long xWins = 0;
+        long oWins = 0;
+        long draws = 0;
+        long unfinished = 0;
+        long totalMoves = 0;
+        try(GameRecordReader reader = new GameRecordReader(Paths.get(args[0])))
+        {
+            while(reader.next())
+            {
+                totalMoves += reader.getMoveCount();
+                if(!reader.isFinished())
+                    unfinished++;
+                else if(reader.getWinner() == Player.X)
+                    xWins++;
+                else if(reader.getWinner() == Player.O)
+                    oWins++;
+                else
+                    draws++;
+            }
+        }
+        long games = xWins + oWins + draws + unfinished;
+        System.out.println(games + " games, " + totalMoves + " moves");
+        System.out.println("X wins: " + xWins + ", O wins: " + oWins + ", draws: " + draws + ", unfinished: " + unfinished);
+    }
+}
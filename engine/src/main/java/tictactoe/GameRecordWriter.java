@@ -0,0 +1,130 @@
+package tictactoe;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The GameRecordWriter class appends finished games to an archive file in a compact binary format.
+ *
+ * File format: the 4 byte magic number "TTTR" and a version byte, followed by any number of records.
+ * Each record is a 5 byte header (board length, win length, result, and the number of moves as an unsigned short)
+ * followed by the square number of every move in order of play: one byte each, or two bytes each on boards with more than 256 squares.
+ * Results are 0 for a game that was not finished, 1 for a win by X, 2 for a win by O and 3 for a draw.
+ * A writer may be shared by threads: records are appended whole, one at a time.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class GameRecordWriter implements Closeable, Flushable
+{
+	/* Static fields */
+	static final int MAGIC = 0x54545452; // "TTTR"
+	static final int VERSION = 1;
+	static final int UNFINISHED = 0;
+	static final int X_WON = 1;
+	static final int O_WON = 2;
+	static final int DRAWN = 3;
+	static final int MAX_BYTE_SQUARES = 256; // largest board whose square numbers fit in one byte
+	static final int MAX_LENGTH = 255; // longest side a record header can hold
+	private static final int BUFFER_SIZE = 65536;
+
+	/* Instance variables */
+    private final DataOutputStream out;
+
+    /**
+     * Opens an archive for appending, writing the file header if the file is new or empty.
+     *
+     * @param file Path of the archive
+     * @throws IOException if the file cannot be opened, or already holds something other than an archive of this version
+     */
+    public GameRecordWriter(Path file) throws IOException
+    {
+        boolean isNew = !Files.exists(file) || Files.size(file) == 0;
+        if(!isNew)
+            checkHeader(file);
+        out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND), BUFFER_SIZE));
+        if(isNew)
+        {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+        }
+    }
+
+    /**
+     * Checks that an existing file starts with the header of an archive of this version, so records are not appended to something else.
+     *
+     * @param file Path of the archive
+     * @throws IOException if the file cannot be read or its header does not match
+     */
+    private static void checkHeader(Path file) throws IOException
+    {
+        try(DataInputStream in = new DataInputStream(Files.newInputStream(file)))
+        {
+            if(Files.size(file) < 5 || in.readInt() != MAGIC || in.readUnsignedByte() != VERSION)
+                throw new IOException(file + " is not a game archive of version " + VERSION);
+        }
+    }
+
+    /**
+     * Appends the game on a board, using the board's move history.
+     *
+     * @param board Board holding the game to record
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if the board is longer than 255 squares a side, which a record cannot hold
+     */
+    public synchronized void append(Board board) throws IOException
+    {
+        if(board.getLength() > MAX_LENGTH)
+            throw new IllegalArgumentException("Board too large to record: " + board.getLength() + "x" + board.getLength());
+        int result;
+        if(board.getHasWon() == Player.X)
+            result = X_WON;
+        else if(board.getHasWon() == Player.O)
+            result = O_WON;
+        else if(board.getMovesCounter() == board.getTotalSquares())
+            result = DRAWN;
+        else
+            result = UNFINISHED;
+
+        out.writeByte(board.getLength());
+        out.writeByte(board.getWinLength());
+        out.writeByte(result);
+        out.writeShort(board.getMovesCounter());
+        boolean wide = board.getTotalSquares() > MAX_BYTE_SQUARES;
+        for(int i = 0; i < board.getMovesCounter(); i++)
+        {
+            if(wide)
+                out.writeShort(board.getMove(i));
+            else
+                out.writeByte(board.getMove(i));
+        }
+    }
+
+    /**
+     * Writes buffered records to the file.
+     *
+     * @throws IOException if writing fails
+     */
+    public synchronized void flush() throws IOException
+    {
+        out.flush();
+    }
+
+    /**
+     * Writes buffered records and closes the file.
+     *
+     * @throws IOException if writing fails
+     */
+    public synchronized void close() throws IOException
+    {
+        out.close();
+    }
+}
@@ -0,0 +1,877 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+
+/**
+ * The GameServer class hosts many independent games over TCP using a line based text protocol, one game per connection.
+ * A single thread multiplexes every connection with a NIO Selector, so thousands of idle games cost no threads.
+ * Each connection's Session owns its Game and fixed size buffers, so memory per game is bounded and no game state is shared between sessions.
+ * A connection has no game until it sends NEW or RESUME.  Each Game is advanced by the commands of its connection, and its events are turned into replies.
+ * Computer moves on 3x3 boards are chosen on the server thread by a Solver shared by all sessions (safe because only that thread uses it).
+ * On larger boards they are chosen within 50 ms by an IterativeDeepeningPolicy on a small pool of search threads, one policy per thread,
+ * so a search never holds up other connections; the events of the move are queued and turned into replies back on the server thread.
+ * With a MoveJournal set, every game is journaled and the journal is committed once per pass over the ready connections, before any reply is written,
+ * so a move is on disk before it is acknowledged and one fsync covers every move made in the pass.
+ * Games in progress when the server died can be taken up again with RESUME after a restart, until the journal drops them for being left idle.
+ * Any connection may WATCH another's game.  Each game publishes its moves once to a SpectatorHub, and watchers are sent each move as a one line delta;
+ * a watcher whose connection cannot keep up is sent a one line snapshot of the position instead of the moves it missed, so watchers never hold up a game.
+ *
+ * Commands (square numbers start from 1, as on the console):
+ *   NEW [length winLength] [X|O]  start a new game, optionally on a larger board and with the server playing X or O
+ *   MOVE n                        play square n for the player to move
+ *   RESUME id                     take up a game recovered from the journal
+ *   WATCH id                      follow another connection's game
+ *   BOARD                         print the board, terminated by a line containing END
+ *   QUIT                          close the connection
+ * Replies: OK n, MOVED n (the server's move), WIN X|O, DRAW, BYE, or ERROR message.
+ * NEW and RESUME are also answered with GAME id, the id to watch the game with and, when journaling, to resume it.
+ * Watchers are sent PLAYED X|O n for each move, SNAPSHOT length winLength squares (a character per square: X, O or .) to catch up,
+ * and WIN X|O, DRAW or OVER (the game was quit) when the game ends.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class GameServer implements Runnable
+{
+	/* Static fields */
+	private static final int DEFAULT_PORT = 7777;
+	private static final int MAX_LINE = 128; // longest command accepted
+	private static final int OUTPUT_SIZE = 8192; // largest reply buffered per session, enough for a rendered 19x19 board
+	private static final int MAX_LENGTH = 19; // largest board a session may ask for
+	private static final long CACHE_BYTES = 64L << 20; // memory cap of the position cache
+	private static final long COMPUTER_MILLIS = 50; // time budget per move on boards too large to solve
+	private static final int SEARCH_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1); // threads choosing moves on boards too large to solve
+	private static final int SNAPSHOT_SIZE = MAX_LENGTH * MAX_LENGTH + 32; // longest SNAPSHOT line, the output space kept for a watcher to catch up
+
+	/* Instance variables */
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final int maxSessions;
+    private final Solver solver; // only used on the server thread
+    private final ExecutorService searchPool; // plays the computer's moves on boards larger than 3x3
+    private final MovePolicy deadlineSearch; // search bounded by time for boards larger than 3x3, using an IterativeDeepeningPolicy per search thread
+    private final Queue<Runnable> pending; // game events from the search threads, run on the server thread
+    private final BoardRenderer renderer; // renders BOARD replies straight into session output buffers
+    private final GameMetrics metrics;
+    private final Map<Long, RecoveredGame> recovered; // games in the journal waiting to be resumed
+    private final Map<Long, SpectatorHub> hubs; // broadcasts of the games in progress, by game id
+    private final Set<SelectionKey> watchers; // connections watching a game
+    private final int[] watchedSquares; // moves read for a watcher, only used on the server thread
+    private final Player[] watchedPlayers;
+    private long nextGameId; // id of the next game, when games are not journaled
+    private MoveJournal journal; // journals every game, or null
+    private int sessionCount;
+    private Thread serverThread;
+    private volatile boolean running;
+
+    /**
+     * Constructor for a server listening on localhost.
+     *
+     * @param port port to listen on, or 0 for any free port
+     * @param maxSessions number of connections accepted at once, further connections are closed straight away
+     * @throws IOException if the port cannot be opened
+     */
+    public GameServer(int port, int maxSessions) throws IOException
+    {
+        this.maxSessions = maxSessions;
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress("localhost", port), 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        solver = new Solver(PositionCache.shared(), Integer.MAX_VALUE);
+        searchPool = Executors.newFixedThreadPool(SEARCH_THREADS, new ThreadFactory()
+        {
+            public Thread newThread(Runnable r)
+            {
+                Thread t = new Thread(r, "server-search");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        final ThreadLocal<IterativeDeepeningPolicy> searches = new ThreadLocal<IterativeDeepeningPolicy>()
+        {
+            protected IterativeDeepeningPolicy initialValue()
+            {
+                return new IterativeDeepeningPolicy(COMPUTER_MILLIS);
+            }
+        };
+        deadlineSearch = new MovePolicy()
+        {
+            public int chooseMove(Board board)
+            {
+                return searches.get().chooseMove(board);
+            }
+        };
+        pending = new ConcurrentLinkedQueue<Runnable>();
+        renderer = new BoardRenderer();
+        metrics = new GameMetrics();
+        recovered = new LinkedHashMap<Long, RecoveredGame>();
+        hubs = new HashMap<Long, SpectatorHub>();
+        watchers = new HashSet<SelectionKey>();
+        watchedSquares = new int[SpectatorHub.DEFAULT_CAPACITY];
+        watchedPlayers = new Player[SpectatorHub.DEFAULT_CAPACITY];
+        nextGameId = 1;
+    }
+
+    /**
+     * Sets a journal to record every game in, and makes the games it recovered available to RESUME.  Call it before the server is run.
+     *
+     * @param j MoveJournal to use
+     */
+    public void setJournal(MoveJournal j)
+    {
+        journal = j;
+        recovered.clear();
+        for(RecoveredGame game : j.getRecoveredGames())
+            recovered.put(game.getId(), game);
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     *
+     * @return int port number
+     * @throws IOException if the port cannot be read
+     */
+    public int getPort() throws IOException
+    {
+        return ((InetSocketAddress)serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Returns the metrics of every game played on the server.
+     *
+     * @return GameMetrics counting moves, computer decision times, outcomes and rejected moves
+     */
+    public GameMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * Returns the number of open connections.
+     *
+     * @return int number of sessions
+     */
+    public int getSessionCount()
+    {
+        return sessionCount;
+    }
+
+    /**
+     * Serves connections until stop is called.
+     */
+    public void run()
+    {
+        running = true;
+        serverThread = Thread.currentThread();
+        try
+        {
+            while(running)
+            {
+                selector.select();
+                Runnable event;
+                while((event = pending.poll()) != null)
+                    event.run();
+                Set<SelectionKey> keys = selector.selectedKeys();
+                for(SelectionKey key : keys)
+                {
+                    if(!key.isValid())
+                        continue;
+                    if(key.isAcceptable())
+                        accept();
+                    else if(key.isReadable())
+                    {
+                        try
+                        {
+                            read(key);
+                        }
+                        catch(IOException ioe) // the client went away
+                        {
+                            abandon(key);
+                        }
+                    }
+                }
+
+                // every move of the pass is journaled before any reply acknowledging it is written
+                if(journal != null)
+                    commitJournal();
+                deliverToWatchers();
+
+                for(SelectionKey key : keys)
+                {
+                    try
+                    {
+                        if(key.isValid() && !key.isAcceptable() && key.isWritable())
+                            write(key);
+                    }
+                    catch(IOException ioe)
+                    {
+                        abandon(key);
+                    }
+                }
+                keys.clear();
+            }
+        }
+        catch(IOException ioe)
+        {
+            throw new IllegalStateException("Selector failed", ioe);
+        }
+        finally
+        {
+            searchPool.shutdownNow();
+            for(SelectionKey key : selector.keys())
+                close(key);
+            try
+            {
+                selector.close();
+                serverChannel.close();
+            }
+            catch(IOException ioe)
+            {
+                // already shutting down
+            }
+        }
+    }
+
+    /**
+     * Stops the server and closes every connection.
+     */
+    public void stop()
+    {
+        running = false;
+        selector.wakeup();
+    }
+
+    /**
+     * Makes the journaled moves durable.
+     *
+     * @throws IllegalStateException if the journal cannot be written, since moves could no longer be acknowledged safely
+     */
+    private void commitJournal()
+    {
+        try
+        {
+            journal.commit();
+        }
+        catch(IOException ioe)
+        {
+            throw new IllegalStateException("Journal failed", ioe);
+        }
+    }
+
+    /**
+     * Queues the moves of watched games for every watcher which has room for them.
+     */
+    private void deliverToWatchers()
+    {
+        Iterator<SelectionKey> keys = watchers.iterator();
+        while(keys.hasNext())
+        {
+            SelectionKey key = keys.next();
+            Session session = key.isValid() ? (Session)key.attachment() : null;
+            if(session == null || session.watching == null)
+            {
+                keys.remove();
+                continue;
+            }
+            if(!session.watching.hasUpdate() && !session.watching.isFinished())
+                continue;
+            session.deliver();
+            if(session.watching == null)
+                keys.remove();
+            if(session.output.position() > 0)
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+    }
+
+    /**
+     * Accepts a waiting connection and creates its session.
+     * A connection which cannot be accepted or set up is dropped; the server keeps listening for the next one.
+     */
+    private void accept()
+    {
+        SocketChannel channel;
+        try
+        {
+            channel = serverChannel.accept();
+        }
+        catch(IOException ioe) // for example out of file descriptors, which closing other connections frees
+        {
+            return;
+        }
+        if(channel == null)
+            return;
+        try
+        {
+            if(sessionCount >= maxSessions)
+            {
+                channel.close();
+                return;
+            }
+            channel.configureBlocking(false);
+            Session session = new Session();
+            session.key = channel.register(selector, SelectionKey.OP_READ, session);
+            sessionCount++;
+        }
+        catch(IOException ioe)
+        {
+            try
+            {
+                channel.close();
+            }
+            catch(IOException closing)
+            {
+                // nothing more to do with a connection that cannot be closed
+            }
+        }
+    }
+
+    /**
+     * Reads available input and runs every complete command line.
+     *
+     * @param key SelectionKey of the connection
+     * @throws IOException if reading fails
+     */
+    private void read(SelectionKey key) throws IOException
+    {
+        Session session = (Session)key.attachment();
+        SocketChannel channel = (SocketChannel)key.channel();
+        if(channel.read(session.input) < 0)
+        {
+            abandon(key);
+            return;
+        }
+
+        ByteBuffer input = session.input;
+        input.flip();
+        int lineStart = input.position();
+        for(int i = input.position(); i < input.limit(); i++)
+        {
+            if(input.get(i) == '\n')
+            {
+                String line = new String(input.array(), lineStart, i - lineStart, StandardCharsets.US_ASCII).trim();
+                lineStart = i + 1;
+                if(!session.handle(line))
+                {
+                    session.flushOnClose = true;
+                    break;
+                }
+            }
+        }
+        input.position(lineStart);
+        input.compact();
+        if(!input.hasRemaining()) // a line longer than MAX_LINE
+        {
+            input.clear();
+            session.reply("ERROR line too long");
+        }
+
+        key.interestOps(session.output.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        if(session.flushOnClose && session.output.position() == 0)
+            close(key);
+    }
+
+    /**
+     * Writes as much pending output as the connection accepts.
+     *
+     * @param key SelectionKey of the connection
+     * @throws IOException if writing fails
+     */
+    private void write(SelectionKey key) throws IOException
+    {
+        Session session = (Session)key.attachment();
+        ByteBuffer output = session.output;
+        output.flip();
+        ((SocketChannel)key.channel()).write(output);
+        output.compact();
+        if(output.position() == 0)
+        {
+            if(session.flushOnClose)
+                close(key);
+            else if(session.watching != null && session.watching.hasUpdate())
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE); // come back to send the moves held back while the buffer was full
+            else
+                key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    /**
+     * Closes a connection the client dropped, quitting its game so the journal does not keep it.
+     *
+     * @param key SelectionKey of the connection
+     */
+    private void abandon(SelectionKey key)
+    {
+        if(key.attachment() instanceof Session)
+            ((Session)key.attachment()).quitGame();
+        close(key);
+    }
+
+    /**
+     * Closes a connection, discarding its session.  Its game is left as it is, so a journaled game can be resumed after a restart.
+     *
+     * @param key SelectionKey of the connection
+     */
+    private void close(SelectionKey key)
+    {
+        if(key.attachment() instanceof Session)
+        {
+            ((Session)key.attachment()).unwatch();
+            key.attach(null);
+            sessionCount--;
+        }
+        key.cancel();
+        try
+        {
+            key.channel().close();
+        }
+        catch(IOException ioe)
+        {
+            // nothing more to do with a connection that cannot be closed
+        }
+    }
+
+    /**
+     * The state of one connection: its game and its input and output buffers.  The session listens to its game and turns events into replies.
+     */
+    private class Session implements GameListener
+    {
+        private final ByteBuffer input = ByteBuffer.allocate(MAX_LINE);
+        private final ByteBuffer output = ByteBuffer.allocate(OUTPUT_SIZE);
+        private SelectionKey key;
+        private long gameId;
+        private Game game; // game being played, or null before NEW or RESUME
+        private Spectator watching; // another game being watched, or null
+        private boolean flushOnClose;
+
+        /**
+         * Runs one command.
+         *
+         * @param line command line without its line terminator
+         * @return false if the connection should be closed
+         */
+        private boolean handle(String line)
+        {
+            String[] tokens = line.split("\\s+");
+            String command = tokens[0].toUpperCase();
+            if(command.equals("NEW"))
+                newGame(tokens);
+            else if(command.equals("MOVE") && tokens.length == 2)
+                move(tokens[1]);
+            else if(command.equals("RESUME") && tokens.length == 2)
+                resume(tokens[1]);
+            else if(command.equals("WATCH") && tokens.length == 2)
+                watch(tokens[1]);
+            else if(command.equals("BOARD") && game == null)
+                reply("ERROR no game");
+            else if(command.equals("BOARD"))
+            {
+                synchronized(game) // a search thread may be playing the computer's move
+                {
+                    renderer.render(game.getBoard());
+                }
+                if(renderer.getSize() < output.remaining())
+                    output.put(renderer.getBuffer(), 0, renderer.getSize());
+                reply("END");
+            }
+            else if(command.equals("QUIT"))
+            {
+                quitGame();
+                reply("BYE");
+                return false;
+            }
+            else if(!command.isEmpty())
+                reply("ERROR unknown command");
+            return true;
+        }
+
+        /**
+         * Starts a new game.
+         *
+         * @param tokens NEW command and its arguments
+         */
+        private void newGame(String[] tokens)
+        {
+            int length = Board.getDefaultLength();
+            int winLength = Board.getDefaultLength();
+            Player side = Player.NONE;
+            Board board;
+            try
+            {
+                int next = 1;
+                if(tokens.length >= 3 && tokens[1].matches("\\d+"))
+                {
+                    length = Integer.parseInt(tokens[1]);
+                    winLength = Integer.parseInt(tokens[2]);
+                    next = 3;
+                }
+                if(tokens.length > next)
+                    side = Player.valueOf(tokens[next].toUpperCase());
+                if(length > MAX_LENGTH)
+                    throw new IllegalArgumentException("Board too large");
+                board = new Board(length, winLength);
+            }
+            catch(IllegalArgumentException iae)
+            {
+                reply("ERROR " + iae.getMessage());
+                return;
+            }
+            quitGame();
+            reply("OK");
+            game = newGame(board, side);
+            replyId();
+        }
+
+        /**
+         * Takes up a game recovered from the journal, with the server playing the sides it played before.
+         *
+         * @param token journal id of the game
+         */
+        private void resume(String token)
+        {
+            RecoveredGame r;
+            try
+            {
+                r = recovered.remove(Long.parseLong(token));
+            }
+            catch(NumberFormatException nfe)
+            {
+                r = null;
+            }
+            if(r == null)
+            {
+                reply("ERROR no such game");
+                return;
+            }
+            quitGame();
+            reply("OK");
+            MovePolicy s = policyFor(r.getBoard());
+            Game g = new Game(r.getBoard(), r.isComputer(Player.X) ? s : null, r.isComputer(Player.O) ? s : null, executorFor(r.getBoard()));
+            journal.resume(r, g);
+            game = start(g);
+            replyId();
+        }
+
+        /**
+         * Quits the game being played, if any.
+         */
+        private void quitGame()
+        {
+            if(game != null)
+                game.quit();
+        }
+
+        /**
+         * Replies with the id of the game.
+         */
+        private void replyId()
+        {
+            reply("GAME " + gameId);
+        }
+
+        /**
+         * Starts watching a game, in place of any game watched before.  The position is sent with the next delivery.
+         *
+         * @param token id of the game
+         */
+        private void watch(String token)
+        {
+            SpectatorHub hub;
+            try
+            {
+                hub = hubs.get(Long.parseLong(token));
+            }
+            catch(NumberFormatException nfe)
+            {
+                hub = null;
+            }
+            if(hub == null)
+            {
+                reply("ERROR no such game");
+                return;
+            }
+            unwatch();
+            reply("OK");
+            watching = hub.subscribe();
+            watchers.add(key);
+        }
+
+        /**
+         * Creates and starts a game reporting to the server's metrics, with the server playing one side.
+         *
+         * @param board Board to play on
+         * @param computer Player the server moves for, or Player.NONE
+         * @return Game which has started
+         */
+        private Game newGame(Board board, Player computer)
+        {
+            MovePolicy s = policyFor(board);
+            return start(new Game(board, computer == Player.X ? s : null, computer == Player.O ? s : null, executorFor(board)));
+        }
+
+        /**
+         * Starts a game reporting to the server's metrics and journal, and makes it available to watch.
+         *
+         * @param g Game to start
+         * @return Game which has started
+         */
+        private Game start(Game g)
+        {
+            g.setMetrics(metrics);
+            if(journal != null)
+                g.addListener(journal);
+            g.addListener(this);
+            SpectatorHub hub = new SpectatorHub(g.getBoard());
+            g.addListener(hub);
+            synchronized(g) // the game id is set before a search thread can report the computer's first move
+            {
+                g.start();
+                gameId = journal != null ? journal.getId(g) : nextGameId++;
+            }
+            if(!g.isOver())
+                hubs.put(gameId, hub);
+            return g;
+        }
+
+        /**
+         * Queues the moves published since the last delivery, as far as the output buffer has room for a snapshot after them,
+         * then the result once the watched game has ended.  Moves that do not fit are left in the hub; if the watcher falls too far behind
+         * it is sent a snapshot instead.
+         */
+        private void deliver()
+        {
+            while(output.remaining() >= SNAPSHOT_SIZE)
+            {
+                int count = watching.poll(watchedSquares, watchedPlayers);
+                if(count == SpectatorHub.RESYNC)
+                {
+                    BoardSnapshot snapshot = watching.resync();
+                    StringBuilder line = new StringBuilder("SNAPSHOT ");
+                    line.append(snapshot.getLength()).append(' ').append(snapshot.getWinLength()).append(' ');
+                    for(int square = 0; square < snapshot.getTotalSquares(); square++)
+                    {
+                        Player p = snapshot.getSquare(square);
+                        line.append(p == Player.NONE ? '.' : p.name().charAt(0));
+                    }
+                    reply(line.toString());
+                }
+                else if(count == 0)
+                    break;
+                else
+                {
+                    for(int i = 0; i < count; i++)
+                        reply("PLAYED " + watchedPlayers[i].name() + " " + (watchedSquares[i] + 1));
+                }
+            }
+
+            if(watching.isFinished() && output.remaining() >= SNAPSHOT_SIZE)
+            {
+                BoardSnapshot snapshot = watching.getHub().getSnapshot();
+                if(snapshot.getWinner() != Player.NONE)
+                    reply("WIN " + snapshot.getWinner().name());
+                else if(snapshot.isOver())
+                    reply("DRAW");
+                else
+                    reply("OVER");
+                unwatch();
+            }
+        }
+
+        /**
+         * Stops watching, if a game is being watched.
+         */
+        private void unwatch()
+        {
+            if(watching != null)
+            {
+                watching.close();
+                watching = null;
+            }
+        }
+
+        /**
+         * @param board Board to play on
+         * @return MovePolicy for the server's moves on the board: the Solver on 3x3 boards, otherwise the search bounded by time
+         */
+        private MovePolicy policyFor(Board board)
+        {
+            return board.getTotalSquares() <= 9 ? solver : deadlineSearch;
+        }
+
+        /**
+         * @param board Board to play on
+         * @return ExecutorService to play the server's moves on: none on 3x3 boards, which the Solver answers at once, otherwise the search threads
+         */
+        private ExecutorService executorFor(Board board)
+        {
+            return board.getTotalSquares() <= 9 ? null : searchPool;
+        }
+
+        /**
+         * Submits a square for the player to move.
+         *
+         * @param token square number starting from 1
+         */
+        private void move(String token)
+        {
+            int square;
+            try
+            {
+                square = Integer.parseInt(token) - 1;
+            }
+            catch(NumberFormatException nfe)
+            {
+                metrics.recordIllegalMove();
+                reply("ERROR illegal move");
+                return;
+            }
+            if(game == null)
+            {
+                reply("ERROR no game");
+                return;
+            }
+            game.submitMove(square);
+        }
+
+        /**
+         * Replies OK for the client's moves and MOVED for the server's.
+         */
+        public void onMoveMade(Game g, Player player, int square)
+        {
+            report(g, (g.isComputer(player) ? "MOVED " : "OK ") + (square + 1), false);
+        }
+
+        /**
+         * Replies with an error.
+         */
+        public void onMoveRejected(Game g, Player player, int square, Game.Rejection reason)
+        {
+            reply(reason == Game.Rejection.OCCUPIED ? "ERROR square occupied" : "ERROR illegal move");
+        }
+
+        /**
+         * Replies with the winner.
+         */
+        public void onGameWon(Game g, Player winner)
+        {
+            report(g, "WIN " + winner.name(), true);
+        }
+
+        /**
+         * Replies that the game was drawn.
+         */
+        public void onGameDrawn(Game g)
+        {
+            report(g, "DRAW", true);
+        }
+
+        /**
+         * Stops the game being watched by new watchers.  A game quit off the server thread was abandoned because the server's move failed,
+         * which the client is told of; games quit by the client's own commands need no reply.
+         */
+        public void onGameQuit(Game g)
+        {
+            report(g, Thread.currentThread() == serverThread ? null : "ERROR game abandoned", true);
+        }
+
+        /**
+         * Turns a game event into a reply on the server thread.  Events of a computer move played on a search thread are queued for the server thread,
+         * which is woken up to run them; their reply is dropped if the session has moved on to another game or closed by then.
+         *
+         * @param g Game the event came from
+         * @param text reply text, or null for no reply
+         * @param over true if the game has ended, so it can no longer be watched
+         */
+        private void report(final Game g, final String text, final boolean over)
+        {
+            final long id = gameId;
+            if(Thread.currentThread() == serverThread)
+            {
+                if(text != null)
+                    reply(text);
+                if(over)
+                    hubs.remove(id);
+                return;
+            }
+            pending.add(new Runnable()
+            {
+                public void run()
+                {
+                    if(over)
+                        hubs.remove(id);
+                    if(text != null && key.attachment() == Session.this && game == g)
+                    {
+                        reply(text);
+                        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    }
+                }
+            });
+            selector.wakeup();
+        }
+
+        /**
+         * Queues a reply line.  Replies that do not fit in the output buffer are replaced by an error, keeping memory per session bounded.
+         *
+         * @param text reply text, a line terminator is added
+         */
+        private void reply(String text)
+        {
+            byte[] bytes = (text + "\n").getBytes(StandardCharsets.US_ASCII);
+            if(bytes.length <= output.remaining())
+                output.put(bytes);
+            else if(output.remaining() >= 16)
+                output.put("ERROR overflow\n".getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    /**
+     * Starts a server on localhost.
+     *
+     * The server's metrics are registered with JMX and printed every 10 seconds.
+     * Solved positions are kept in a 64 MB PositionCache which is loaded from a file at startup and saved to it at shutdown.
+     * Games are journaled to a file, and games in progress when the server last stopped are recovered from it.
+     *
+     * @param args port to listen on (default 7777), maximum number of sessions (default 20000), position cache file (default positions.cache)
+     *             and journal file (default games.journal)
+     * @throws IOException if the port cannot be opened or the cache or journal file cannot be read
+     * @throws JMException if the metrics cannot be registered
+     */
+    public static void main(String[] args) throws IOException, JMException
+    {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int maxSessions = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        PositionCache cache = PositionCache.openShared(Paths.get(args.length > 2 ? args[2] : "positions.cache"), CACHE_BYTES);
+        System.out.println("Loaded " + cache.getSize() + " cached positions");
+        GameServer server = new GameServer(port, maxSessions);
+        MoveJournal journal = new MoveJournal(Paths.get(args.length > 3 ? args[3] : "games.journal"));
+        System.out.println("Recovered " + journal.getRecoveredGames().size() + " games in progress");
+        server.setJournal(journal);
+        System.out.println("Serving games on localhost:" + server.getPort());
+        server.getMetrics().registerMBean("server-" + server.getPort());
+        server.getMetrics().startReporting(10, TimeUnit.SECONDS, System.out);
+        server.run();
+    }
+}
\ No newline at end of file
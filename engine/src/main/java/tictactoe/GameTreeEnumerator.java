@@ -0,0 +1,314 @@
+package tictactoe;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The GameTreeEnumerator class walks the complete game tree below a position and collects GameTreeStats, used to check engine changes against known counts.
+ * The top levels of the tree are split into fork-join tasks, which the pool's work stealing balances across cores; each task walks its subtree
+ * depth first on its own Board and counts into local arrays, adding them to the shared totals once when it finishes.
+ * Distinct positions are found by adding the smallest Zobrist hash over the 8 symmetries of each position to a ConcurrentLongSet.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class GameTreeEnumerator
+{
+	/* Static fields */
+	private static final int SPLIT_DEPTH = 3; // moves below the root that are split into separate tasks
+	private static final int MIN_SET_BITS = 10;
+	private static final int MAX_SET_BITS = 26; // largest position set, 64M keys (512 MB)
+
+	/* Instance variables */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor for an enumerator using every available processor.
+     */
+    public GameTreeEnumerator()
+    {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for an enumerator using a given number of worker threads.
+     *
+     * @param parallelism number of worker threads
+     */
+    public GameTreeEnumerator(int parallelism)
+    {
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Enumerates the whole game tree below a position.
+     *
+     * @param board Board holding the root position.  It is not changed.
+     * @return GameTreeStats of the tree
+     */
+    public GameTreeStats enumerate(Board board)
+    {
+        return enumerate(board, board.getTotalSquares());
+    }
+
+    /**
+     * Enumerates the game tree below a position, down to a depth.  Positions at maxDepth are counted but not expanded.
+     *
+     * @param board Board holding the root position.  It is not changed.
+     * @param maxDepth deepest depth (number of moves played) to count
+     * @return GameTreeStats of the tree
+     * @throws IllegalArgumentException if the tree down to maxDepth has too many positions to count the distinct ones
+     */
+    public GameTreeStats enumerate(Board board, int maxDepth)
+    {
+        int depths = board.getTotalSquares() + 1;
+        maxDepth = Math.min(maxDepth, board.getTotalSquares());
+        Totals totals = new Totals(depths, maxDepth, setBitsFor(board, maxDepth));
+
+        Symmetry symmetry = Symmetry.forLength(board.getLength());
+        Zobrist zobrist = Zobrist.forLength(board.getLength());
+        long[] hashes = new long[Symmetry.getCount()];
+        for(int t = 0; t < hashes.length; t++)
+            for(int square = 0; square < board.getTotalSquares(); square++)
+                hashes[t] ^= zobrist.key(symmetry.map(t, square), board.getSquare(square));
+
+        pool.invoke(new Subtree(totals, new Board(board), hashes, board.getMovesCounter()));
+
+        long[] nodes = new long[depths];
+        long[] unique = new long[depths];
+        for(int depth = 0; depth < depths; depth++)
+        {
+            nodes[depth] = totals.nodes.get(depth);
+            unique[depth] = totals.unique.get(depth);
+        }
+        return new GameTreeStats(nodes, unique, totals.outcomes.get(0), totals.outcomes.get(1), totals.outcomes.get(2));
+    }
+
+    /**
+     * Sizes the position set to twice the number of positions reachable from the board down to maxDepth, ignoring wins and symmetry.
+     * Where that would pass MAX_SET_BITS the set is capped, relying on most large positions sharing one key with their 7 other orientations.
+     *
+     * @param board Board being enumerated
+     * @param maxDepth deepest depth counted
+     * @return base two logarithm of the set size
+     * @throws IllegalArgumentException if even the distinct positions up to symmetry could not fit
+     */
+    private static int setBitsFor(Board board, int maxDepth)
+    {
+        int empty = board.getTotalSquares() - board.getMovesCounter();
+        double positions = 0;
+        for(int moves = 0; moves <= maxDepth - board.getMovesCounter(); moves++)
+        {
+            int mover = (moves + 1) / 2; // stones added by the player to move at the root
+            positions += choose(empty, mover) * choose(empty - mover, moves - mover);
+        }
+        int bits = MIN_SET_BITS;
+        while(bits < MAX_SET_BITS && (1L << bits) < positions * 2)
+            bits++;
+        if(positions / Symmetry.getCount() * 2 > 1L << MAX_SET_BITS)
+            throw new IllegalArgumentException(String.format("Too many positions (up to %.3g) to count down to depth %d", positions, maxDepth));
+        return bits;
+    }
+
+    /**
+     * @param n number of items
+     * @param k number chosen
+     * @return double number of ways to choose k of n items
+     */
+    private static double choose(int n, int k)
+    {
+        double ways = 1;
+        for(int i = 0; i < k; i++)
+            ways = ways * (n - i) / (i + 1);
+        return ways;
+    }
+
+    /**
+     * Shuts down the worker threads.
+     */
+    public void shutdown()
+    {
+        pool.shutdown();
+    }
+
+    /**
+     * The counts shared by every task.  Tasks add to them once each, when they finish.
+     */
+    private static final class Totals
+    {
+        private final AtomicLongArray nodes;
+        private final AtomicLongArray unique;
+        private final AtomicLongArray outcomes; // X wins, O wins, draws
+        private final int maxDepth;
+        private final ConcurrentLongSet positions;
+
+        Totals(int depths, int maxDepth, int setBits)
+        {
+            nodes = new AtomicLongArray(depths);
+            unique = new AtomicLongArray(depths);
+            outcomes = new AtomicLongArray(3);
+            this.maxDepth = maxDepth;
+            positions = new ConcurrentLongSet(setBits);
+        }
+    }
+
+    /**
+     * Task enumerating the subtree below one position.
+     */
+    private static final class Subtree extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+        private final Totals totals;
+        private final Board board; // owned by this task
+        private final long[] hashes; // hashes[t] is the hash of the board under symmetry t
+        private final int rootDepth; // depth of the position the enumeration started from
+        private final Symmetry symmetry;
+        private final Zobrist zobrist;
+        private long[] nodes;
+        private long[] unique;
+        private final long[] outcomes = new long[3];
+
+        Subtree(Totals totals, Board board, long[] hashes, int rootDepth)
+        {
+            this.totals = totals;
+            this.board = board;
+            this.hashes = hashes;
+            this.rootDepth = rootDepth;
+            symmetry = Symmetry.forLength(board.getLength());
+            zobrist = Zobrist.forLength(board.getLength());
+        }
+
+        @Override
+        protected void compute()
+        {
+            int depth = board.getMovesCounter();
+            boolean expand = !isLeaf(depth);
+            if(expand && depth - rootDepth < SPLIT_DEPTH)
+            {
+                // count this position, then hand each child to its own task
+                nodes = new long[board.getTotalSquares() + 1];
+                unique = new long[nodes.length];
+                visit(depth);
+                flush();
+
+                Player current = board.getCurrentPlayer();
+                Subtree[] children = new Subtree[board.getTotalSquares() - depth];
+                int count = 0;
+                for(int square = 0; square < board.getTotalSquares(); square++)
+                {
+                    if(board.isSquareOccupied(square))
+                        continue;
+                    Board child = new Board(board);
+                    child.setSquare(square, current);
+                    long[] childHashes = hashes.clone();
+                    for(int t = 0; t < childHashes.length; t++)
+                        childHashes[t] ^= zobrist.key(symmetry.map(t, square), current);
+                    children[count++] = new Subtree(totals, child, childHashes, rootDepth);
+                }
+                invokeAll(children);
+            }
+            else
+            {
+                nodes = new long[board.getTotalSquares() + 1];
+                unique = new long[nodes.length];
+                walk();
+                flush();
+            }
+        }
+
+        /**
+         * @param depth depth of the board's position
+         * @return true if the position is not expanded: the game is over or maxDepth is reached
+         */
+        private boolean isLeaf(int depth)
+        {
+            return board.getHasWon() != Player.NONE || depth == board.getTotalSquares() || depth >= totals.maxDepth;
+        }
+
+        /**
+         * Counts the board's position: the node itself, whether it is new, and the outcome if the game is over.
+         *
+         * @param depth depth of the board's position
+         */
+        private void visit(int depth)
+        {
+            nodes[depth]++;
+            long key = hashes[0];
+            for(int t = 1; t < hashes.length; t++)
+                key = Math.min(key, hashes[t]);
+            if(totals.positions.add(key))
+                unique[depth]++;
+
+            if(board.getHasWon() == Player.X)
+                outcomes[0]++;
+            else if(board.getHasWon() == Player.O)
+                outcomes[1]++;
+            else if(depth == board.getTotalSquares())
+                outcomes[2]++;
+        }
+
+        /**
+         * Depth first walk of the subtree on this task's board.
+         */
+        private void walk()
+        {
+            int depth = board.getMovesCounter();
+            visit(depth);
+            if(isLeaf(depth))
+                return;
+
+            Player current = board.getCurrentPlayer();
+            for(int square = 0; square < board.getTotalSquares(); square++)
+            {
+                if(board.isSquareOccupied(square))
+                    continue;
+                board.setSquare(square, current);
+                for(int t = 0; t < hashes.length; t++)
+                    hashes[t] ^= zobrist.key(symmetry.map(t, square), current);
+                walk();
+                for(int t = 0; t < hashes.length; t++)
+                    hashes[t] ^= zobrist.key(symmetry.map(t, square), current);
+                board.unmakeMove(square);
+            }
+        }
+
+        /**
+         * Adds this task's counts to the shared totals.
+         */
+        private void flush()
+        {
+            for(int depth = 0; depth < nodes.length; depth++)
+            {
+                if(nodes[depth] != 0)
+                    totals.nodes.addAndGet(depth, nodes[depth]);
+                if(unique[depth] != 0)
+                    totals.unique.addAndGet(depth, unique[depth]);
+            }
+            for(int i = 0; i < outcomes.length; i++)
+            {
+                if(outcomes[i] != 0)
+                    totals.outcomes.addAndGet(i, outcomes[i]);
+                outcomes[i] = 0;
+            }
+        }
+    }
+
+    /**
+     * Enumerates the game tree from the empty board and prints the counts.
+     *
+     * @param args optional board length and number in a row needed to win, optionally followed by a maximum depth
+     */
+    public static void main(String[] args)
+    {
+        Board board = args.length >= 2 ? new Board(Integer.parseInt(args[0]), Integer.parseInt(args[1])) : new Board();
+        int maxDepth = args.length >= 3 ? Integer.parseInt(args[2]) : board.getTotalSquares();
+        GameTreeEnumerator enumerator = new GameTreeEnumerator();
+        long start = System.nanoTime();
+        GameTreeStats stats = enumerator.enumerate(board, maxDepth);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        enumerator.shutdown();
+        System.out.print(stats);
+        System.out.println(String.format("%.3f seconds, %.0f nodes per second", seconds, stats.getNodeCount() / seconds));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,130 @@
+package tictactoe;
+
+
+/**
+ * The GameTreeStats class holds the counts collected by GameTreeEnumerator: positions per depth of the game tree,
+ * how the games at its leaves ended, and how many distinct positions it holds once rotations and reflections are treated as the same.
+ * Depth is the number of moves played on the board, so the empty board is at depth 0.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class GameTreeStats
+{
+	/* Instance variables */
+    private final long[] nodes; // nodes[depth] is the number of tree nodes (move sequences) ending at depth
+    private final long[] unique; // unique[depth] is the number of distinct positions at depth after symmetry reduction
+    private final long xWins;
+    private final long oWins;
+    private final long draws;
+
+    /**
+     * Constructor for GameTreeStats.
+     *
+     * @param nodes tree nodes per depth
+     * @param unique distinct positions per depth after symmetry reduction
+     * @param xWins leaves won by X
+     * @param oWins leaves won by O
+     * @param draws leaves drawn
+     */
+    public GameTreeStats(long[] nodes, long[] unique, long xWins, long oWins, long draws)
+    {
+        this.nodes = nodes.clone();
+        this.unique = unique.clone();
+        this.xWins = xWins;
+        this.oWins = oWins;
+        this.draws = draws;
+    }
+
+    /**
+     * @return int greatest depth counted, the number of squares on the board
+     */
+    public int getMaxDepth()
+    {
+        return nodes.length - 1;
+    }
+
+    /**
+     * @param depth number of moves played
+     * @return long number of tree nodes at the depth
+     */
+    public long getNodeCount(int depth)
+    {
+        return nodes[depth];
+    }
+
+    /**
+     * @return long number of tree nodes at every depth
+     */
+    public long getNodeCount()
+    {
+        long total = 0;
+        for(long n : nodes)
+            total += n;
+        return total;
+    }
+
+    /**
+     * @param depth number of moves played
+     * @return long number of distinct positions at the depth after symmetry reduction
+     */
+    public long getUniquePositions(int depth)
+    {
+        return unique[depth];
+    }
+
+    /**
+     * @return long number of distinct positions at every depth after symmetry reduction
+     */
+    public long getUniquePositions()
+    {
+        long total = 0;
+        for(long n : unique)
+            total += n;
+        return total;
+    }
+
+    /**
+     * @return long number of leaves won by X
+     */
+    public long getXWins()
+    {
+        return xWins;
+    }
+
+    /**
+     * @return long number of leaves won by O
+     */
+    public long getOWins()
+    {
+        return oWins;
+    }
+
+    /**
+     * @return long number of leaves drawn
+     */
+    public long getDraws()
+    {
+        return draws;
+    }
+
+    /**
+     * Overriding toString method.
+     *
+     * @return String table of counts per depth followed by totals
+     */
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("depth\tnodes\tunique\n");
+        for(int depth = 0; depth < nodes.length; depth++)
+        {
+            if(nodes[depth] == 0)
+                continue;
+            sb.append(depth).append('\t').append(nodes[depth]).append('\t').append(unique[depth]).append('\n');
+        }
+        sb.append("total\t").append(getNodeCount()).append('\t').append(getUniquePositions()).append('\n');
+        sb.append("X wins: ").append(xWins).append(", O wins: ").append(oWins).append(", draws: ").append(draws).append('\n');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,472 @@
+package tictactoe;
+
+import java.util.Arrays;
+
+/**
+ * The IterativeDeepeningPolicy class is a computer player for boards of any size which always answers within a time budget.
+ * It runs alpha-beta searches one move deeper at a time until a hard wall clock deadline, and plays the best move of the last search that finished.
+ * Positions the search cannot see to the end are scored by a ThreatTracker, which counts the lines of winLength squares (windows) which only one player occupies,
+ * worth more the fuller they are, and is updated with each move instead of being recomputed.
+ * Before searching, the tracker looks for a win by continuous fours, within the same deadline, which is played at once if found.
+ * The tracker also prunes the search to forcing moves: a player who can win at once only tries the win, and a player facing a four only tries blocking it.
+ * Otherwise only empty squares within two squares of a stone are searched, and they are ordered by the move stored in a TranspositionTable,
+ * then the killer moves of the ply (moves that recently caused a cutoff at the same depth), then the history heuristic (how often each square caused cutoffs).
+ * After each move the depth reached and the search speed can be read back.
+ * An IterativeDeepeningPolicy is not thread safe.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class IterativeDeepeningPolicy implements MovePolicy
+{
+	/* Static fields */
+	private static final int DEFAULT_TABLE_BITS = 20;
+	private static final int INFINITY = Short.MAX_VALUE;
+	private static final int WIN = 30000; // value of winning now; wins found deeper score less
+	private static final int MAX_EVALUATION = 20000; // heuristic values are kept below any win
+	private static final int NEIGHBOURHOOD = 2; // distance from a stone of the squares searched
+	private static final int FORCED_WIN_DEPTH = 8; // most fours in the search for a forced win before each move
+	private static final int CLOCK_CHECK_INTERVAL = 1024; // nodes between checks of the clock, a power of two
+	private static final long SALT_MULTIPLIER = 0x9E3779B97F4A7C15L; // spreads win lengths across the key bits, as in Solver
+	private static final int TABLE_MOVE_SCORE = Integer.MAX_VALUE;
+	private static final int KILLER_SCORE = Integer.MAX_VALUE - 2;
+
+	/* Instance variables */
+    private final long budgetNanos;
+    private final TranspositionTable table;
+
+    // structures for the current board size, rebuilt when it changes
+    private int length;
+    private int winLength;
+    private Zobrist zobrist;
+    private ThreatTracker tracker;
+    private int[] near; // near[square] is the number of stones within NEIGHBOURHOOD squares of square
+    private int[][] moves; // moves generated at each ply
+    private int[][] moveScores; // ordering scores of the moves at each ply
+    private int[][] killers; // two killer moves per ply
+    private int[] history; // history heuristic score per square
+
+    // search state
+    private Board board;
+    private long hash;
+    private long deadline;
+    private boolean aborted;
+    private long nodes;
+    private int rootBestMove;
+
+    // statistics of the last move
+    private int lastDepth;
+    private int lastValue;
+    private long lastNodes;
+    private long lastNanos;
+
+    /**
+     * Constructor for a policy with its own TranspositionTable.
+     *
+     * @param millis time budget per move in milliseconds
+     */
+    public IterativeDeepeningPolicy(long millis)
+    {
+        this(millis, new TranspositionTable(DEFAULT_TABLE_BITS));
+    }
+
+    /**
+     * Constructor for a policy.
+     *
+     * @param millis time budget per move in milliseconds
+     * @param table TranspositionTable to keep search results in between iterations and moves
+     */
+    public IterativeDeepeningPolicy(long millis, TranspositionTable table)
+    {
+        budgetNanos = millis * 1000000L;
+        this.table = table;
+    }
+
+    /**
+     * Returns the depth of the last search that finished before the deadline, for the last move chosen.
+     *
+     * @return int depth in moves, or 0 if no search finished
+     */
+    public int getLastDepth()
+    {
+        return lastDepth;
+    }
+
+    /**
+     * Returns the value of the last move chosen, from the mover's point of view.
+     *
+     * @return int value: above 20000 for a forced win, below -20000 for a forced loss, otherwise the heuristic value
+     */
+    public int getLastValue()
+    {
+        return lastValue;
+    }
+
+    /**
+     * Returns the number of positions searched for the last move chosen.
+     *
+     * @return long count of positions
+     */
+    public long getLastNodeCount()
+    {
+        return lastNodes;
+    }
+
+    /**
+     * Returns the search speed for the last move chosen.
+     *
+     * @return double positions searched per second
+     */
+    public double getLastNodesPerSecond()
+    {
+        return lastNanos > 0 ? lastNodes * 1e9 / lastNanos : 0;
+    }
+
+    /**
+     * Chooses a move, searching deeper until the time budget runs out.
+     *
+     * @param b Board to choose a move on.  It is changed during the search and restored before returning.
+     * @return int square number of the best move found by the deepest finished search
+     */
+    public int chooseMove(Board b)
+    {
+        long start = System.nanoTime();
+        deadline = start + budgetNanos;
+        setUp(b);
+        aborted = false;
+        lastDepth = 0;
+        lastValue = 0;
+
+        long threatNodes = tracker.getNodeCount();
+        int bestMove = tracker.findForcedWin(b.getCurrentPlayer(), FORCED_WIN_DEPTH, deadline);
+        nodes = tracker.getNodeCount() - threatNodes;
+        if(bestMove >= 0)
+        {
+            lastValue = WIN;
+            lastNodes = nodes;
+            lastNanos = System.nanoTime() - start;
+            board = null;
+            return bestMove;
+        }
+
+        bestMove = fallbackMove();
+        int remaining = b.getTotalSquares() - b.getMovesCounter();
+        for(int depth = 1; depth <= remaining; depth++)
+        {
+            rootBestMove = -1;
+            int value = negamax(depth, 0, -INFINITY, INFINITY);
+            if(aborted)
+                break;
+            if(rootBestMove >= 0)
+                bestMove = rootBestMove;
+            lastDepth = depth;
+            lastValue = value;
+            if(Math.abs(value) > MAX_EVALUATION) // a forced result, searching deeper cannot change it
+                break;
+        }
+
+        lastNodes = nodes;
+        lastNanos = System.nanoTime() - start;
+        board = null;
+        return bestMove;
+    }
+
+    /**
+     * Picks a move to play if not even a one move search finishes: the centre square on an empty board, otherwise the first empty square next to a stone.
+     *
+     * @return int square number of an empty square
+     */
+    private int fallbackMove()
+    {
+        int count = generateMoves(0);
+        return count > 0 ? moves[0][0] : -1;
+    }
+
+    /**
+     * Builds the search structures for the board's size if they are not already built, then computes the hash, threats and neighbourhood counts of its position.
+     *
+     * @param b Board to search
+     */
+    private void setUp(Board b)
+    {
+        board = b;
+        if(b.getLength() != length || b.getWinLength() != winLength)
+            allocate(b.getLength(), b.getWinLength());
+
+        tracker.load(b);
+        Arrays.fill(near, 0);
+        for(int i = 0; i < history.length; i++)
+            history[i] >>= 1; // age the history of earlier moves
+        hash = winLength * SALT_MULTIPLIER; // the same stones are a different position under another win length
+        for(int square = 0; square < b.getTotalSquares(); square++)
+        {
+            Player p = b.getSquare(square);
+            if(p != Player.NONE)
+            {
+                hash ^= zobrist.key(square, p);
+                updateNear(square, 1);
+            }
+        }
+    }
+
+    /**
+     * Creates the ThreatTracker and allocates the search arrays for a board size.
+     *
+     * @param newLength length of a side of the board
+     * @param newWinLength number of squares in a row needed to win
+     */
+    private void allocate(int newLength, int newWinLength)
+    {
+        length = newLength;
+        winLength = newWinLength;
+        int totalSquares = length * length;
+        zobrist = Zobrist.forLength(length);
+        tracker = new ThreatTracker(length, winLength);
+        near = new int[totalSquares];
+        moves = new int[totalSquares + 1][totalSquares];
+        moveScores = new int[totalSquares + 1][totalSquares];
+        killers = new int[totalSquares + 1][2];
+        history = new int[totalSquares];
+        for(int[] k : killers)
+            Arrays.fill(k, -1);
+    }
+
+    /**
+     * Adds or removes a stone from the neighbourhood counts.
+     *
+     * @param square square number of the stone
+     * @param delta 1 to add the stone, -1 to remove it
+     */
+    private void updateNear(int square, int delta)
+    {
+        int row = square / length;
+        int col = square % length;
+        for(int r = Math.max(0, row - NEIGHBOURHOOD); r <= Math.min(length - 1, row + NEIGHBOURHOOD); r++)
+            for(int c = Math.max(0, col - NEIGHBOURHOOD); c <= Math.min(length - 1, col + NEIGHBOURHOOD); c++)
+                near[r * length + c] += delta;
+    }
+
+    /**
+     * Scores a position the search does not look past.
+     *
+     * @return int heuristic value for the player to move
+     */
+    private int evaluate()
+    {
+        int value = Math.max(-MAX_EVALUATION, Math.min(MAX_EVALUATION, tracker.getScore()));
+        return board.getCurrentPlayer() == Player.X ? value : -value;
+    }
+
+    /**
+     * Negamax search with alpha-beta pruning, stopping early once the deadline has passed.
+     *
+     * @param depth number of moves left to search
+     * @param ply number of moves made since the root
+     * @param alpha value the player to move is already guaranteed
+     * @param beta value the opponent is already guaranteed (negated)
+     * @return value of the position for the player to move, meaningless if the search was aborted
+     */
+    private int negamax(int depth, int ply, int alpha, int beta)
+    {
+        if((++nodes & (CLOCK_CHECK_INTERVAL - 1)) == 0 && System.nanoTime() >= deadline)
+            aborted = true;
+        if(aborted)
+            return 0;
+
+        // The previous move won the game, so the player to move has lost.  Losing later is better than losing sooner.
+        if(board.getHasWon() != Player.NONE)
+            return -(WIN - ply);
+        if(board.getMovesCounter() == board.getTotalSquares())
+            return 0;
+        if(depth == 0)
+            return evaluate();
+
+        int originalAlpha = alpha;
+        int tableMove = -1;
+        long entry = table.probe(hash);
+        if(entry != 0)
+        {
+            tableMove = TranspositionTable.getMove(entry);
+            if(ply > 0 && TranspositionTable.getDepth(entry) >= depth)
+            {
+                int value = fromTable(TranspositionTable.getValue(entry), ply);
+                int flag = TranspositionTable.getFlag(entry);
+                if(flag == TranspositionTable.EXACT)
+                    return value;
+                else if(flag == TranspositionTable.LOWER_BOUND)
+                    alpha = Math.max(alpha, value);
+                else if(flag == TranspositionTable.UPPER_BOUND)
+                    beta = Math.min(beta, value);
+                if(alpha >= beta)
+                    return value;
+            }
+        }
+
+        int count = generateMoves(ply);
+        int[] plyMoves = moves[ply];
+        int[] scores = moveScores[ply];
+        for(int i = 0; i < count; i++)
+        {
+            int move = plyMoves[i];
+            if(move == tableMove)
+                scores[i] = TABLE_MOVE_SCORE;
+            else if(move == killers[ply][0])
+                scores[i] = KILLER_SCORE;
+            else if(move == killers[ply][1])
+                scores[i] = KILLER_SCORE - 1;
+            else
+                scores[i] = history[move];
+        }
+
+        Player current = board.getCurrentPlayer();
+        int bestValue = -INFINITY;
+        int bestMove = -1;
+        for(int i = 0; i < count; i++)
+        {
+            // bring the highest scoring remaining move forward, so moves are only sorted as far as the search gets before a cutoff
+            int best = i;
+            for(int j = i + 1; j < count; j++)
+                if(scores[j] > scores[best])
+                    best = j;
+            int move = plyMoves[best];
+            plyMoves[best] = plyMoves[i];
+            scores[best] = scores[i];
+            plyMoves[i] = move;
+
+            makeMove(move, current);
+            int value = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            unmakeMove(move, current);
+            if(aborted)
+                return 0;
+
+            if(value > bestValue)
+            {
+                bestValue = value;
+                bestMove = move;
+            }
+            if(value > alpha)
+                alpha = value;
+            if(alpha >= beta)
+            {
+                if(move != tableMove && move != killers[ply][0])
+                {
+                    killers[ply][1] = killers[ply][0];
+                    killers[ply][0] = move;
+                }
+                history[move] += depth * depth;
+                break;
+            }
+        }
+
+        int flag;
+        if(bestValue <= originalAlpha)
+            flag = TranspositionTable.UPPER_BOUND;
+        else if(bestValue >= beta)
+            flag = TranspositionTable.LOWER_BOUND;
+        else
+            flag = TranspositionTable.EXACT;
+        table.store(hash, toTable(bestValue, ply), flag, depth, bestMove);
+
+        if(ply == 0)
+            rootBestMove = bestMove;
+        return bestValue;
+    }
+
+    /**
+     * Lists the moves worth searching.  A winning move is listed alone, and if the opponent threatens to win only the blocking moves are listed,
+     * since any other move loses.  Otherwise the empty squares within NEIGHBOURHOOD squares of a stone are listed, or the centre square of an empty board.
+     * If there are none, every empty square is listed.
+     *
+     * @param ply ply whose move array to fill
+     * @return int number of moves generated
+     */
+    private int generateMoves(int ply)
+    {
+        int[] plyMoves = moves[ply];
+        Player current = board.getCurrentPlayer();
+        int win = tracker.findWinningMove(current);
+        if(win >= 0)
+        {
+            plyMoves[0] = win;
+            return 1;
+        }
+        if(tracker.getWinningSquareCount(current.getOpponent()) > 0)
+            return tracker.getWinningSquares(current.getOpponent(), plyMoves);
+        if(board.getMovesCounter() == 0)
+        {
+            plyMoves[0] = (length / 2) * length + length / 2;
+            return 1;
+        }
+        int count = 0;
+        for(int square = 0; square < board.getTotalSquares(); square++)
+            if(near[square] > 0 && !board.isSquareOccupied(square))
+                plyMoves[count++] = square;
+        if(count == 0) // every square near a stone is taken, so consider the rest
+        {
+            for(int square = 0; square < board.getTotalSquares(); square++)
+                if(!board.isSquareOccupied(square))
+                    plyMoves[count++] = square;
+        }
+        return count;
+    }
+
+    /**
+     * Converts a win or loss value found at a ply into one counted from the stored position, so it stays correct when reached by a different path.
+     *
+     * @param value value from the search
+     * @param ply ply of the position
+     * @return int value to store
+     */
+    private static int toTable(int value, int ply)
+    {
+        if(value > MAX_EVALUATION)
+            return value + ply;
+        if(value < -MAX_EVALUATION)
+            return value - ply;
+        return value;
+    }
+
+    /**
+     * Reverses toTable.
+     *
+     * @param value stored value
+     * @param ply ply of the position
+     * @return int value for the search
+     */
+    private static int fromTable(int value, int ply)
+    {
+        if(value > MAX_EVALUATION)
+            return value - ply;
+        if(value < -MAX_EVALUATION)
+            return value + ply;
+        return value;
+    }
+
+    /**
+     * Makes a move on the board and updates the hash, threats and neighbourhood counts.
+     *
+     * @param square square number
+     * @param value Player moving
+     */
+    private void makeMove(int square, Player value)
+    {
+        board.setSquare(square, value);
+        hash ^= zobrist.key(square, value);
+        tracker.makeMove(square, value);
+        updateNear(square, 1);
+    }
+
+    /**
+     * Undoes a move made with makeMove.
+     *
+     * @param square square number
+     * @param value Player who moved
+     */
+    private void unmakeMove(int square, Player value)
+    {
+        board.unmakeMove(square);
+        hash ^= zobrist.key(square, value);
+        tracker.unmakeMove(square, value);
+        updateNear(square, -1);
+    }
+}
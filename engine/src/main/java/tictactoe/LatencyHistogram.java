@@ -0,0 +1,86 @@
+package tictactoe;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LatencyHistogram class records durations in nanoseconds into power of two buckets, so any number of threads can record without locking.
+ * Bucket n counts durations from 2^n up to 2^(n+1) - 1 nanoseconds, so percentiles are accurate to within a factor of two.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class LatencyHistogram
+{
+	/* Static fields */
+	private static final int BUCKETS = 64;
+
+	/* Instance variables */
+    private final LongAdder[] buckets;
+    private final LongAdder count;
+    private final LongAdder total; // sum of all recorded durations
+
+    /**
+     * Constructor for an empty histogram.
+     */
+    public LatencyHistogram()
+    {
+        buckets = new LongAdder[BUCKETS];
+        for(int i = 0; i < BUCKETS; i++)
+            buckets[i] = new LongAdder();
+        count = new LongAdder();
+        total = new LongAdder();
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos duration in nanoseconds
+     */
+    public void record(long nanos)
+    {
+        if(nanos < 1)
+            nanos = 1;
+        buckets[63 - Long.numberOfLeadingZeros(nanos)].increment();
+        count.increment();
+        total.add(nanos);
+    }
+
+    /**
+     * @return long number of durations recorded
+     */
+    public long getCount()
+    {
+        return count.sum();
+    }
+
+    /**
+     * @return double mean duration in nanoseconds, or 0 if nothing has been recorded
+     */
+    public double getMean()
+    {
+        long n = count.sum();
+        return n == 0 ? 0 : (double)total.sum() / n;
+    }
+
+    /**
+     * Estimates a percentile.
+     *
+     * @param percent percentile between 0 and 100, e.g. 99 for the 99th percentile
+     * @return long upper bound in nanoseconds of the bucket holding the percentile, or 0 if nothing has been recorded
+     */
+    public long getPercentile(double percent)
+    {
+        long n = count.sum();
+        if(n == 0)
+            return 0;
+        long rank = (long)Math.ceil(n * percent / 100);
+        long seen = 0;
+        for(int i = 0; i < BUCKETS; i++)
+        {
+            seen += buckets[i].sum();
+            if(seen >= rank)
+                return i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+        }
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,67 @@
+package tictactoe;
+
+/**
+ * The LearnedPolicy class is a computer player which looks up the learned value of every move in a ValueTable and plays the best one, with no search.
+ * Choosing a move hashes the board once and then costs one table read per empty square, so it suits large volumes of games where searching is too expensive.
+ * The table is only read, so one LearnedPolicy may be shared by any number of threads.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class LearnedPolicy implements MovePolicy
+{
+	/* Instance variables */
+    private final ValueTable table;
+
+    /**
+     * Constructor for a policy playing from a table.
+     *
+     * @param table ValueTable trained by a SelfPlayTrainer
+     */
+    public LearnedPolicy(ValueTable table)
+    {
+        this.table = table;
+    }
+
+    /**
+     * Chooses the move leading to the position with the highest learned value.
+     *
+     * @param board Board to choose a move on
+     * @return int square number of the chosen move
+     * @throws IllegalArgumentException if the table was learned on a different board
+     */
+    public int chooseMove(Board board)
+    {
+        if(board.getLength() != table.getLength() || board.getWinLength() != table.getWinLength())
+            throw new IllegalArgumentException("Table was learned on a different board");
+        return bestMove(table, board, table.hash(board));
+    }
+
+    /**
+     * Finds the move leading to the position with the highest value, taking the lowest square number among equal values.
+     *
+     * @param table ValueTable to read
+     * @param board Board to choose a move on
+     * @param hash Zobrist hash of the board's position
+     * @return int square number of the best move
+     */
+    static int bestMove(ValueTable table, Board board, long hash)
+    {
+        Zobrist zobrist = table.getZobrist();
+        Player current = board.getCurrentPlayer();
+        int best = -1;
+        float bestValue = Float.NEGATIVE_INFINITY;
+        for(int square = 0; square < board.getTotalSquares(); square++)
+        {
+            if(board.isSquareOccupied(square))
+                continue;
+            float value = table.getValue(hash ^ zobrist.key(square, current));
+            if(value > bestValue)
+            {
+                bestValue = value;
+                best = square;
+            }
+        }
+        return best;
+    }
+}
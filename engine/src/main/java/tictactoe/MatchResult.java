@@ -0,0 +1,100 @@
+package tictactoe;
+
+
+/**
+ * The MatchResult class holds the outcome of one tournament match: a series of games between two entrants with colours alternated.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class MatchResult
+{
+	/* Instance variables */
+    private final int first; // entrant index, X in the first game
+    private final int second; // entrant index, O in the first game
+    private final String firstName;
+    private final String secondName;
+    private final int firstWins;
+    private final int secondWins;
+    private final int draws;
+
+    /**
+     * Constructor for a MatchResult.
+     *
+     * @param first index of the entrant playing X in the first game
+     * @param firstName name of that entrant
+     * @param second index of the entrant playing O in the first game
+     * @param secondName name of that entrant
+     * @param firstWins games won by the first entrant
+     * @param secondWins games won by the second entrant
+     * @param draws games drawn
+     */
+    public MatchResult(int first, String firstName, int second, String secondName, int firstWins, int secondWins, int draws)
+    {
+        this.first = first;
+        this.second = second;
+        this.firstName = firstName;
+        this.secondName = secondName;
+        this.firstWins = firstWins;
+        this.secondWins = secondWins;
+        this.draws = draws;
+    }
+
+    /**
+     * @return int index of the entrant playing X in the first game
+     */
+    public int getFirst()
+    {
+        return first;
+    }
+
+    /**
+     * @return int index of the entrant playing O in the first game
+     */
+    public int getSecond()
+    {
+        return second;
+    }
+
+    /**
+     * @return int games won by the first entrant
+     */
+    public int getFirstWins()
+    {
+        return firstWins;
+    }
+
+    /**
+     * @return int games won by the second entrant
+     */
+    public int getSecondWins()
+    {
+        return secondWins;
+    }
+
+    /**
+     * @return int games drawn
+     */
+    public int getDraws()
+    {
+        return draws;
+    }
+
+    /**
+     * @return int number of games in the match
+     */
+    public int getGames()
+    {
+        return firstWins + secondWins + draws;
+    }
+
+    /**
+     * Overriding toString method.
+     *
+     * @return String with both names and the score
+     */
+    public String toString()
+    {
+        return firstName + " " + firstWins + " - " + secondWins + " " + secondName + " (" + draws + " drawn)";
+    }
+}
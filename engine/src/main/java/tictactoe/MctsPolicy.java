@@ -0,0 +1,338 @@
+package tictactoe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The MctsPolicy class is a computer player using Monte Carlo Tree Search with UCT selection, for boards too large to search exhaustively.
+ * Search is root parallel: every thread grows its own tree on its own copy of the board, and the visit counts of the root moves are summed to pick the move.
+ * Each move is limited by a time budget and a playout budget, whichever runs out first.
+ * Random playouts make and undo moves on the thread's board using reused arrays, so they allocate nothing; only tree nodes are allocated.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class MctsPolicy implements MovePolicy
+{
+	/* Static fields */
+	private static final double EXPLORATION = Math.sqrt(2); // UCT exploration constant
+	private static final int CLOCK_CHECK_INTERVAL = 64; // playouts between checks of the clock
+
+	/* Instance variables */
+    private final long timeBudgetNanos;
+    private final long playoutBudget;
+    private final int threads;
+    private final ExecutorService executor;
+    private final SplittableRandom seeds;
+    private long lastPlayoutCount;
+
+    /**
+     * Constructor for an MctsPolicy using every available processor with only a time budget.
+     *
+     * @param millis time budget per move in milliseconds
+     */
+    public MctsPolicy(long millis)
+    {
+        this(millis, Long.MAX_VALUE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for an MctsPolicy.
+     *
+     * @param millis time budget per move in milliseconds
+     * @param playouts playout budget per move, summed over all threads
+     * @param threads number of search threads
+     */
+    public MctsPolicy(long millis, long playouts, int threads)
+    {
+        timeBudgetNanos = millis * 1000000L;
+        playoutBudget = playouts;
+        this.threads = threads;
+        seeds = new SplittableRandom();
+        executor = Executors.newFixedThreadPool(threads, new ThreadFactory()
+        {
+            public Thread newThread(Runnable r)
+            {
+                Thread t = new Thread(r, "mcts-search");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    /**
+     * Returns the number of playouts run to choose the last move.
+     *
+     * @return long playouts summed over all threads
+     */
+    public long getLastPlayoutCount()
+    {
+        return lastPlayoutCount;
+    }
+
+    /**
+     * Chooses the move visited most often by the search threads.
+     *
+     * @param board Board to choose a move on
+     * @return int square number of the chosen move
+     */
+    public int chooseMove(Board board)
+    {
+        long deadline = System.nanoTime() + timeBudgetNanos;
+        List<Callable<Search>> searches = new ArrayList<Callable<Search>>(threads);
+        for(int i = 0; i < threads; i++)
+        {
+            final Search search = new Search(new Board(board), seeds.split(), playoutBudget / threads + 1, deadline);
+            searches.add(new Callable<Search>()
+            {
+                public Search call()
+                {
+                    search.run();
+                    return search;
+                }
+            });
+        }
+
+        long[] visits = new long[board.getTotalSquares()];
+        long playouts = 0;
+        int winningMove = -1;
+        try
+        {
+            for(Future<Search> future : executor.invokeAll(searches))
+            {
+                Search search = future.get();
+                playouts += search.playouts;
+                if(search.winningMove >= 0)
+                    winningMove = search.winningMove;
+                for(int i = 0; i < search.root.childCount; i++)
+                    visits[search.root.children[i].move] += search.root.children[i].visits;
+            }
+        }
+        catch(InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while searching", ie);
+        }
+        catch(ExecutionException ee)
+        {
+            throw new IllegalStateException("Search failed", ee.getCause());
+        }
+        lastPlayoutCount = playouts;
+        if(winningMove >= 0)
+            return winningMove;
+
+        int best = -1;
+        for(int square = 0; square < visits.length; square++)
+            if(!board.isSquareOccupied(square) && (best < 0 || visits[square] > visits[best]))
+                best = square;
+        return best;
+    }
+
+    /**
+     * Stops the search threads.  The policy cannot be used afterwards.
+     */
+    public void shutdown()
+    {
+        executor.shutdown();
+    }
+
+    /**
+     * A node of a search tree, representing the position after its move.
+     */
+    private static final class Node
+    {
+        private final int move; // square played to reach this node, -1 for the root
+        private final Player mover; // player who played move
+        private final Node parent;
+        private Node[] children;
+        private int childCount;
+        private int[] untried; // moves not yet expanded, created on the first expansion
+        private int untriedCount;
+        private int visits;
+        private double wins; // total reward for mover: 1 per win, 0.5 per draw
+
+        Node(int move, Player mover, Node parent)
+        {
+            this.move = move;
+            this.mover = mover;
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * One thread's search: a tree over a private copy of the board.
+     */
+    private static final class Search
+    {
+        private final Board board;
+        private final SplittableRandom random;
+        private final long maxPlayouts;
+        private final long deadline;
+        private final Node root;
+        private final int[] path; // moves played from the root during selection and expansion
+        private final int[] empty; // empty squares during a playout
+        private final int[] playout; // moves played during a playout
+        private long playouts;
+        private int winningMove = -1; // a move which wins at once, if there is one
+
+        Search(Board board, SplittableRandom random, long maxPlayouts, long deadline)
+        {
+            this.board = board;
+            this.random = random;
+            this.maxPlayouts = maxPlayouts;
+            this.deadline = deadline;
+            root = new Node(-1, board.getCurrentPlayer().getOpponent(), null);
+            path = new int[board.getTotalSquares()];
+            empty = new int[board.getTotalSquares()];
+            playout = new int[board.getTotalSquares()];
+        }
+
+        /**
+         * Runs playouts until the budget is spent.
+         */
+        void run()
+        {
+            // no need to search if a move wins straight away
+            Player current = board.getCurrentPlayer();
+            for(int square = 0; square < board.getTotalSquares(); square++)
+            {
+                if(board.isSquareOccupied(square))
+                    continue;
+                board.setSquare(square, current);
+                boolean won = board.getHasWon() == current;
+                board.unmakeMove(square);
+                if(won)
+                {
+                    winningMove = square;
+                    return;
+                }
+            }
+
+            while(playouts < maxPlayouts && (playouts % CLOCK_CHECK_INTERVAL != 0 || System.nanoTime() < deadline))
+            {
+                iterate();
+                playouts++;
+            }
+        }
+
+        /**
+         * One iteration: select a leaf by UCT, expand one child, play out randomly and back up the result.
+         */
+        private void iterate()
+        {
+            Node node = root;
+            int depth = 0;
+
+            // selection
+            while(node.untried != null && node.untriedCount == 0 && node.childCount > 0)
+            {
+                node = select(node);
+                board.setSquare(node.move, node.mover);
+                path[depth++] = node.move;
+            }
+
+            // expansion
+            if(!isOver())
+            {
+                if(node.untried == null)
+                {
+                    node.untried = new int[board.getTotalSquares() - board.getMovesCounter()];
+                    node.children = new Node[node.untried.length];
+                    for(int square = 0; square < board.getTotalSquares(); square++)
+                        if(!board.isSquareOccupied(square))
+                            node.untried[node.untriedCount++] = square;
+                }
+                int i = random.nextInt(node.untriedCount);
+                int move = node.untried[i];
+                node.untried[i] = node.untried[--node.untriedCount];
+                Node child = new Node(move, board.getCurrentPlayer(), node);
+                node.children[node.childCount++] = child;
+                board.setSquare(move, child.mover);
+                path[depth++] = move;
+                node = child;
+            }
+
+            // simulation
+            Player winner = playOut();
+
+            // backpropagation
+            for(Node n = node; n != null; n = n.parent)
+            {
+                n.visits++;
+                if(winner == n.mover)
+                    n.wins += 1;
+                else if(winner == Player.NONE)
+                    n.wins += 0.5;
+            }
+
+            for(int i = depth - 1; i >= 0; i--)
+                board.unmakeMove(path[i]);
+        }
+
+        /**
+         * Picks the child with the highest upper confidence bound.
+         *
+         * @param node Node whose children are all expanded
+         * @return Node child to descend into
+         */
+        private Node select(Node node)
+        {
+            double logVisits = Math.log(node.visits);
+            Node best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for(int i = 0; i < node.childCount; i++)
+            {
+                Node child = node.children[i];
+                double score = child.wins / child.visits + EXPLORATION * Math.sqrt(logVisits / child.visits);
+                if(score > bestScore)
+                {
+                    bestScore = score;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Plays random moves to the end of the game, then undoes them.
+         *
+         * @return Player who won, or Player.NONE for a draw
+         */
+        private Player playOut()
+        {
+            int emptyCount = 0;
+            for(int square = 0; square < board.getTotalSquares(); square++)
+                if(!board.isSquareOccupied(square))
+                    empty[emptyCount++] = square;
+
+            int played = 0;
+            while(!isOver())
+            {
+                int i = random.nextInt(emptyCount);
+                int move = empty[i];
+                empty[i] = empty[--emptyCount];
+                board.setSquare(move, board.getCurrentPlayer());
+                playout[played++] = move;
+            }
+            Player winner = board.getHasWon();
+            while(played > 0)
+                board.unmakeMove(playout[--played]);
+            return winner;
+        }
+
+        /**
+         * @return true if the game on the board has been won or drawn
+         */
+        private boolean isOver()
+        {
+            return board.getHasWon() != Player.NONE || board.getMovesCounter() == board.getTotalSquares();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package tictactoe;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * The MoveInput interface is a source of lines of user input for Display.promptPlayer, such as the console, a file of recorded moves, an in memory queue or a socket.
+ * Each source keeps one buffered reader open for its whole life, so input read ahead is never lost between prompts.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public interface MoveInput extends Closeable
+{
+    /**
+     * Reads the next line of input, waiting for one if necessary.
+     * 
+     * @return String line without its line terminator, or null at the end of input
+     * @throws IOException if reading fails
+     */
+    String readLine() throws IOException;
+}
@@ -0,0 +1,573 @@
+package tictactoe;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * The MoveJournal class is a write-ahead log of games in progress, so games survive the process dying.
+ * Register it as a GameListener on each game: it appends a record when the game starts, for every move, and when the game ends.
+ * Records are buffered and written to a FileChannel; commit() writes the buffer and forces it to disk.
+ * Commits are grouped: a thread committing while another's force is running waits for it and is then covered by a single force,
+ * so one fsync makes the moves of every game since the last commit durable.  Call commit() before telling a player a move was accepted,
+ * or call startCommitting to commit on a timer.
+ *
+ * Opening a journal replays it and keeps the games that had not ended as RecoveredGames, then rewrites the file holding only those games,
+ * so the journal stays as small as the set of games in progress.  A record cut short or failing its checksum ends the replay, as a crash
+ * part way through a write leaves the tail of the file torn.  Games without a move are not kept, and a recovered game which is not played on
+ * for RECOVERY_RUNS openings of the journal in a row is dropped, so games nobody resumes do not pile up over restarts.
+ *
+ * File format: a 16 byte header (the magic number "TTTJ", a version byte, padding and the number of records the last compaction wrote (long))
+ * followed by 16 byte records.
+ * Each record is the game id (long), a value (unsigned short), the record type, a player byte and the CRC32 of the first 12 bytes (int).
+ * START records hold the board length and win length in the value (length * 256 + win length) and, in the player byte, the computer players
+ * (1 for X, 2 for O) plus 4 times the number of openings since the game was last played on.
+ * MOVE records hold the square and the player (the Player's ordinal plus 1), END records hold nothing.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class MoveJournal implements GameListener, Closeable
+{
+	/* Static fields */
+	private static final int MAGIC = 0x5454544A; // "TTTJ"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 16;
+	private static final int RECORD_SIZE = 16;
+	private static final int CHECKED_SIZE = 12; // bytes of a record covered by its checksum
+	private static final int COMPACTED_OFFSET = 8; // header offset of the number of records written by the last compaction
+	private static final int START = 1;
+	private static final int MOVE = 2;
+	private static final int END = 3;
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int READ_BUFFER_SIZE = 1 << 20;
+	private static final int MAX_LENGTH = 255; // longest side a START record can hold
+	private static final int COMPUTERS_MASK = 3; // bits of a START record's player byte holding the computer players
+	private static final int IDLE_SHIFT = 2; // shift of the openings since the game was played on, in a START record's player byte
+	public static final int RECOVERY_RUNS = 3; // openings a recovered game is kept for without being played on
+
+	/* Instance variables */
+    private final Path file;
+    private final Map<Long, RecoveredGame> recovered;
+    private final Map<Long, Integer> idleRuns; // openings since each recovered game was last played on
+    private final Map<Game, Long> ids; // journal id of every game being journaled
+    private final AtomicLong nextId;
+    private final ByteBuffer buffer; // records not yet written to the channel
+    private final CRC32 crc;
+    private final Object forceLock;
+    private FileChannel channel;
+    private long appended; // records appended
+    private long written; // records written to the channel
+    private volatile long durable; // records forced to disk
+    private long commits;
+    private ScheduledExecutorService committer;
+
+    /**
+     * Opens a journal, recovering the games in progress from it if it exists.
+     *
+     * @param file Path of the journal
+     * @throws IOException if the file cannot be read or written, or is not a move journal
+     */
+    public MoveJournal(Path file) throws IOException
+    {
+        this.file = file;
+        recovered = new LinkedHashMap<Long, RecoveredGame>();
+        idleRuns = new HashMap<Long, Integer>();
+        ids = new ConcurrentHashMap<Game, Long>();
+        buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        crc = new CRC32();
+        forceLock = new Object();
+
+        long maxId = Files.exists(file) ? replay() : 0;
+        nextId = new AtomicLong(maxId + 1);
+        compact();
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Reads the journal and rebuilds the games which had not ended, leaving out games without a move and games left idle too long.
+     *
+     * @return long largest game id in the journal
+     * @throws IOException if the file cannot be read or is not a move journal
+     */
+    private long replay() throws IOException
+    {
+        long maxId = 0;
+        try(FileChannel in = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            ByteBuffer data = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            in.read(data);
+            data.flip();
+            if(data.remaining() < HEADER_SIZE || data.getInt() != MAGIC)
+                throw new IOException("Not a move journal: " + file);
+            int version = data.get() & 0xFF;
+            if(version != VERSION)
+                throw new IOException("Unsupported move journal version " + version);
+            long compacted = data.getLong(COMPACTED_OFFSET); // records before this were carried over from the previous opening
+            data.position(HEADER_SIZE);
+
+            long records = 0;
+            boolean torn = false;
+            while(!torn)
+            {
+                if(data.remaining() < RECORD_SIZE)
+                {
+                    data.compact();
+                    int read = in.read(data);
+                    data.flip();
+                    if(read < 0)
+                        break; // end of the journal, possibly part way through a record
+                    continue;
+                }
+                int start = data.position();
+                long id = data.getLong();
+                int value = data.getShort() & 0xFFFF;
+                int type = data.get();
+                int player = data.get();
+                crc.reset();
+                crc.update(data.array(), start, CHECKED_SIZE);
+                if(data.getInt() != (int)crc.getValue())
+                    break;
+                maxId = Math.max(maxId, id);
+                torn = !apply(id, type, player, value, records++ >= compacted);
+            }
+        }
+
+        // a game whose last move ended it may have lost its END record
+        List<Long> dropped = new ArrayList<Long>();
+        for(RecoveredGame game : recovered.values())
+        {
+            Board board = game.getBoard();
+            if(board.getHasWon() != Player.NONE || board.getMovesCounter() == board.getTotalSquares()
+                || board.getMovesCounter() == 0 || idleRuns.get(game.getId()) >= RECOVERY_RUNS)
+                dropped.add(game.getId());
+        }
+        for(Long id : dropped)
+        {
+            recovered.remove(id);
+            idleRuns.remove(id);
+        }
+        return maxId;
+    }
+
+    /**
+     * Applies one record to the recovered games.
+     *
+     * @param id game id
+     * @param type record type
+     * @param player player byte
+     * @param value value field
+     * @param played true if the record was appended while the game was played, false if compaction carried it over
+     * @return false if the record does not make sense, which is treated as the end of the journal
+     */
+    private boolean apply(long id, int type, int player, int value, boolean played)
+    {
+        if(type == START)
+        {
+            try
+            {
+                int computers = player & COMPUTERS_MASK;
+                recovered.put(id, new RecoveredGame(id, new Board(value >>> 8, value & 0xFF), (computers & 1) != 0, (computers & 2) != 0));
+                idleRuns.put(id, played ? 0 : (player & 0xFF) >>> IDLE_SHIFT);
+                return true;
+            }
+            catch(IllegalArgumentException iae)
+            {
+                return false;
+            }
+        }
+        else if(type == MOVE)
+        {
+            RecoveredGame game = recovered.get(id);
+            if(game == null)
+                return true; // a game compacted away after it ended
+            Board board = game.getBoard();
+            if(value >= board.getTotalSquares() || board.isSquareOccupied(value) || player != board.getCurrentPlayer().ordinal() + 1
+                || board.getHasWon() != Player.NONE)
+                return false;
+            board.setSquare(value, board.getCurrentPlayer());
+            if(played)
+                idleRuns.put(id, 0);
+            return true;
+        }
+        else if(type == END)
+        {
+            recovered.remove(id);
+            idleRuns.remove(id);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Rewrites the journal holding only the recovered games, each counted as idle for one more opening.
+     * The file is written under a temporary name, forced to disk and then moved into place, so a crash while compacting leaves the previous journal intact.
+     *
+     * @throws IOException if writing fails
+     */
+    private void compact() throws IOException
+    {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try(FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            long records = 0;
+            for(RecoveredGame game : recovered.values())
+                records += 1 + game.getBoard().getMovesCounter();
+            buffer.clear();
+            buffer.putInt(MAGIC);
+            buffer.put((byte)VERSION);
+            buffer.putLong(COMPACTED_OFFSET, records);
+            buffer.position(HEADER_SIZE);
+            for(RecoveredGame game : recovered.values())
+            {
+                Board board = game.getBoard();
+                int computers = (game.isComputer(Player.X) ? 1 : 0) | (game.isComputer(Player.O) ? 2 : 0);
+                int idle = idleRuns.get(game.getId()) + 1;
+                put(out, game.getId(), START, computers | idle << IDLE_SHIFT, board.getLength() * 256 + board.getWinLength());
+                for(int i = 0; i < board.getMovesCounter(); i++)
+                    put(out, game.getId(), MOVE, (i % 2 == 0 ? Player.X : Player.O).ordinal() + 1, board.getMove(i));
+            }
+            drain(out);
+            out.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns the games which were in progress when the journal was opened and have not been resumed.
+     *
+     * @return List of RecoveredGames, in the order they were started
+     */
+    public synchronized List<RecoveredGame> getRecoveredGames()
+    {
+        return Collections.unmodifiableList(new ArrayList<RecoveredGame>(recovered.values()));
+    }
+
+    /**
+     * Carries on journaling a recovered game.  Call it with a new Game on the recovered game's board before the game is started,
+     * and register the journal as one of the game's listeners as for any other game.
+     *
+     * @param game RecoveredGame to resume
+     * @param g Game playing on game's board
+     * @throws IllegalArgumentException if the game was not recovered by this journal, was already resumed, or g plays on another board
+     */
+    public synchronized void resume(RecoveredGame game, Game g)
+    {
+        if(recovered.get(game.getId()) != game || g.getBoard() != game.getBoard())
+            throw new IllegalArgumentException("Game " + game.getId() + " cannot be resumed");
+        recovered.remove(game.getId());
+        ids.put(g, game.getId());
+    }
+
+    /**
+     * Returns the journal id of a game.
+     *
+     * @param g Game
+     * @return long id, or -1 if the game is not being journaled
+     */
+    public long getId(Game g)
+    {
+        Long id = ids.get(g);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * @return long number of records appended since the journal was opened
+     */
+    public synchronized long getRecordCount()
+    {
+        return appended;
+    }
+
+    /**
+     * @return long number of times the journal was forced to disk since it was opened
+     */
+    public long getCommitCount()
+    {
+        synchronized(forceLock)
+        {
+            return commits;
+        }
+    }
+
+    /* Listener methods */
+
+    /**
+     * Appends a START record, unless the game was resumed.
+     *
+     * @throws IllegalArgumentException if the board is longer than 255 squares a side, which a START record cannot hold
+     */
+    public void onGameStarted(Game g)
+    {
+        if(ids.containsKey(g))
+            return;
+        Board board = g.getBoard();
+        if(board.getLength() > MAX_LENGTH)
+            throw new IllegalArgumentException("Board too large to journal: " + board.getLength() + "x" + board.getLength());
+        long id = nextId.getAndIncrement();
+        ids.put(g, id);
+        int computers = (g.isComputer(Player.X) ? 1 : 0) | (g.isComputer(Player.O) ? 2 : 0);
+        append(id, START, computers, board.getLength() * 256 + board.getWinLength());
+    }
+
+    /**
+     * Appends a MOVE record.
+     */
+    public void onMoveMade(Game g, Player player, int square)
+    {
+        Long id = ids.get(g);
+        if(id != null)
+            append(id, MOVE, player.ordinal() + 1, square);
+    }
+
+    /**
+     * Appends an END record.
+     */
+    public void onGameWon(Game g, Player winner)
+    {
+        end(g);
+    }
+
+    /**
+     * Appends an END record.
+     */
+    public void onGameDrawn(Game g)
+    {
+        end(g);
+    }
+
+    /**
+     * Appends an END record.
+     */
+    public void onGameQuit(Game g)
+    {
+        end(g);
+    }
+
+    /**
+     * Appends an END record and stops journaling a game.
+     *
+     * @param g Game which ended
+     */
+    private void end(Game g)
+    {
+        Long id = ids.remove(g);
+        if(id != null)
+            append(id, END, 0, 0);
+    }
+
+    /* Writing methods */
+
+    /**
+     * Appends a record to the buffer, writing the buffer to the channel first if it is full.
+     *
+     * @param id game id
+     * @param type record type
+     * @param player player byte
+     * @param value value field
+     * @throws UncheckedIOException if writing fails
+     */
+    private synchronized void append(long id, int type, int player, int value)
+    {
+        try
+        {
+            if(channel == null)
+                throw new IOException("Journal closed");
+            put(channel, id, type, player, value);
+        }
+        catch(IOException ioe)
+        {
+            throw new UncheckedIOException("Could not journal game " + id, ioe);
+        }
+        appended++;
+    }
+
+    /**
+     * Encodes a record into the buffer, writing the buffer out first if the record does not fit.
+     *
+     * @param out FileChannel the buffer is written to
+     * @param id game id
+     * @param type record type
+     * @param player player byte
+     * @param value value field
+     * @throws IOException if writing fails
+     */
+    private void put(FileChannel out, long id, int type, int player, int value) throws IOException
+    {
+        if(buffer.remaining() < RECORD_SIZE)
+            drain(out);
+        int start = buffer.position();
+        buffer.putLong(id);
+        buffer.putShort((short)value);
+        buffer.put((byte)type);
+        buffer.put((byte)player);
+        crc.reset();
+        crc.update(buffer.array(), start, CHECKED_SIZE);
+        buffer.putInt((int)crc.getValue());
+    }
+
+    /**
+     * Writes the buffer to a channel and empties it.
+     *
+     * @param out FileChannel to write to
+     * @throws IOException if writing fails
+     */
+    private void drain(FileChannel out) throws IOException
+    {
+        buffer.flip();
+        while(buffer.hasRemaining())
+            out.write(buffer);
+        buffer.clear();
+        if(out == channel)
+            written = appended;
+    }
+
+    /**
+     * Makes every record appended so far durable.  If another thread is forcing the journal, this waits for it and forces the journal again
+     * only if records were written after that force started, so concurrent commits share one force.
+     *
+     * @throws IOException if writing fails
+     */
+    public void commit() throws IOException
+    {
+        long target;
+        FileChannel out;
+        synchronized(this)
+        {
+            if(channel == null)
+                throw new IOException("Journal closed");
+            if(buffer.position() > 0)
+                drain(channel);
+            target = written;
+            out = channel;
+        }
+        if(durable >= target)
+            return;
+        synchronized(forceLock)
+        {
+            if(durable >= target)
+                return; // a force that started after our records were written covered them
+            long covered;
+            synchronized(this)
+            {
+                covered = written;
+            }
+            out.force(false); // throws ClosedChannelException if the journal was closed meanwhile
+            durable = covered;
+            commits++;
+        }
+    }
+
+    /**
+     * Commits on a daemon thread at a fixed rate, bounding how many moves a crash can lose without making players wait for the disk.
+     * Does nothing if committing has already been started.
+     *
+     * @param period time between commits
+     * @param unit TimeUnit of period
+     */
+    public synchronized void startCommitting(long period, TimeUnit unit)
+    {
+        if(committer != null)
+            return;
+        committer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
+        {
+            public Thread newThread(Runnable r)
+            {
+                Thread t = new Thread(r, "journal-committer");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        committer.scheduleWithFixedDelay(new Runnable()
+        {
+            public void run()
+            {
+                try
+                {
+                    commit();
+                }
+                catch(IOException ioe)
+                {
+                    // the next commit tries again, and a closed journal has nothing left to commit
+                }
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Stops committing, waiting for a commit under way to finish, then commits the records appended so far and closes the file.
+     * Games still in progress are recovered when the journal is next opened.
+     *
+     * @throws IOException if writing fails
+     * @throws InterruptedIOException if interrupted while waiting for the committer to stop
+     */
+    public void close() throws IOException
+    {
+        ScheduledExecutorService stopping;
+        synchronized(this)
+        {
+            stopping = committer;
+            committer = null;
+            if(channel == null)
+                return;
+        }
+        if(stopping != null)
+        {
+            stopping.shutdown();
+            try
+            {
+                stopping.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS); // outside the lock, which a running commit takes
+            }
+            catch(InterruptedException ie)
+            {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while stopping the journal committer");
+            }
+        }
+        commit();
+        synchronized(this)
+        {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Recovers the games in a journal and prints them.
+     *
+     * @param args journal file (default games.journal)
+     * @throws IOException if the journal cannot be read
+     */
+    public static void main(String[] args) throws IOException
+    {
+        long start = System.nanoTime();
+        MoveJournal journal = new MoveJournal(Paths.get(args.length > 0 ? args[0] : "games.journal"));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        List<RecoveredGame> games = journal.getRecoveredGames();
+        journal.close();
+        for(RecoveredGame game : games)
+            System.out.println(game);
+        System.out.println(String.format("Recovered %d games in %.3f seconds", games.size(), seconds));
+    }
+}
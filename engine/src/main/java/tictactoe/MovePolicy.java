@@ -0,0 +1,21 @@
+package tictactoe;
+
+
+/**
+ * The MovePolicy interface is implemented by anything that can choose moves for a computer controlled player, such as the Solver.
+ * Game asks the policy of the current player for a move instead of prompting the user through the Display.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public interface MovePolicy
+{
+    /**
+     * Chooses a move for the current player of a board.
+     * Implementations may make and undo moves on the board while choosing, but must leave it in the state it was passed in.
+     * 
+     * @param board Board to choose a move on.  The game on the board must not be over.
+     * @return int square number of an empty square, between 0 and one less than the number of squares in the board
+     */
+    int chooseMove(Board board);
+}
@@ -0,0 +1,190 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The OpeningTable class is a precomputed table of the best move and game value of every legal position of the classic 3x3 game.
+ * The table is a file of one byte per position, indexed by reading the board as a base 3 number (square n contributes 3^n times 0 for empty, 1 for X or 2 for O).
+ * Loading maps the file into memory, so startup costs nothing and a lookup is a single indexed read.
+ * Byte layout: bits 0-3 hold the best move plus 1 (0 once the game is over) and bits 4-5 the value for the player to move.  A byte of 0 marks a position which cannot be reached.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class OpeningTable implements MovePolicy
+{
+	/* Static fields */
+	private static final int LENGTH = 3;
+	private static final int SQUARES = LENGTH * LENGTH;
+	private static final int SIZE = 19683; // 3^9 positions
+	private static final int MOVE_MASK = 0x0F;
+	private static final int VALUE_SHIFT = 4;
+
+	// Game values for the player to move, as stored in bits 4-5
+	public static final int LOSS = 1;
+	public static final int DRAW = 2;
+	public static final int WIN = 3;
+
+	/* Instance variables */
+    private final ByteBuffer table;
+
+    /**
+     * Constructor wrapping a table already in memory.
+     *
+     * @param table ByteBuffer of SIZE bytes
+     */
+    private OpeningTable(ByteBuffer table)
+    {
+        this.table = table;
+    }
+
+    /**
+     * Maps a table file written by generate into memory.
+     *
+     * @param file Path of the table file
+     * @return OpeningTable reading from the mapped file
+     * @throws IOException if the file cannot be read or is not a table
+     */
+    public static OpeningTable load(Path file) throws IOException
+    {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            if(channel.size() != SIZE)
+                throw new IOException(file + " is not an opening table");
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, SIZE);
+            return new OpeningTable(buffer);
+        }
+    }
+
+    /**
+     * Enumerates every position reachable from the empty board, solves each one, and writes the table to a file.
+     *
+     * @param file Path to write the table to
+     * @return int number of positions in the table
+     * @throws IOException if the file cannot be written
+     */
+    public static int generate(Path file) throws IOException
+    {
+        byte[] table = new byte[SIZE];
+        int count = enumerate(new Board(), 0, new Solver(), table);
+        Files.write(file, table);
+        return count;
+    }
+
+    /**
+     * Depth first walk of every position reachable through setSquare, filling in the table entry of each new position.
+     *
+     * @param board Board holding the position to enumerate from
+     * @param index table index of the position
+     * @param solver Solver used to find values and best moves
+     * @param table table being filled in
+     * @return number of new positions found
+     */
+    private static int enumerate(Board board, int index, Solver solver, byte[] table)
+    {
+        if(table[index] != 0)
+            return 0; // already reached through a different move order
+
+        if(board.getHasWon() != Player.NONE)
+        {
+            table[index] = (byte)(LOSS << VALUE_SHIFT); // the previous move won
+            return 1;
+        }
+        if(board.getMovesCounter() == SQUARES)
+        {
+            table[index] = (byte)(DRAW << VALUE_SHIFT);
+            return 1;
+        }
+
+        int value = solver.evaluate(board);
+        int move = solver.getBestMove(); // found by the same search, so the root is searched once
+        int outcome = value > 0 ? WIN : (value < 0 ? LOSS : DRAW);
+        table[index] = (byte)((outcome << VALUE_SHIFT) | (move + 1));
+
+        int count = 1;
+        Player current = board.getCurrentPlayer();
+        int digit = current == Player.X ? 1 : 2;
+        int power = 1;
+        for(int square = 0; square < SQUARES; square++, power *= 3)
+        {
+            if(board.isSquareOccupied(square))
+                continue;
+            board.setSquare(square, current);
+            count += enumerate(board, index + digit * power, solver, table);
+            board.unmakeMove(square);
+        }
+        return count;
+    }
+
+    /**
+     * Computes the table index of a position.
+     *
+     * @param board Board holding a classic 3x3 position
+     * @return int table index
+     */
+    public static int indexOf(Board board)
+    {
+        if(board.getLength() != LENGTH || board.getWinLength() != LENGTH)
+            throw new IllegalArgumentException("Opening table only covers the 3x3 game");
+        int index = 0;
+        for(int square = SQUARES - 1; square >= 0; square--)
+        {
+            Player p = board.getSquare(square);
+            index = index * 3 + (p == Player.X ? 1 : (p == Player.O ? 2 : 0));
+        }
+        return index;
+    }
+
+    /**
+     * Returns the best move for a position.
+     *
+     * @param board Board holding a classic 3x3 position
+     * @return int square number of the best move, or -1 if the game is over or the position cannot be reached
+     */
+    public int getBestMove(Board board)
+    {
+        return (table.get(indexOf(board)) & MOVE_MASK) - 1;
+    }
+
+    /**
+     * Returns the game value of a position for the player to move.
+     *
+     * @param board Board holding a classic 3x3 position
+     * @return WIN, DRAW or LOSS, or 0 if the position cannot be reached
+     */
+    public int getValue(Board board)
+    {
+        return (table.get(indexOf(board)) >> VALUE_SHIFT) & 0x3;
+    }
+
+    /**
+     * Chooses the best move by table lookup.
+     *
+     * @param board Board to choose a move on
+     * @return int square number of the best move
+     */
+    public int chooseMove(Board board)
+    {
+        return getBestMove(board);
+    }
+
+    /**
+     * Generates the table file.
+     *
+     * @param args path of the file to write, defaults to opening.tbl
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        Path file = Paths.get(args.length > 0 ? args[0] : "opening.tbl");
+        int count = generate(file);
+        System.out.println("Wrote " + count + " positions to " + file);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package tictactoe;
+
+
+/**
+ * Enumeration class Player represents the possible state of a tic tac toe board square (as containig a move by player X, player O, or no player at all, NONE).
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public enum Player
+{
+    X, O, NONE;
+    
+    /**
+     * Returns the other player.
+     * 
+     * @return Player.O for Player.X, Player.X for Player.O and Player.NONE for Player.NONE
+     */
+    public Player getOpponent()
+    {
+        if(this == X)
+            return O;
+        else if(this == O)
+            return X;
+        else
+            return NONE;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,197 @@
+package tictactoe;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The Position class represents a Cartesian coordinate indicating a square in the tic tac toe board.
+ * This class provides functionality via methods to convert a coordinate (row, column) pair to a single integer representing a square (square number).
+ * Positions are created for a particular board length; constructors without a length or Board argument assume the default board length from Board.getDefaultLength().
+ * Positions are immutable.  valueOf returns a shared instance per square and board length instead of creating a new object, so move loops need not allocate.
+ * 
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class Position
+{
+    /* Static fields */
+    private static final int MAX_CACHED_LENGTH = 64; // boards up to this length have their Positions interned
+    private static final AtomicReferenceArray<Position[]> CACHE = new AtomicReferenceArray<Position[]>(MAX_CACHED_LENGTH + 1); // CACHE.get(length)[square]
+
+    /* Instance variables */
+    private final int x;
+    private final int y;
+    private final int length; // length of a side of the board this Position belongs to
+    private final int square; // square number, computed once so toInt does no arithmetic
+    
+    //TODO consider removing this constructor
+    /**
+     * Construct a Position object by passing in either a whole number (ranging from 0 to one less than the number of squares in the board)
+     * or a natural number (ranging from 1 to the number of squares in the board).
+     * 
+     * @param squareNumber an integer representing a square either starting from 1 if isNatural set to true, or starting from 0 if isNatural is set to false.
+     * @param isNatural Boolean indicating whether squareNumber is a whole number (beginning at 0) if false, or a natural number (beginning at 1) if true.
+     */
+    public Position(int squareNumber, Boolean isNatural)
+    {
+        //if square number is natural (aka starting from 1) subtract 1 from it to make it a whole number.
+        if(isNatural)
+        {
+            squareNumber--;
+        }
+        length = Board.getDefaultLength();
+        x = squareNumber / length;
+        y = squareNumber % length;
+        square = squareNumber;
+    }
+    
+    /**
+     * Constructor for a Position object accepting a single integer representing a square number between 0 and one less than the number of squares in the board.
+     * 
+     * @param squareNumber integer between 0 and one less than the number of squares in the board.
+     */
+    public Position(int squareNumber)
+    {
+    	length = Board.getDefaultLength();
+    	x = squareNumber / length;
+        y = squareNumber % length;
+        square = squareNumber;
+    }
+    
+    /**
+     * Constructor for a Position object accepting a single integer representing a square number on a given board.
+     * 
+     * @param squareNumber integer between 0 and one less than the number of squares in the board.
+     * @param board Board the square number refers to
+     */
+    public Position(int squareNumber, Board board)
+    {
+    	length = board.getLength();
+    	x = squareNumber / length;
+        y = squareNumber % length;
+        square = squareNumber;
+    }
+    
+    /**
+     * Construct a Position object by passing in just a square number from 1-9 (or 0-8 if isNatural is set to false)
+     * @param squareNumber 
+     * @param isNatural Boolean indicating whether squareNumber is a natural number (1-9) or not (then assuming input is 0-8)
+     */
+    public Position(int inX, int inY)
+    {
+        // Initialize instance variables
+        x = inX;
+        y = inY;
+        length = Board.getDefaultLength();
+        square = (x*length) + y;
+    }
+    
+    /**
+     * Construct a Position object from a row and column on a board of any length.
+     * 
+     * @param inX row of the square
+     * @param inY column of the square
+     * @param inLength length of a side of the board
+     */
+    public Position(int inX, int inY, int inLength)
+    {
+        x = inX;
+        y = inY;
+        length = inLength;
+        square = (x*length) + y;
+    }
+
+    /**
+     * Returns the shared Position for a square on a board.
+     * 
+     * @param squareNumber integer between 0 and one less than the number of squares in the board.
+     * @param board Board the square number refers to
+     * @return the interned Position of the square
+     */
+    public static Position valueOf(int squareNumber, Board board)
+    {
+        return valueOf(squareNumber, board.getLength());
+    }
+
+    /**
+     * Returns the shared Position for a square on a board of a given length.
+     * 
+     * @param squareNumber integer between 0 and one less than the number of squares in the board.
+     * @param length length of a side of the board
+     * @return the interned Position of the square
+     */
+    public static Position valueOf(int squareNumber, int length)
+    {
+        Position[] positions = allOf(length);
+        if(squareNumber < 0 || squareNumber >= positions.length)
+            throw new IllegalArgumentException("No square " + squareNumber + " on a " + length + "x" + length + " board");
+        return positions[squareNumber];
+    }
+
+    /**
+     * Returns the shared Positions of every square of a board length, indexed by square number.  The array must not be modified.
+     * Boards longer than 64 squares a side get a new array each call.
+     * 
+     * @param length length of a side of the board
+     * @return array of Positions indexed by square number
+     */
+    static Position[] allOf(int length)
+    {
+        if(length <= MAX_CACHED_LENGTH)
+        {
+            Position[] positions = CACHE.get(length);
+            if(positions != null)
+                return positions;
+        }
+        Position[] positions = new Position[length * length];
+        for(int i = 0; i < positions.length; i++)
+            positions[i] = new Position(i / length, i % length, length);
+        if(length <= MAX_CACHED_LENGTH && !CACHE.compareAndSet(length, null, positions))
+            return CACHE.get(length); // another thread built the table first
+        return positions;
+    }
+
+    /* Getter methods */
+    
+    /**
+     * Method to get an integer representing this Position object's row.
+     * 
+     * @return int representing the row of this position object (ranging from 0 to one less than the number of rows).
+     */
+    public int getRow()
+    {
+        return x;
+    }
+    
+    /**
+     * Method to get an integer representing this Position object's column.
+     * 
+     * @return int representing the column of this position object (ranging from 0 to one less than the number of columns).
+     */
+    public int getColumn()
+    {
+        return y;
+    }
+    
+    /**
+     * Method to get a single integer representation of a square (square number).  Similar in function to toString() methods.
+     * 
+     * @return int representing square number for a Position object ranging from 0 to one less than the number of squares in the board.
+     */
+    public int toInt()
+    {
+        return square;
+    }
+    
+    //TODO consider removing this method
+    /**
+     * Method to get an integer representation of the square represented by this Position object's coordinates suitable for display to user.
+     * The integer will range from 1 to the number of squares in the board.
+     * 
+     * @return int representing square number for a Position object.
+     */
+    public int toDisplayInt()
+    {
+    	return toInt() + 1;
+    }
+    
+}
\ No newline at end of file
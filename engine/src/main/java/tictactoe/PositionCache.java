@@ -0,0 +1,324 @@
+package tictactoe;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The PositionCache class is a TranspositionTable bounded by a memory cap, meant to be shared by every search in the process and kept across restarts.
+ * Slots are grouped into buckets of 4.  A position may use any slot of its bucket, and when the bucket is full the CLOCK algorithm picks the entry to evict:
+ * a hand sweeps the bucket, giving entries read since it last passed a second chance and evicting the first one that was not.
+ * Everything lives in primitive arrays allocated up front, so the cache creates no garbage and its heap use never grows.
+ * Probes take no lock (entries are checked with the key exclusive or trick of TranspositionTable); stores lock one of 64 stripes of buckets.
+ * The cache can be saved to a file and loaded back, and openShared sets up a process wide cache which is loaded on startup and saved on shutdown.
+ *
+ * File format: the 4 byte magic number "TTTC" and a version byte, followed by (key, entry) pairs of longs until the end of the file.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class PositionCache extends TranspositionTable
+{
+	/* Static fields */
+	static final int MAGIC = 0x54545443; // "TTTC"
+	static final int VERSION = 1;
+	private static final int WAYS = 4; // slots per bucket
+	private static final int STRIPES = 64; // locks guarding stores, a power of two
+	private static final int BYTES_PER_SLOT = 8 + 8 + 1; // key, entry and reference bit, ignoring the small hand array
+	private static final long DEFAULT_BYTES = 32L << 20;
+	private static final int BUFFER_SIZE = 65536;
+	private static PositionCache shared;
+
+	/* Instance variables */
+    private final byte[] referenced; // 1 if the slot was read or written since the clock hand last passed it
+    private final byte[] hands; // clock hand of each bucket, the next slot to consider for eviction
+    private final Object[] locks;
+    private final LongAdder evictions;
+
+    /**
+     * Constructor for a cache using at most a given amount of memory.
+     * 
+     * @param maxBytes memory cap in bytes.  The cache uses the largest power of two number of slots that fits.
+     */
+    public PositionCache(long maxBytes)
+    {
+        super(sizeBitsFor(maxBytes));
+        referenced = new byte[keys.length];
+        hands = new byte[keys.length / WAYS];
+        locks = new Object[STRIPES];
+        for(int i = 0; i < STRIPES; i++)
+            locks[i] = new Object();
+        evictions = new LongAdder();
+    }
+
+    /**
+     * @param maxBytes memory cap in bytes
+     * @return int base two logarithm of the number of slots fitting in maxBytes, at least one bucket
+     */
+    private static int sizeBitsFor(long maxBytes)
+    {
+        int bits = 2;
+        while(bits < 30 && (BYTES_PER_SLOT + 1.0 / WAYS) * (1L << (bits + 1)) <= maxBytes)
+            bits++;
+        return bits;
+    }
+
+    /**
+     * Returns the process wide cache, creating an in memory one with the default 32 MB cap if openShared has not been called.
+     * 
+     * @return PositionCache shared by every caller
+     */
+    public static synchronized PositionCache shared()
+    {
+        if(shared == null)
+            shared = new PositionCache(DEFAULT_BYTES);
+        return shared;
+    }
+
+    /**
+     * Creates the process wide cache, loading it from a file if one exists, and saves it back to the file when the JVM shuts down.
+     * 
+     * @param file Path of the cache file
+     * @param maxBytes memory cap in bytes
+     * @return PositionCache which shared() will return from now on
+     * @throws IOException if the file exists but cannot be read
+     * @throws IllegalStateException if the shared cache has already been created
+     */
+    public static synchronized PositionCache openShared(final Path file, long maxBytes) throws IOException
+    {
+        if(shared != null)
+            throw new IllegalStateException("Shared position cache already created");
+        final PositionCache cache = new PositionCache(maxBytes);
+        if(Files.exists(file))
+            cache.load(file);
+        Runtime.getRuntime().addShutdownHook(new Thread("position-cache-snapshot")
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    cache.save(file);
+                }
+                catch(IOException ioe)
+                {
+                    System.err.println("Could not save position cache: " + ioe.getMessage());
+                }
+            }
+        });
+        shared = cache;
+        return cache;
+    }
+
+    /**
+     * Looks up the entry stored for a position, marking it as recently used.
+     * 
+     * @param key position hash
+     * @return long entry, or 0 if the position is not in the cache
+     */
+    @Override
+    public long probe(long key)
+    {
+        int base = (int)key & mask & -WAYS;
+        for(int slot = base; slot < base + WAYS; slot++)
+        {
+            long entry = entries[slot];
+            if(entry != 0 && (keys[slot] ^ entry) == key)
+            {
+                if(referenced[slot] == 0)
+                    referenced[slot] = 1;
+                return entry;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores a search result for a position, replacing its old entry, filling an empty slot or evicting the entry chosen by the bucket's clock hand.
+     * 
+     * @param key position hash
+     * @param value value of the position
+     * @param flag EXACT, LOWER_BOUND or UPPER_BOUND
+     * @param depth number of moves searched below the position
+     * @param move best move found, or -1 if none
+     */
+    @Override
+    public void store(long key, int value, int flag, int depth, int move)
+    {
+        put(key, encode(value, flag, depth, move));
+    }
+
+    /**
+     * Stores an entry.
+     * 
+     * @param key position hash
+     * @param entry packed entry
+     */
+    private void put(long key, long entry)
+    {
+        int base = (int)key & mask & -WAYS;
+        synchronized(locks[(base / WAYS) & (STRIPES - 1)])
+        {
+            int target = -1;
+            for(int slot = base; slot < base + WAYS; slot++)
+            {
+                long old = entries[slot];
+                if(old != 0 && (keys[slot] ^ old) == key)
+                {
+                    target = slot; // same position
+                    break;
+                }
+                if(old == 0 && target < 0)
+                    target = slot;
+            }
+            if(target < 0)
+            {
+                // every slot holds another position: sweep the clock hand, clearing reference bits, until an entry without one is found
+                int bucket = base / WAYS;
+                int hand = hands[bucket];
+                while(referenced[base + hand] != 0)
+                {
+                    referenced[base + hand] = 0;
+                    hand = (hand + 1) & (WAYS - 1);
+                }
+                target = base + hand;
+                hands[bucket] = (byte)((hand + 1) & (WAYS - 1));
+                evictions.increment();
+            }
+            entries[target] = entry;
+            keys[target] = key ^ entry;
+            referenced[target] = 1;
+        }
+    }
+
+    /**
+     * Empties every slot.
+     */
+    @Override
+    public void clear()
+    {
+        for(int stripe = 0; stripe < STRIPES; stripe++)
+        {
+            synchronized(locks[stripe])
+            {
+                // buckets are striped by bucket number, so this stripe's buckets are every STRIPES-th one
+                for(int bucket = stripe; bucket < hands.length; bucket += STRIPES)
+                {
+                    int base = bucket * WAYS;
+                    Arrays.fill(entries, base, base + WAYS, 0);
+                    Arrays.fill(keys, base, base + WAYS, 0);
+                    Arrays.fill(referenced, base, base + WAYS, (byte)0);
+                    hands[bucket] = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of slots, the most positions the cache can hold.
+     * 
+     * @return int capacity
+     */
+    public int getCapacity()
+    {
+        return keys.length;
+    }
+
+    /**
+     * Counts the positions held.  This scans the whole cache.
+     * 
+     * @return int number of occupied slots
+     */
+    public int getSize()
+    {
+        int size = 0;
+        for(int slot = 0; slot < entries.length; slot++)
+            if(entries[slot] != 0)
+                size++;
+        return size;
+    }
+
+    /**
+     * Returns the number of entries evicted to make room for others.
+     * 
+     * @return long count of evictions
+     */
+    public long getEvictions()
+    {
+        return evictions.sum();
+    }
+
+    /**
+     * Writes every entry to a file while searches carry on.  The file is written under a temporary name and then moved into place,
+     * so a snapshot interrupted part way leaves the previous one intact.
+     * 
+     * @param file Path to write
+     * @throws IOException if writing fails
+     */
+    public void save(Path file) throws IOException
+    {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE)))
+        {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            for(int slot = 0; slot < entries.length; slot++)
+            {
+                long entry = entries[slot];
+                if(entry != 0)
+                {
+                    out.writeLong(keys[slot] ^ entry);
+                    out.writeLong(entry);
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Adds the entries of a file written by save.  The file may come from a cache of any size; if this one is smaller, entries are evicted as usual.
+     * 
+     * @param file Path to read
+     * @return int number of entries read
+     * @throws IOException if the file cannot be read or is not a position cache
+     */
+    public int load(Path file) throws IOException
+    {
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE)))
+        {
+            if(in.readInt() != MAGIC)
+                throw new IOException("Not a position cache: " + file);
+            int version = in.readUnsignedByte();
+            if(version != VERSION)
+                throw new IOException("Unsupported position cache version " + version);
+            int count = 0;
+            while(true)
+            {
+                long key;
+                long entry;
+                try
+                {
+                    key = in.readLong();
+                }
+                catch(EOFException eofe)
+                {
+                    return count;
+                }
+                entry = in.readLong();
+                if(entry != 0)
+                {
+                    put(key, entry);
+                    count++;
+                }
+            }
+        }
+    }
+}
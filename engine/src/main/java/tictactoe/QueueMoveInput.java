@@ -0,0 +1,80 @@
+package tictactoe;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * The QueueMoveInput class is an in memory input: other threads (or the same thread, ahead of time) add lines, and readLine takes them in order.
+ * Used to feed scripted move streams to a Game at full speed, for example in load tests.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class QueueMoveInput implements MoveInput
+{
+	/* Static fields */
+	private static final String END = new String("END"); // marks the end of input; compared by identity so no real line can match it
+
+	/* Instance variables */
+    private final BlockingQueue<String> lines;
+
+    /**
+     * Constructor for an empty, unbounded queue.
+     */
+    public QueueMoveInput()
+    {
+        lines = new LinkedBlockingQueue<String>();
+    }
+
+    /**
+     * Adds a line of input.
+     * 
+     * @param line line to add
+     */
+    public void add(String line)
+    {
+        lines.add(line);
+    }
+
+    /**
+     * Adds a move as a square number.
+     * 
+     * @param square square number as typed by a user, starting from 1
+     */
+    public void addMove(int square)
+    {
+        lines.add(Integer.toString(square));
+    }
+
+    /**
+     * Waits for the next line.
+     * 
+     * @return String line, or null once the queue has been closed and emptied
+     */
+    public String readLine()
+    {
+        try
+        {
+            String line = lines.take();
+            if(line == END)
+            {
+                lines.add(END); // keep returning end of input
+                return null;
+            }
+            return line;
+        }
+        catch(InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Ends the input.  Lines already added are still read first.
+     */
+    public void close()
+    {
+        lines.add(END);
+    }
+}
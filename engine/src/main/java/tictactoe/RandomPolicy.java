@@ -0,0 +1,51 @@
+package tictactoe;
+
+import java.util.SplittableRandom;
+
+/**
+ * The RandomPolicy class is a computer player which picks uniformly among the empty squares.
+ * Each RandomPolicy has its own random number generator, so it should not be shared between threads.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class RandomPolicy implements MovePolicy
+{
+	/* Instance variables */
+    private final SplittableRandom random;
+
+    /**
+     * Constructor for a RandomPolicy with an unpredictable seed.
+     */
+    public RandomPolicy()
+    {
+        random = new SplittableRandom();
+    }
+
+    /**
+     * Constructor for a RandomPolicy which plays the same moves every run.
+     *
+     * @param seed seed for the random number generator
+     */
+    public RandomPolicy(long seed)
+    {
+        random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Chooses a random empty square.
+     *
+     * @param board Board to choose a move on
+     * @return int square number of an empty square
+     */
+    public int chooseMove(Board board)
+    {
+        // pick the n-th empty square, counting only empty squares
+        int n = random.nextInt(board.getTotalSquares() - board.getMovesCounter());
+        for(int square = 0; ; square++)
+        {
+            if(!board.isSquareOccupied(square) && n-- == 0)
+                return square;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package tictactoe;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The ReaderMoveInput class reads input lines through a single BufferedReader kept open for the life of the input.
+ * Factory methods create inputs for the console, a file of pre-recorded moves and a socket.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class ReaderMoveInput implements MoveInput
+{
+	/* Static fields */
+	private static ReaderMoveInput console; // System.in can only have one reader, or each would buffer input away from the others
+
+	/* Instance variables */
+    private final BufferedReader reader;
+
+    /**
+     * Constructor wrapping any Reader.
+     * 
+     * @param in Reader to read lines from
+     */
+    public ReaderMoveInput(Reader in)
+    {
+        reader = in instanceof BufferedReader ? (BufferedReader)in : new BufferedReader(in);
+    }
+
+    /**
+     * Returns the input reading from the console (System.in).  Every caller gets the same input.
+     * 
+     * @return ReaderMoveInput for System.in
+     */
+    public static synchronized ReaderMoveInput console()
+    {
+        if(console == null)
+            console = new ReaderMoveInput(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        return console;
+    }
+
+    /**
+     * Returns an input reading a file of moves, one or more square numbers per line.
+     * 
+     * @param file Path of the file
+     * @return ReaderMoveInput for the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static ReaderMoveInput file(Path file) throws IOException
+    {
+        return new ReaderMoveInput(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns an input reading from a connected socket.
+     * 
+     * @param socket connected Socket
+     * @return ReaderMoveInput for the socket
+     * @throws IOException if the socket's input cannot be opened
+     */
+    public static ReaderMoveInput socket(Socket socket) throws IOException
+    {
+        return new ReaderMoveInput(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the next line.
+     * 
+     * @return String line, or null at the end of input
+     * @throws IOException if reading fails
+     */
+    public String readLine() throws IOException
+    {
+        return reader.readLine();
+    }
+
+    /**
+     * Closes the underlying reader.
+     * 
+     * @throws IOException if closing fails
+     */
+    public void close() throws IOException
+    {
+        reader.close();
+    }
+}
@@ -0,0 +1,73 @@
+package tictactoe;
+
+
+/**
+ * The RecoveredGame class holds a game which was still in progress when its MoveJournal was last closed or the process died:
+ * its journal id, a Board with its moves replayed, and which players the computer controlled.
+ * Pass it to MoveJournal.resume with a new Game on the board to carry on journaling the game under the same id.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class RecoveredGame
+{
+	/* Instance variables */
+    private final long id;
+    private final Board board;
+    private final boolean xComputer;
+    private final boolean oComputer;
+
+    /**
+     * Constructor for a RecoveredGame.
+     *
+     * @param id journal id of the game
+     * @param board Board holding the moves played so far
+     * @param xComputer true if X was controlled by the computer
+     * @param oComputer true if O was controlled by the computer
+     */
+    public RecoveredGame(long id, Board board, boolean xComputer, boolean oComputer)
+    {
+        this.id = id;
+        this.board = board;
+        this.xComputer = xComputer;
+        this.oComputer = oComputer;
+    }
+
+    /**
+     * @return long journal id of the game
+     */
+    public long getId()
+    {
+        return id;
+    }
+
+    /**
+     * @return Board holding the moves played so far
+     */
+    public Board getBoard()
+    {
+        return board;
+    }
+
+    /**
+     * Returns whether a player was controlled by the computer.
+     *
+     * @param p Player to check
+     * @return true if p's moves were chosen by a MovePolicy
+     */
+    public boolean isComputer(Player p)
+    {
+        return p == Player.X ? xComputer : (p == Player.O && oComputer);
+    }
+
+    /**
+     * Overriding toString method.
+     *
+     * @return String with the id, board size and number of moves
+     */
+    public String toString()
+    {
+        return "Game " + id + ": " + board.getLength() + "x" + board.getLength() + ", " + board.getWinLength() + " in a row, "
+            + board.getMovesCounter() + " moves";
+    }
+}
@@ -0,0 +1,40 @@
+package tictactoe;
+
+
+/**
+ * The ScriptedPolicy class plays a fixed list of moves, for replaying recorded games or testing.
+ * The script holds the moves of both players in order of play: the move played on a board is the script entry at the board's move counter,
+ * so the same ScriptedPolicy can play X and O.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class ScriptedPolicy implements MovePolicy
+{
+	/* Instance variables */
+    private final int[] moves;
+
+    /**
+     * Constructor for a ScriptedPolicy.
+     *
+     * @param moves square numbers of every move of the game in order of play, each between 0 and one less than the number of squares
+     */
+    public ScriptedPolicy(int[] moves)
+    {
+        this.moves = moves.clone();
+    }
+
+    /**
+     * Returns the scripted move for the board's move counter.
+     *
+     * @param board Board to choose a move on
+     * @return int square number from the script
+     */
+    public int chooseMove(Board board)
+    {
+        int index = board.getMovesCounter();
+        if(index >= moves.length)
+            throw new IllegalStateException("Script has no move " + (index + 1));
+        return moves[index];
+    }
+}
@@ -0,0 +1,270 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The SelfPlayTrainer class learns a ValueTable by playing games against itself with TD(0) learning.
+ * Each move is chosen greedily from the table, or at random with a small probability to keep exploring.
+ * When a game ends its positions are updated from last to first: the final position takes the result (1 for a win, 0.5 for a draw),
+ * and every earlier position moves towards one minus the value of the opponent's reply, skipping positions whose reply was a random move.
+ * Games are split across a fork-join pool as in Simulator.  Each worker thread owns its Board and history arrays,
+ * and all workers update the shared table with atomic compare and set.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class SelfPlayTrainer
+{
+	/* Static fields */
+	private static final int GAMES_PER_TASK = 4096; // batches smaller than this are played by a single task
+	private static final float DEFAULT_STEP = 0.1f;
+	private static final double DEFAULT_EXPLORATION = 0.1;
+	private static final long CHECKPOINT_INTERVAL = 1000000; // games between checkpoints in main
+	private static final long EVALUATION_GAMES = 100000;
+
+	/* Instance variables */
+    private final ValueTable table;
+    private final float step;
+    private final double exploration;
+    private final int parallelism;
+    private final SplittableRandom seeds;
+
+    /**
+     * Constructor for a trainer using the default learning rate and exploration rate and every available processor.
+     *
+     * @param table ValueTable to train
+     */
+    public SelfPlayTrainer(ValueTable table)
+    {
+        this(table, DEFAULT_STEP, DEFAULT_EXPLORATION, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for a trainer.
+     *
+     * @param table ValueTable to train
+     * @param step learning rate, the fraction of the error corrected by each update
+     * @param exploration probability of playing a random move instead of the best known one
+     * @param parallelism number of worker threads
+     */
+    public SelfPlayTrainer(ValueTable table, float step, double exploration, int parallelism)
+    {
+        this.table = table;
+        this.step = step;
+        this.exploration = exploration;
+        this.parallelism = parallelism;
+        seeds = new SplittableRandom();
+    }
+
+    /**
+     * Returns the table being trained.
+     *
+     * @return ValueTable updated by train
+     */
+    public ValueTable getTable()
+    {
+        return table;
+    }
+
+    /**
+     * Plays and learns from a batch of games.
+     *
+     * @param games number of games to play
+     * @return SimulationResult with the outcome counts of the training games
+     */
+    public SimulationResult train(long games)
+    {
+        final SplittableRandom workerSeeds = seeds.split();
+        ThreadLocal<Worker> workers = new ThreadLocal<Worker>()
+        {
+            @Override
+            protected Worker initialValue()
+            {
+                synchronized(workerSeeds)
+                {
+                    return new Worker(workerSeeds.split());
+                }
+            }
+        };
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try
+        {
+            return pool.invoke(new GamesTask(workers, games));
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays and learns from games, saving the table to a file after every checkpointInterval games and at the end.
+     *
+     * @param games number of games to play
+     * @param checkpoint Path to save the table to
+     * @param checkpointInterval games between checkpoints, at least 1
+     * @return SimulationResult with the outcome counts of the training games
+     * @throws IOException if a checkpoint cannot be written
+     * @throws IllegalArgumentException if checkpointInterval is not positive
+     */
+    public SimulationResult train(long games, Path checkpoint, long checkpointInterval) throws IOException
+    {
+        if(checkpointInterval < 1)
+            throw new IllegalArgumentException("Checkpoint interval must be positive");
+        SimulationResult total = new SimulationResult(0, 0, 0);
+        for(long played = 0; played < games; played += checkpointInterval)
+        {
+            total = total.combine(train(Math.min(checkpointInterval, games - played)));
+            table.save(checkpoint);
+        }
+        return total;
+    }
+
+    /**
+     * The Board, random number generator and game history owned by one worker thread.
+     */
+    private class Worker
+    {
+        private final Board board = new Board(table.getLength(), table.getWinLength());
+        private final SplittableRandom random;
+        private final long[] history; // hash of the position after each move
+        private final boolean[] explored; // whether each move was a random one
+
+        Worker(SplittableRandom random)
+        {
+            this.random = random;
+            history = new long[board.getTotalSquares()];
+            explored = new boolean[board.getTotalSquares()];
+        }
+
+        /**
+         * Plays one game and updates the table from it.
+         *
+         * @return Player who won, or Player.NONE for a draw
+         */
+        Player playGame()
+        {
+            board.reset();
+            Zobrist zobrist = table.getZobrist();
+            long hash = 0;
+            int moves = 0;
+            while(board.getHasWon() == Player.NONE && moves < board.getTotalSquares())
+            {
+                Player current = board.getCurrentPlayer();
+                int square;
+                explored[moves] = random.nextDouble() < exploration;
+                if(explored[moves])
+                    square = randomMove();
+                else
+                    square = LearnedPolicy.bestMove(table, board, hash);
+                hash ^= zobrist.key(square, current);
+                board.setSquare(square, current);
+                history[moves++] = hash;
+            }
+
+            Player winner = board.getHasWon();
+            table.setValue(history[moves - 1], winner == Player.NONE ? 0.5f : 1f);
+            for(int i = moves - 2; i >= 0; i--)
+            {
+                if(!explored[i + 1])
+                    table.update(history[i], 1 - table.getValue(history[i + 1]), step);
+            }
+            return winner;
+        }
+
+        /**
+         * @return int square number of a random empty square
+         */
+        private int randomMove()
+        {
+            int n = random.nextInt(board.getTotalSquares() - board.getMovesCounter());
+            for(int square = 0; ; square++)
+            {
+                if(!board.isSquareOccupied(square) && n-- == 0)
+                    return square;
+            }
+        }
+    }
+
+    /**
+     * Task playing a range of games, splitting it in half until it is small enough to play directly.
+     */
+    private class GamesTask extends RecursiveTask<SimulationResult>
+    {
+        private static final long serialVersionUID = 1L;
+        private final ThreadLocal<Worker> workers;
+        private final long games;
+
+        GamesTask(ThreadLocal<Worker> workers, long games)
+        {
+            this.workers = workers;
+            this.games = games;
+        }
+
+        @Override
+        protected SimulationResult compute()
+        {
+            if(games > GAMES_PER_TASK)
+            {
+                GamesTask first = new GamesTask(workers, games / 2);
+                GamesTask second = new GamesTask(workers, games - games / 2);
+                first.fork();
+                SimulationResult result = second.compute();
+                return result.combine(first.join());
+            }
+
+            Worker worker = workers.get();
+            long xWins = 0;
+            long oWins = 0;
+            long draws = 0;
+            for(long i = 0; i < games; i++)
+            {
+                Player winner = worker.playGame();
+                if(winner == Player.X)
+                    xWins++;
+                else if(winner == Player.O)
+                    oWins++;
+                else
+                    draws++;
+            }
+            return new SimulationResult(xWins, oWins, draws);
+        }
+    }
+
+    /**
+     * Trains a table, continuing from the file if it exists, then prints how the learned policy does against random play as X and as O.
+     *
+     * @param args number of games (default 1000000), optionally followed by board length and number in a row needed to win, then the table file (default values.tbl)
+     * @throws IOException if the table cannot be read or written
+     * @throws IllegalArgumentException if a board size is given which differs from that of the existing table
+     */
+    public static void main(String[] args) throws IOException
+    {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1000000;
+        int length = args.length > 2 ? Integer.parseInt(args[1]) : Board.getDefaultLength();
+        int winLength = args.length > 2 ? Integer.parseInt(args[2]) : Board.getDefaultLength();
+        Path file = Paths.get(args.length > 3 ? args[3] : "values.tbl");
+
+        ValueTable table = file.toFile().exists() ? ValueTable.load(file) : new ValueTable(length, winLength);
+        if(args.length > 2 && (table.getLength() != length || table.getWinLength() != winLength))
+            throw new IllegalArgumentException(file + " holds a table for a " + table.getLength() + "x" + table.getLength() + " board with "
+                    + table.getWinLength() + " in a row, not " + length + "x" + length + " with " + winLength);
+        SelfPlayTrainer trainer = new SelfPlayTrainer(table);
+        long start = System.nanoTime();
+        SimulationResult result = trainer.train(games, file, CHECKPOINT_INTERVAL);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println("Self play: " + result);
+        System.out.println(String.format("%.0f games per second, saved to %s", result.getGames() / seconds, file));
+
+        LearnedPolicy learned = new LearnedPolicy(table);
+        System.out.println("Learned X against random O: "
+                + new Simulator(table.getLength(), table.getWinLength(), () -> learned, RandomPolicy::new).run(EVALUATION_GAMES));
+        System.out.println("Random X against learned O: "
+                + new Simulator(table.getLength(), table.getWinLength(), RandomPolicy::new, () -> learned).run(EVALUATION_GAMES));
+    }
+}
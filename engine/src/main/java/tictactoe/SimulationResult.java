@@ -0,0 +1,83 @@
+package tictactoe;
+
+
+/**
+ * The SimulationResult class holds the outcome counts of a batch of games played by the Simulator.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class SimulationResult
+{
+	/* Instance variables */
+    private final long xWins;
+    private final long oWins;
+    private final long draws;
+
+    /**
+     * Constructor for a SimulationResult.
+     *
+     * @param xWins number of games won by X
+     * @param oWins number of games won by O
+     * @param draws number of games drawn
+     */
+    public SimulationResult(long xWins, long oWins, long draws)
+    {
+        this.xWins = xWins;
+        this.oWins = oWins;
+        this.draws = draws;
+    }
+
+    /**
+     * @return long number of games won by X
+     */
+    public long getXWins()
+    {
+        return xWins;
+    }
+
+    /**
+     * @return long number of games won by O
+     */
+    public long getOWins()
+    {
+        return oWins;
+    }
+
+    /**
+     * @return long number of games drawn
+     */
+    public long getDraws()
+    {
+        return draws;
+    }
+
+    /**
+     * @return long total number of games played
+     */
+    public long getGames()
+    {
+        return xWins + oWins + draws;
+    }
+
+    /**
+     * Adds the counts of two results.
+     *
+     * @param other SimulationResult to add to this one
+     * @return SimulationResult holding the sum of both results
+     */
+    public SimulationResult combine(SimulationResult other)
+    {
+        return new SimulationResult(xWins + other.xWins, oWins + other.oWins, draws + other.draws);
+    }
+
+    /**
+     * Overriding toString method.
+     *
+     * @return String listing the outcome counts
+     */
+    public String toString()
+    {
+        return "X wins: " + xWins + ", O wins: " + oWins + ", draws: " + draws;
+    }
+}
@@ -0,0 +1,208 @@
+package tictactoe;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The Simulator class plays large batches of games between two MovePolicy players with no console input or output.
+ * Games are split across a fork-join pool.  Each worker thread owns its own Board and MovePolicy objects, and each task counts
+ * its own outcomes which are summed as tasks join, so workers never write to shared state.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class Simulator
+{
+	/* Static fields */
+	private static final int GAMES_PER_TASK = 4096; // batches smaller than this are played by a single task
+
+	/* Instance variables */
+    private final int length;
+    private final int winLength;
+    private final Supplier<MovePolicy> xPolicies; // creates X's policy for each worker thread
+    private final Supplier<MovePolicy> oPolicies; // creates O's policy for each worker thread
+    private final int parallelism;
+    private GameMetrics metrics; // receives move and outcome metrics, or null
+
+    /**
+     * Constructor for a Simulator using every available processor.
+     *
+     * @param length length of a side of the board
+     * @param winLength number of squares in a row needed to win
+     * @param xPolicies creates a MovePolicy for X, called once per worker thread
+     * @param oPolicies creates a MovePolicy for O, called once per worker thread
+     */
+    public Simulator(int length, int winLength, Supplier<MovePolicy> xPolicies, Supplier<MovePolicy> oPolicies)
+    {
+        this(length, winLength, xPolicies, oPolicies, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for a Simulator using a given number of worker threads.
+     *
+     * @param length length of a side of the board
+     * @param winLength number of squares in a row needed to win
+     * @param xPolicies creates a MovePolicy for X, called once per worker thread
+     * @param oPolicies creates a MovePolicy for O, called once per worker thread
+     * @param parallelism number of worker threads
+     */
+    public Simulator(int length, int winLength, Supplier<MovePolicy> xPolicies, Supplier<MovePolicy> oPolicies, int parallelism)
+    {
+        this.length = length;
+        this.winLength = winLength;
+        this.xPolicies = xPolicies;
+        this.oPolicies = oPolicies;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets metrics for later runs.  Each worker's board reports its moves, and each task adds its outcome counts once when it finishes.
+     *
+     * @param m GameMetrics to report to, or null to stop reporting
+     */
+    public void setMetrics(GameMetrics m)
+    {
+        metrics = m;
+    }
+
+    /**
+     * Plays a batch of games.
+     *
+     * @param games number of games to play
+     * @return SimulationResult with the outcome counts
+     */
+    public SimulationResult run(long games)
+    {
+        ThreadLocal<Worker> workers = new ThreadLocal<Worker>()
+        {
+            @Override
+            protected Worker initialValue()
+            {
+                return new Worker();
+            }
+        };
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try
+        {
+            return pool.invoke(new GamesTask(workers, games));
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays a single game to the end on a board.
+     *
+     * @param board empty Board to play on
+     * @param x MovePolicy choosing X's moves
+     * @param o MovePolicy choosing O's moves
+     * @return Player who won, or Player.NONE for a draw
+     */
+    public static Player playGame(Board board, MovePolicy x, MovePolicy o)
+    {
+        while(board.getHasWon() == Player.NONE && board.getMovesCounter() < board.getTotalSquares())
+        {
+            Player current = board.getCurrentPlayer();
+            int square = (current == Player.X ? x : o).chooseMove(board);
+            if(square < 0 || square >= board.getTotalSquares() || board.isSquareOccupied(square))
+                throw new IllegalStateException("Player " + current.name() + " chose illegal square " + square);
+            board.setSquare(square, current);
+        }
+        return board.getHasWon();
+    }
+
+    /**
+     * The Board and policies owned by one worker thread.
+     */
+    private class Worker
+    {
+        private final Board board = new Board(length, winLength);
+        private final MovePolicy x = xPolicies.get();
+        private final MovePolicy o = oPolicies.get();
+
+        Worker()
+        {
+            board.setMetrics(metrics);
+        }
+    }
+
+    /**
+     * Task playing a range of games, splitting it in half until it is small enough to play directly.
+     */
+    private class GamesTask extends RecursiveTask<SimulationResult>
+    {
+        private static final long serialVersionUID = 1L;
+        private final ThreadLocal<Worker> workers;
+        private final long games;
+
+        GamesTask(ThreadLocal<Worker> workers, long games)
+        {
+            this.workers = workers;
+            this.games = games;
+        }
+
+        @Override
+        protected SimulationResult compute()
+        {
+            if(games > GAMES_PER_TASK)
+            {
+                GamesTask first = new GamesTask(workers, games / 2);
+                GamesTask second = new GamesTask(workers, games - games / 2);
+                first.fork();
+                SimulationResult result = second.compute();
+                return result.combine(first.join());
+            }
+
+            Worker worker = workers.get();
+            long xWins = 0;
+            long oWins = 0;
+            long draws = 0;
+            for(long i = 0; i < games; i++)
+            {
+                worker.board.reset();
+                Player winner = playGame(worker.board, worker.x, worker.o);
+                if(winner == Player.X)
+                    xWins++;
+                else if(winner == Player.O)
+                    oWins++;
+                else
+                    draws++;
+            }
+            if(metrics != null)
+            {
+                metrics.recordGames(Player.X, xWins);
+                metrics.recordGames(Player.O, oWins);
+                metrics.recordGames(Player.NONE, draws);
+            }
+            return new SimulationResult(xWins, oWins, draws);
+        }
+    }
+
+    /**
+     * Plays random games and prints the outcome counts and games per second.
+     *
+     * @param args number of games (default 1000000), optionally followed by board length and number in a row needed to win
+     */
+    public static void main(String[] args)
+    {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1000000;
+        int length = args.length > 2 ? Integer.parseInt(args[1]) : Board.getDefaultLength();
+        int winLength = args.length > 2 ? Integer.parseInt(args[2]) : Board.getDefaultLength();
+        Supplier<MovePolicy> random = RandomPolicy::new;
+        Simulator simulator = new Simulator(length, winLength, random, random);
+        GameMetrics metrics = new GameMetrics();
+        simulator.setMetrics(metrics);
+        metrics.startReporting(1, TimeUnit.SECONDS, System.out);
+
+        long start = System.nanoTime();
+        SimulationResult result = simulator.run(games);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        metrics.stopReporting();
+        System.out.println(result);
+        System.out.println(String.format("%.0f games per second", result.getGames() / seconds));
+    }
+}
@@ -0,0 +1,242 @@
+package tictactoe;
+
+
+/**
+ * The Solver class is a computer player which plays perfectly using negamax search with alpha-beta pruning.
+ * Search results are kept in a TranspositionTable keyed by Zobrist hash.  Before probing, each position is reduced to the smallest of the hashes of its 8 rotations and reflections,
+ * so a result found for one orientation of a position is reused for all of them.
+ * Values are from the point of view of the player to move: positive if they win, negative if they lose and 0 for a draw, with quicker wins scoring higher.
+ * A Solver is not thread safe, but several Solvers on different threads may share one TranspositionTable.
+ * Keys are salted with the number in a row needed to win, so boards of the same size with different rules can share a table too.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class Solver implements MovePolicy
+{
+	/* Static fields */
+	private static final long SALT_MULTIPLIER = 0x9E3779B97F4A7C15L; // spreads win lengths across the key bits
+	private static final int INFINITY = Short.MAX_VALUE;
+
+	/* Instance variables */
+    private final TranspositionTable table;
+    private final int maxDepth; // number of moves to search ahead.  Positions past this depth are scored as draws.
+
+    private Board board; // board being searched
+    private Symmetry symmetry;
+    private Zobrist zobrist;
+    private long salt; // mixed into every key, different for each win length
+    private final long[] hashes; // hashes[t] is the hash of the board transformed by symmetry t
+    private int rootMovesCount;
+    private int rootBestMove;
+    private long nodeCount;
+
+    /**
+     * Constructor for a Solver which searches to the end of the game, using the process wide PositionCache so positions solved by earlier games are not solved again.
+     */
+    public Solver()
+    {
+        this(PositionCache.shared(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructor for a Solver using a shared table and a limited search depth, for boards too large to search to the end.
+     *
+     * @param table TranspositionTable to store search results in
+     * @param maxDepth number of moves to search ahead of the position
+     */
+    public Solver(TranspositionTable table, int maxDepth)
+    {
+        this.table = table;
+        this.maxDepth = maxDepth;
+        hashes = new long[Symmetry.getCount()];
+    }
+
+    /**
+     * Returns the number of positions searched since the Solver was created.
+     *
+     * @return long count of positions searched
+     */
+    public long getNodeCount()
+    {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the best move found by the last call to chooseMove or evaluate.
+     *
+     * @return int square number, or -1 if the game in the last position searched was already over
+     */
+    public int getBestMove()
+    {
+        return rootBestMove;
+    }
+
+    /**
+     * Chooses the best move for the player to move.
+     *
+     * @param b Board to choose a move on
+     * @return int square number of the best move
+     */
+    public int chooseMove(Board b)
+    {
+        search(b);
+        return rootBestMove;
+    }
+
+    /**
+     * Solves a position.
+     *
+     * @param b Board holding the position to solve
+     * @return int value of the position for the player to move: positive for a win, negative for a loss, 0 for a draw
+     */
+    public int evaluate(Board b)
+    {
+        return search(b);
+    }
+
+    /**
+     * Sets up the hashes for a board and searches it.
+     *
+     * @param b Board to search
+     * @return value of the position for the player to move
+     */
+    private int search(Board b)
+    {
+        board = b;
+        symmetry = Symmetry.forLength(b.getLength());
+        zobrist = Zobrist.forLength(b.getLength());
+        salt = b.getWinLength() * SALT_MULTIPLIER;
+        for(int t = 0; t < hashes.length; t++)
+        {
+            hashes[t] = 0;
+            for(int square = 0; square < b.getTotalSquares(); square++)
+                hashes[t] ^= zobrist.key(symmetry.map(t, square), b.getSquare(square));
+        }
+        rootMovesCount = b.getMovesCounter();
+        rootBestMove = -1;
+        int value = negamax(maxDepth, -INFINITY, INFINITY);
+        board = null;
+        return value;
+    }
+
+    /**
+     * Negamax search with alpha-beta pruning.
+     *
+     * @param depth number of moves left to search
+     * @param alpha value the player to move is already guaranteed
+     * @param beta value the opponent is already guaranteed (negated)
+     * @return value of the position for the player to move, exact if between alpha and beta, otherwise a bound
+     */
+    private int negamax(int depth, int alpha, int beta)
+    {
+        nodeCount++;
+        int movesCount = board.getMovesCounter();
+        int totalSquares = board.getTotalSquares();
+
+        // The previous move won the game, so the player to move has lost.  Losing later is better than losing sooner.
+        if(board.getHasWon() != Player.NONE)
+            return -(totalSquares - movesCount + 1);
+        if(movesCount == totalSquares)
+            return 0;
+        depth = Math.min(depth, totalSquares - movesCount);
+        if(depth == 0)
+            return 0;
+
+        // Reduce the position by symmetry: use the transform giving the smallest hash
+        int canonical = 0;
+        for(int t = 1; t < hashes.length; t++)
+            if(hashes[t] < hashes[canonical])
+                canonical = t;
+        long key = hashes[canonical] ^ salt;
+
+        boolean isRoot = movesCount == rootMovesCount;
+        int originalAlpha = alpha;
+        int tableMove = -1;
+        long entry = table.probe(key);
+        if(entry != 0)
+        {
+            // stored moves are in the canonical orientation, so map them back onto this board
+            int storedMove = TranspositionTable.getMove(entry);
+            if(storedMove >= 0 && storedMove < totalSquares)
+                tableMove = symmetry.map(symmetry.inverse(canonical), storedMove);
+            if(!isRoot && TranspositionTable.getDepth(entry) >= depth)
+            {
+                int value = TranspositionTable.getValue(entry);
+                int flag = TranspositionTable.getFlag(entry);
+                if(flag == TranspositionTable.EXACT)
+                    return value;
+                else if(flag == TranspositionTable.LOWER_BOUND)
+                    alpha = Math.max(alpha, value);
+                else if(flag == TranspositionTable.UPPER_BOUND)
+                    beta = Math.min(beta, value);
+                if(alpha >= beta)
+                    return value;
+            }
+        }
+
+        Player current = board.getCurrentPlayer();
+        int bestValue = -INFINITY;
+        int bestMove = -1;
+        // Try the move from the table first as it is the most likely to cause a cutoff, then every other empty square
+        for(int i = -1; i < totalSquares; i++)
+        {
+            int move = i < 0 ? tableMove : i;
+            if(move < 0 || (i >= 0 && move == tableMove) || board.isSquareOccupied(move))
+                continue;
+
+            makeMove(move, current);
+            int value = -negamax(depth - 1, -beta, -alpha);
+            unmakeMove(move, current);
+
+            if(value > bestValue)
+            {
+                bestValue = value;
+                bestMove = move;
+            }
+            if(value > alpha)
+                alpha = value;
+            if(alpha >= beta)
+                break;
+        }
+
+        int flag;
+        if(bestValue <= originalAlpha)
+            flag = TranspositionTable.UPPER_BOUND;
+        else if(bestValue >= beta)
+            flag = TranspositionTable.LOWER_BOUND;
+        else
+            flag = TranspositionTable.EXACT;
+        table.store(key, bestValue, flag, depth, symmetry.map(canonical, bestMove));
+
+        if(isRoot)
+            rootBestMove = bestMove;
+        return bestValue;
+    }
+
+    /**
+     * Makes a move on the board and updates the hash of every orientation.
+     *
+     * @param square square number
+     * @param value Player moving
+     */
+    private void makeMove(int square, Player value)
+    {
+        board.setSquare(square, value);
+        for(int t = 0; t < hashes.length; t++)
+            hashes[t] ^= zobrist.key(symmetry.map(t, square), value);
+    }
+
+    /**
+     * Undoes a move made with makeMove.
+     *
+     * @param square square number
+     * @param value Player who moved
+     */
+    private void unmakeMove(int square, Player value)
+    {
+        board.unmakeMove(square);
+        for(int t = 0; t < hashes.length; t++)
+            hashes[t] ^= zobrist.key(symmetry.map(t, square), value);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package tictactoe;
+
+
+/**
+ * The Spectator class follows one game through its SpectatorHub.  It only holds its position in the hub's ring of moves,
+ * so a spectator costs a few words of memory and reading moves never blocks the game.
+ * Call poll to read the moves published since the last call.  When poll returns SpectatorHub.RESYNC, because the spectator is new or fell
+ * further behind than the ring holds, call resync to get the latest position and carry on polling from there.
+ * A Spectator is not thread safe, but different spectators of a hub may be read on different threads.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class Spectator
+{
+	/* Static fields */
+	private static final Player[] PLAYERS = Player.values();
+
+	/* Instance variables */
+    private final SpectatorHub hub;
+    private long next; // number of the next move to read, or -1 before the first resync
+    private boolean closed;
+
+    /**
+     * Constructor for a spectator which has not yet seen the game.  Use SpectatorHub.subscribe.
+     *
+     * @param hub SpectatorHub of the game
+     */
+    Spectator(SpectatorHub hub)
+    {
+        this.hub = hub;
+        next = -1;
+    }
+
+    /**
+     * Reads the moves published since the last poll or resync, up to the length of the arrays.
+     *
+     * @param squares array receiving the square number of each move
+     * @param players array receiving the Player of each move, as long as squares
+     * @return int number of moves read, or SpectatorHub.RESYNC if resync must be called first
+     */
+    public int poll(int[] squares, Player[] players)
+    {
+        if(next < 0)
+            return SpectatorHub.RESYNC;
+        long end = hub.getPublishedCount();
+        if(end - next > hub.getCapacity())
+        {
+            hub.countResync();
+            return SpectatorHub.RESYNC;
+        }
+        int count = 0;
+        long move = next;
+        while(move < end && count < squares.length)
+        {
+            long slot = hub.slot(move);
+            if(SpectatorHub.sequenceOf(slot) != move)
+            {
+                // overwritten by a newer move while reading
+                hub.countResync();
+                return SpectatorHub.RESYNC;
+            }
+            squares[count] = SpectatorHub.squareOf(slot);
+            players[count] = PLAYERS[SpectatorHub.playerOf(slot)];
+            count++;
+            move++;
+        }
+        next = move;
+        return count;
+    }
+
+    /**
+     * Catches up with the game.  Moves published after the snapshot are returned by the following polls.
+     *
+     * @return BoardSnapshot of the latest position
+     */
+    public BoardSnapshot resync()
+    {
+        BoardSnapshot snapshot = hub.getSnapshot();
+        next = snapshot.getMovesCounter();
+        return snapshot;
+    }
+
+    /**
+     * Returns whether there are moves to read.
+     *
+     * @return true if poll would return moves or ask for a resync
+     */
+    public boolean hasUpdate()
+    {
+        return next < 0 || next < hub.getPublishedCount();
+    }
+
+    /**
+     * Returns whether the spectator has seen the whole game.
+     *
+     * @return true if the game has ended and every move has been read
+     */
+    public boolean isFinished()
+    {
+        return hub.isFinished() && next >= hub.getPublishedCount();
+    }
+
+    /**
+     * @return SpectatorHub of the game
+     */
+    public SpectatorHub getHub()
+    {
+        return hub;
+    }
+
+    /**
+     * Stops following the game.
+     */
+    public void close()
+    {
+        if(!closed)
+        {
+            closed = true;
+            hub.unsubscribe();
+        }
+    }
+}
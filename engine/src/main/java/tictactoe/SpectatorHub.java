@@ -0,0 +1,281 @@
+package tictactoe;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The SpectatorHub class broadcasts the moves of one game to any number of Spectators.
+ * Each move is published once, as a delta of the square and the player, into a bounded ring shared by every spectator;
+ * a spectator only holds its position in the ring, so publishing costs the same whether a game has one watcher or a hundred thousand,
+ * and the game never waits for a watcher.  Spectators read the ring at their own pace from any thread.
+ * A spectator which falls further behind than the ring holds is not sent the moves it missed: it is told to resync,
+ * and catches up in one step from the hub's latest BoardSnapshot.  New spectators start from the snapshot too.
+ * Register the hub as a GameListener on its game, or call publish directly.  Moves must be published from one thread at a time,
+ * which a Game guarantees by calling its listeners while holding its lock.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class SpectatorHub implements GameListener
+{
+	/* Static fields */
+	public static final int RESYNC = -1; // returned by Spectator.poll when the spectator has to catch up from a snapshot
+	public static final int DEFAULT_CAPACITY = 64; // moves kept in the ring
+	private static final int SEQUENCE_SHIFT = 24; // ring slots hold the move number above the square and player
+	private static final int SQUARE_SHIFT = 8;
+
+	/* Instance variables */
+    private final AtomicLongArray ring; // ring[n & mask] holds move n: n << 24 | square << 8 | player ordinal
+    private final int mask;
+    private volatile BoardSnapshot latest; // position after every published move
+    private volatile long published; // number of moves on the board, the next move number to publish
+    private volatile boolean finished;
+    private final AtomicInteger spectators;
+    private final LongAdder resyncs;
+
+    /**
+     * Constructor for a hub with a ring of DEFAULT_CAPACITY moves.
+     *
+     * @param board Board of the game to broadcast, holding its position so far
+     */
+    public SpectatorHub(Board board)
+    {
+        this(board, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor for a hub.
+     *
+     * @param board Board of the game to broadcast, holding its position so far
+     * @param capacity moves kept for spectators which fall behind, rounded up to a power of two
+     */
+    public SpectatorHub(Board board, int capacity)
+    {
+        if(capacity < 1)
+            throw new IllegalArgumentException("Capacity must be positive");
+        int size = Integer.highestOneBit(capacity);
+        if(size < capacity)
+            size <<= 1;
+        ring = new AtomicLongArray(size);
+        mask = size - 1;
+        latest = board.snapshot();
+        published = board.getMovesCounter();
+        finished = latest.isOver();
+        spectators = new AtomicInteger();
+        resyncs = new LongAdder();
+    }
+
+    /**
+     * Adds a spectator.  Its first poll asks it to resync, which gives it the latest position.
+     *
+     * @return Spectator reading this hub
+     */
+    public Spectator subscribe()
+    {
+        spectators.incrementAndGet();
+        return new Spectator(this);
+    }
+
+    /**
+     * Publishes a move to every spectator.
+     *
+     * @param square square number of the move
+     * @param player Player who moved
+     * @throws IllegalArgumentException if the move cannot be played in the hub's position
+     */
+    public void publish(int square, Player player)
+    {
+        BoardSnapshot next = latest;
+        if(player != next.getCurrentPlayer())
+            throw new IllegalArgumentException("Player " + player.name() + " is not to move");
+        next = next.withMove(square);
+        long move = published;
+        ring.lazySet((int)move & mask, move << SEQUENCE_SHIFT | (long)square << SQUARE_SHIFT | player.ordinal());
+        latest = next;
+        published = move + 1; // volatile write, making the slot and snapshot visible to spectators
+        if(next.isOver())
+            finished = true;
+    }
+
+    /**
+     * Returns the position after every move published so far.
+     *
+     * @return BoardSnapshot of the game
+     */
+    public BoardSnapshot getSnapshot()
+    {
+        return latest;
+    }
+
+    /**
+     * @return long number of moves on the board, including any played before the hub was created
+     */
+    public long getPublishedCount()
+    {
+        return published;
+    }
+
+    /**
+     * @return true once the game has ended; no more moves will be published
+     */
+    public boolean isFinished()
+    {
+        return finished;
+    }
+
+    /**
+     * @return int number of spectators subscribed and not closed
+     */
+    public int getSpectatorCount()
+    {
+        return spectators.get();
+    }
+
+    /**
+     * @return long number of times a spectator fell too far behind and had to resync
+     */
+    public long getResyncCount()
+    {
+        return resyncs.sum();
+    }
+
+    /**
+     * @return int number of moves kept in the ring
+     */
+    int getCapacity()
+    {
+        return mask + 1;
+    }
+
+    /**
+     * @param move move number
+     * @return long ring slot which holds the move, unless it has been overwritten
+     */
+    long slot(long move)
+    {
+        return ring.get((int)move & mask);
+    }
+
+    /**
+     * Counts a spectator which has to resync after falling behind.
+     */
+    void countResync()
+    {
+        resyncs.increment();
+    }
+
+    /**
+     * Removes a closed spectator from the count.
+     */
+    void unsubscribe()
+    {
+        spectators.decrementAndGet();
+    }
+
+    /**
+     * @param slot ring slot
+     * @return long move number held in the slot
+     */
+    static long sequenceOf(long slot)
+    {
+        return slot >>> SEQUENCE_SHIFT;
+    }
+
+    /**
+     * @param slot ring slot
+     * @return int square number held in the slot
+     */
+    static int squareOf(long slot)
+    {
+        return (int)(slot >>> SQUARE_SHIFT) & ((1 << (SEQUENCE_SHIFT - SQUARE_SHIFT)) - 1);
+    }
+
+    /**
+     * @param slot ring slot
+     * @return int ordinal of the Player held in the slot
+     */
+    static int playerOf(long slot)
+    {
+        return (int)slot & ((1 << SQUARE_SHIFT) - 1);
+    }
+
+    /* Listener methods */
+
+    /**
+     * Publishes the move.
+     */
+    public void onMoveMade(Game g, Player player, int square)
+    {
+        publish(square, player);
+    }
+
+    /**
+     * Marks the broadcast finished.
+     */
+    public void onGameQuit(Game g)
+    {
+        finished = true;
+    }
+
+    /**
+     * Broadcasts random games on a 19x19 board to many spectators, some of which read slowly, and prints the delivery rate.
+     *
+     * @param args optional number of spectators (default 100000) and number of games (default 20)
+     */
+    public static void main(String[] args)
+    {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        SplittableRandom random = new SplittableRandom(1);
+        int[] squares = new int[DEFAULT_CAPACITY];
+        Player[] players = new Player[DEFAULT_CAPACITY];
+        long delivered = 0;
+        long resynced = 0;
+        long moves = 0;
+        long publishNanos = 0;
+        long start = System.nanoTime();
+        for(int game = 0; game < games; game++)
+        {
+            Board board = new Board(19, 5);
+            SpectatorHub hub = new SpectatorHub(board);
+            Spectator[] watchers = new Spectator[count];
+            for(int i = 0; i < count; i++)
+                watchers[i] = hub.subscribe();
+            while(board.getHasWon() == Player.NONE && board.getMovesCounter() < board.getTotalSquares())
+            {
+                int square;
+                do
+                {
+                    square = random.nextInt(board.getTotalSquares());
+                }
+                while(board.isSquareOccupied(square));
+                Player player = board.getCurrentPlayer();
+                board.setSquare(square, player);
+                long before = System.nanoTime();
+                hub.publish(square, player);
+                publishNanos += System.nanoTime() - before;
+                moves++;
+
+                // every tenth spectator only reads once in a hundred moves, so it overflows the ring and resyncs
+                for(int i = 0; i < count; i++)
+                {
+                    if(i % 10 == 0 && random.nextInt(100) != 0)
+                        continue;
+                    int n = watchers[i].poll(squares, players);
+                    if(n == RESYNC)
+                    {
+                        watchers[i].resync();
+                        resynced++;
+                    }
+                    else
+                        delivered += n;
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format("%d spectators, %d games: %d moves delivered and %d resyncs in %.3f seconds (%.0f deliveries per second), %.0f ns per publish",
+            count, games, delivered, resynced, seconds, (delivered + resynced) / seconds, (double)publishNanos / moves));
+    }
+}
@@ -0,0 +1,105 @@
+package tictactoe;
+
+
+/**
+ * The Standing class is one line of a tournament table: an entrant's results so far and its Elo rating with a 95% confidence interval.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class Standing
+{
+	/* Instance variables */
+    private final String name;
+    private final int wins;
+    private final int losses;
+    private final int draws;
+    private final double rating;
+    private final double margin;
+
+    /**
+     * Constructor for a Standing.
+     *
+     * @param name entrant's name
+     * @param wins games won
+     * @param losses games lost
+     * @param draws games drawn
+     * @param rating Elo rating
+     * @param margin half the width of the 95% confidence interval of the rating
+     */
+    public Standing(String name, int wins, int losses, int draws, double rating, double margin)
+    {
+        this.name = name;
+        this.wins = wins;
+        this.losses = losses;
+        this.draws = draws;
+        this.rating = rating;
+        this.margin = margin;
+    }
+
+    /**
+     * @return String entrant's name
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * @return int games won
+     */
+    public int getWins()
+    {
+        return wins;
+    }
+
+    /**
+     * @return int games lost
+     */
+    public int getLosses()
+    {
+        return losses;
+    }
+
+    /**
+     * @return int games drawn
+     */
+    public int getDraws()
+    {
+        return draws;
+    }
+
+    /**
+     * @return double points scored, counting a draw as half a win
+     */
+    public double getScore()
+    {
+        return wins + 0.5 * draws;
+    }
+
+    /**
+     * @return double Elo rating, with the field averaging 1500
+     */
+    public double getRating()
+    {
+        return rating;
+    }
+
+    /**
+     * @return double half the width of the 95% confidence interval of the rating
+     */
+    public double getMargin()
+    {
+        return margin;
+    }
+
+    /**
+     * Overriding toString method.
+     *
+     * @return String table line with the name, rating and interval, score and results
+     */
+    public String toString()
+    {
+        return String.format("%-20s %6.0f +/- %-4.0f %7.1f  (+%d =%d -%d)", name, rating, margin, getScore(), wins, draws, losses);
+    }
+}
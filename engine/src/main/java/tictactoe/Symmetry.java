@@ -0,0 +1,309 @@
+package tictactoe;
+
+import java.util.Arrays;
+
+/**
+ * The Symmetry class holds the square permutations of the 8 symmetries of a square board (4 rotations, each with or without a reflection).
+ * Positions which are rotations or reflections of each other have the same game value, so search code reduces positions by these symmetries.
+ * Tables are built once per board length and shared, as they are never modified.
+ *
+ * Positions can also be reduced to a canonical form, the smallest encoding over the 8 symmetries, working directly on the bitmasks used by
+ * BoardSnapshot.  For boards of up to 32 squares each symmetry also has a lookup table per byte of a bitmask, giving the bits that byte's squares
+ * move to, so a whole bitmask is mapped with one lookup per 8 squares.  Larger boards are mapped one stone at a time.
+ * Canonicalizing returns the transform used as well as the canonical position: a move m on the original board is square map(t, m) on the
+ * canonical board, and a move c found on the canonical board is square map(inverse(t), c) on the original.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class Symmetry
+{
+	/* Static fields */
+	private static final int COUNT = 8; // number of symmetries of a square
+	private static final int MAX_CACHED_LENGTH = 64;
+	private static final Symmetry[] CACHE = new Symmetry[MAX_CACHED_LENGTH + 1];
+	private static final int PACKED_SQUARES = 32; // largest board whose bitmasks fit in an int, with the O bitmask in the high half of a packed long
+	private static final int CHUNK_BITS = 8; // squares per lookup
+	private static final int TRANSFORM_SHIFT = 61; // canonicalPacked holds the transform above the packed position
+	private static final long KEY_MASK = (1L << TRANSFORM_SHIFT) - 1;
+	private static final int WORD_SIZE = 64;
+
+	/* Instance variables */
+    private final int length;
+    private final int[][] map; // map[t][square] is the square that square moves to under symmetry t
+    private final int[] inverse; // inverse[t] is the symmetry that undoes symmetry t
+    private final int[][][] chunkMaps; // chunkMaps[t][c][b] is the bitmask squares 8c to 8c+7 move to under t when they hold bits b, or null for boards over 32 squares
+
+    /**
+     * Constructor building the permutation tables for a board length.
+     * 
+     * @param length length of a side of the board
+     */
+    private Symmetry(int length)
+    {
+        this.length = length;
+        int squares = length * length;
+        map = new int[COUNT][squares];
+        int last = length - 1;
+        for(int row = 0; row < length; row++)
+        {
+            for(int col = 0; col < length; col++)
+            {
+                int square = row * length + col;
+                map[0][square] = square; // identity
+                map[1][square] = col * length + (last - row); // rotate 90 degrees clockwise
+                map[2][square] = (last - row) * length + (last - col); // rotate 180 degrees
+                map[3][square] = (last - col) * length + row; // rotate 270 degrees clockwise
+                map[4][square] = row * length + (last - col); // reflect left to right
+                map[5][square] = col * length + row; // reflect through "back slash" diagonal
+                map[6][square] = (last - row) * length + col; // reflect top to bottom
+                map[7][square] = (last - col) * length + (last - row); // reflect through "forward slash" diagonal
+            }
+        }
+
+        inverse = new int[COUNT];
+        for(int t = 0; t < COUNT; t++)
+        {
+            for(int u = 0; u < COUNT; u++)
+            {
+                if(isInverse(t, u))
+                    inverse[t] = u;
+            }
+        }
+
+        if(squares <= PACKED_SQUARES)
+        {
+            int chunks = (squares + CHUNK_BITS - 1) / CHUNK_BITS;
+            chunkMaps = new int[COUNT][chunks][1 << CHUNK_BITS];
+            for(int t = 0; t < COUNT; t++)
+            {
+                for(int c = 0; c < chunks; c++)
+                {
+                    int[] table = chunkMaps[t][c];
+                    for(int bits = 1; bits < table.length; bits++)
+                    {
+                        // each entry adds the lowest square to the entry without it
+                        int square = c * CHUNK_BITS + Integer.numberOfTrailingZeros(bits);
+                        table[bits] = table[bits & (bits - 1)] | (square < squares ? 1 << map[t][square] : 0);
+                    }
+                }
+            }
+        }
+        else
+            chunkMaps = null;
+    }
+
+    /**
+     * Checks if symmetry u undoes symmetry t on every square.
+     *
+     * @param t symmetry number
+     * @param u candidate inverse symmetry number
+     * @return true if u maps every square moved by t back to where it started
+     */
+    private boolean isInverse(int t, int u)
+    {
+        for(int square = 0; square < length * length; square++)
+            if(map[u][map[t][square]] != square)
+                return false;
+        return true;
+    }
+
+    /**
+     * Returns the symmetry tables for a board length.
+     * 
+     * @param length length of a side of the board
+     * @return Symmetry for the board length
+     */
+    public static Symmetry forLength(int length)
+    {
+        if(length > MAX_CACHED_LENGTH)
+            return new Symmetry(length);
+        synchronized(CACHE)
+        {
+            if(CACHE[length] == null)
+                CACHE[length] = new Symmetry(length);
+            return CACHE[length];
+        }
+    }
+
+    /**
+     * Returns the number of symmetries.
+     * 
+     * @return 8
+     */
+    public static int getCount()
+    {
+        return COUNT;
+    }
+
+    /**
+     * Returns the length of a side of the board these tables are for.
+     * 
+     * @return int length of a side of the board
+     */
+    public int getLength()
+    {
+        return length;
+    }
+
+    /**
+     * Maps a square through a symmetry.
+     * 
+     * @param t symmetry number between 0 and 7, where 0 is the identity
+     * @param square square number to map
+     * @return square number the square moves to under the symmetry
+     */
+    public int map(int t, int square)
+    {
+        return map[t][square];
+    }
+
+    /**
+     * Returns the symmetry which undoes a symmetry, used to map a move found on a transformed board back onto the original board.
+     * 
+     * @param t symmetry number between 0 and 7
+     * @return symmetry number of the inverse
+     */
+    public int inverse(int t)
+    {
+        return inverse[t];
+    }
+
+    /**
+     * Maps a bitmask of squares through a symmetry, for boards of up to 32 squares.
+     *
+     * @param t symmetry number between 0 and 7
+     * @param mask bitmask with bit n set for each chosen square n
+     * @return int bitmask of the squares they move to
+     * @throws IllegalStateException if the board has more than 32 squares
+     */
+    public int mapMask(int t, int mask)
+    {
+        if(chunkMaps == null)
+            throw new IllegalStateException("Board too large to pack into a long");
+        int[][] tables = chunkMaps[t];
+        int result = 0;
+        for(int c = 0; c < tables.length; c++)
+            result |= tables[c][(mask >>> (c * CHUNK_BITS)) & ((1 << CHUNK_BITS) - 1)];
+        return result;
+    }
+
+    /**
+     * Maps a packed position through a symmetry, for boards of up to 32 squares.
+     *
+     * @param t symmetry number between 0 and 7
+     * @param packed position as packed by BoardSnapshot, X's squares in the low 32 bits and O's in the high 32 bits
+     * @return long packed position after the symmetry
+     */
+    public long mapPacked(int t, long packed)
+    {
+        return (mapMask(t, (int)packed) & 0xFFFFFFFFL) | (long)mapMask(t, (int)(packed >>> PACKED_SQUARES)) << PACKED_SQUARES;
+    }
+
+    /**
+     * Finds the canonical form of a packed position: the smallest packed position over the 8 symmetries.
+     * Positions which are rotations or reflections of each other have the same canonical form.
+     *
+     * @param packed position as packed by BoardSnapshot, on a board of up to 32 squares
+     * @return long holding the canonical packed position (read it with getKey) and the symmetry mapping the position onto it (read it with getTransform)
+     */
+    public long canonicalPacked(long packed)
+    {
+        long best = packed;
+        int bestTransform = 0;
+        for(int t = 1; t < COUNT; t++)
+        {
+            long mapped = mapPacked(t, packed);
+            if(mapped < best)
+            {
+                best = mapped;
+                bestTransform = t;
+            }
+        }
+        return best | (long)bestTransform << TRANSFORM_SHIFT;
+    }
+
+    /**
+     * @param canonical result of canonicalPacked
+     * @return long canonical packed position
+     */
+    public static long getKey(long canonical)
+    {
+        return canonical & KEY_MASK;
+    }
+
+    /**
+     * @param canonical result of canonicalPacked
+     * @return int symmetry mapping the original position onto the canonical one
+     */
+    public static int getTransform(long canonical)
+    {
+        return (int)(canonical >>> TRANSFORM_SHIFT);
+    }
+
+    /**
+     * Maps bitmask words through a symmetry, one stone at a time, for boards of any size.
+     *
+     * @param t symmetry number between 0 and 7
+     * @param words bitmasks as kept by BoardSnapshot: X's words, then the same number of words for O
+     * @param out array at least as long as words, receiving the bitmasks after the symmetry in its first words.length elements
+     */
+    public void mapWords(int t, long[] words, long[] out)
+    {
+        int count = words.length / 2;
+        Arrays.fill(out, 0, words.length, 0);
+        for(int i = 0; i < words.length; i++)
+        {
+            int half = i < count ? 0 : count; // first word of the player's bitmask
+            long bits = words[i];
+            while(bits != 0)
+            {
+                int square = (i - half) * WORD_SIZE + Long.numberOfTrailingZeros(bits);
+                int target = map[t][square];
+                out[half + target / WORD_SIZE] |= 1L << target;
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * Finds the canonical form of a position held in bitmask words: the smallest words, compared in order, over the 8 symmetries.
+     * This allocates a scratch array; callers canonicalizing many positions pass their own to the three argument form.
+     *
+     * @param words bitmasks as kept by BoardSnapshot: X's words, then the same number of words for O
+     * @param out array at least as long as words, receiving the canonical bitmasks in its first words.length elements
+     * @return int symmetry mapping the original position onto the canonical one
+     */
+    public int canonicalWords(long[] words, long[] out)
+    {
+        return canonicalWords(words, out, new long[words.length]);
+    }
+
+    /**
+     * Finds the canonical form of a position held in bitmask words, mapping each symmetry into a scratch array supplied by the caller.
+     *
+     * @param words bitmasks as kept by BoardSnapshot: X's words, then the same number of words for O
+     * @param out array at least as long as words, receiving the canonical bitmasks in its first words.length elements
+     * @param scratch array at least as long as words, other than out, overwritten
+     * @return int symmetry mapping the original position onto the canonical one
+     */
+    public int canonicalWords(long[] words, long[] out, long[] scratch)
+    {
+        int count = words.length;
+        System.arraycopy(words, 0, out, 0, count);
+        int bestTransform = 0;
+        for(int t = 1; t < COUNT; t++)
+        {
+            mapWords(t, words, scratch);
+            int i = 0;
+            while(i < count && scratch[i] == out[i])
+                i++;
+            if(i < count && scratch[i] < out[i])
+            {
+                System.arraycopy(scratch, 0, out, 0, count);
+                bestTransform = t;
+            }
+        }
+        return bestTransform;
+    }
+}
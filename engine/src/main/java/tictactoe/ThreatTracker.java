@@ -0,0 +1,426 @@
+package tictactoe;
+
+import java.util.Arrays;
+
+/**
+ * The ThreatTracker class keeps count of the threats on a K in a row board as moves are made and undone, for searches on large boards.
+ * It tracks every window (every line of winLength squares) and how many stones each player has in it.  A window holding stones of only one player
+ * is live for that player, and the tracker keeps, per player:
+ *   the number of live windows holding each number of stones (a window one stone short of winLength is a four, two short a three, for gomoku);
+ *   the winning squares, the empty squares of the player's fours, where a stone wins at once;
+ *   the four making squares, the empty squares of the player's threes, where a stone makes a four.
+ * It also keeps a heuristic score: each live window is worth 4^(stones - 1), positive for X and negative for O.
+ * Every move updates only the windows through its square, so the cost of a move depends on winLength, not on the size of the board.
+ * findForcedWin runs a threat space search (victory by continuous fours) which only ever considers four making moves, so it is very narrow,
+ * and can be given a deadline after which it gives up.
+ * A ThreatTracker is not thread safe.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class ThreatTracker
+{
+	/* Static fields */
+	private static final int[] ROW_STEPS = {0, 1, 1, 1};
+	private static final int[] COL_STEPS = {1, 0, 1, -1};
+	private static final int MAX_WEIGHT_SHIFT = 24; // caps window weights so scores cannot overflow
+	private static final byte EMPTY = 0;
+	private static final int CLOCK_CHECK_INTERVAL = 1024; // threat search positions between checks of the clock, a power of two
+
+	/* Instance variables */
+    private final int length;
+    private final int winLength;
+    private final int[][] squareWindows; // squareWindows[square] lists the windows containing square
+    private final int[][] windowSquares; // windowSquares[window] lists the squares of the window
+    private final int[] windowWeights; // windowWeights[n] is the value of a live window holding n stones
+    private final int[] xCounts; // stones of X in each window
+    private final int[] oCounts; // stones of O in each window
+    private final byte[] cells; // 0 for empty, otherwise the ordinal of the occupying Player plus 1
+    private final int[][] liveWindows; // liveWindows[player][n] is the number of the player's live windows holding n stones
+    private final int[][] winningSquares; // winningSquares[player][square] is the number of the player's fours whose empty square is square
+    private final int[] winningSquareCount; // number of distinct winning squares of each player
+    private final int[][] fourSquares; // fourSquares[player][square] is the number of the player's threes with square empty
+    private int score;
+    private long nodeCount;
+    private long deadline; // System.nanoTime at which the threat search in progress gives up
+    private boolean timedOut;
+
+    /**
+     * Constructor for a tracker of an empty board.
+     *
+     * @param length length of a side of the board
+     * @param winLength number of squares in a row needed to win
+     */
+    public ThreatTracker(int length, int winLength)
+    {
+        Board.checkSize(length, winLength);
+        this.length = length;
+        this.winLength = winLength;
+        int totalSquares = length * length;
+
+        // count the windows containing each square, then fill them in
+        int[] counts = new int[totalSquares];
+        int windowCount = 0;
+        for(int d = 0; d < ROW_STEPS.length; d++)
+            for(int row = 0; row < length; row++)
+                for(int col = 0; col < length; col++)
+                    if(fits(row, col, d))
+                    {
+                        for(int i = 0; i < winLength; i++)
+                            counts[(row + ROW_STEPS[d] * i) * length + col + COL_STEPS[d] * i]++;
+                        windowCount++;
+                    }
+        squareWindows = new int[totalSquares][];
+        for(int square = 0; square < totalSquares; square++)
+            squareWindows[square] = new int[counts[square]];
+        windowSquares = new int[windowCount][winLength];
+        Arrays.fill(counts, 0);
+        int w = 0;
+        for(int d = 0; d < ROW_STEPS.length; d++)
+            for(int row = 0; row < length; row++)
+                for(int col = 0; col < length; col++)
+                    if(fits(row, col, d))
+                    {
+                        for(int i = 0; i < winLength; i++)
+                        {
+                            int square = (row + ROW_STEPS[d] * i) * length + col + COL_STEPS[d] * i;
+                            windowSquares[w][i] = square;
+                            squareWindows[square][counts[square]++] = w;
+                        }
+                        w++;
+                    }
+
+        windowWeights = new int[winLength + 1];
+        for(int n = 1; n <= winLength; n++)
+            windowWeights[n] = 1 << Math.min(2 * (n - 1), MAX_WEIGHT_SHIFT);
+        xCounts = new int[windowCount];
+        oCounts = new int[windowCount];
+        cells = new byte[totalSquares];
+        liveWindows = new int[2][winLength + 1];
+        winningSquares = new int[2][totalSquares];
+        winningSquareCount = new int[2];
+        fourSquares = new int[2][totalSquares];
+    }
+
+    /**
+     * Constructor for a tracker holding a board's position.
+     *
+     * @param board Board to copy the position from
+     */
+    public ThreatTracker(Board board)
+    {
+        this(board.getLength(), board.getWinLength());
+        load(board);
+    }
+
+    /**
+     * @param row row of the window's first square
+     * @param col column of the window's first square
+     * @param d direction index
+     * @return true if a window starting at (row, col) in direction d lies on the board
+     */
+    private boolean fits(int row, int col, int d)
+    {
+        int endRow = row + ROW_STEPS[d] * (winLength - 1);
+        int endCol = col + COL_STEPS[d] * (winLength - 1);
+        return endRow < length && endCol >= 0 && endCol < length;
+    }
+
+    /**
+     * Replaces the tracked position with a board's position.
+     *
+     * @param board Board of the tracker's size
+     */
+    public void load(Board board)
+    {
+        Arrays.fill(xCounts, 0);
+        Arrays.fill(oCounts, 0);
+        Arrays.fill(cells, EMPTY);
+        for(int p = 0; p < 2; p++)
+        {
+            Arrays.fill(liveWindows[p], 0);
+            Arrays.fill(winningSquares[p], 0);
+            Arrays.fill(fourSquares[p], 0);
+            winningSquareCount[p] = 0;
+        }
+        score = 0;
+        for(int square = 0; square < board.getTotalSquares(); square++)
+            if(board.getSquare(square) != Player.NONE)
+                makeMove(square, board.getSquare(square));
+    }
+
+    /**
+     * Records a stone placed on an empty square.
+     *
+     * @param square square number
+     * @param p Player.X or Player.O
+     */
+    public void makeMove(int square, Player p)
+    {
+        for(int w : squareWindows[square])
+            count(w, -1);
+        cells[square] = (byte)(p.ordinal() + 1);
+        for(int w : squareWindows[square])
+        {
+            if(p == Player.X)
+                xCounts[w]++;
+            else
+                oCounts[w]++;
+            count(w, 1);
+        }
+    }
+
+    /**
+     * Records a stone removed, undoing makeMove.
+     *
+     * @param square square number
+     * @param p Player who owned the stone
+     */
+    public void unmakeMove(int square, Player p)
+    {
+        for(int w : squareWindows[square])
+            count(w, -1);
+        cells[square] = EMPTY;
+        for(int w : squareWindows[square])
+        {
+            if(p == Player.X)
+                xCounts[w]--;
+            else
+                oCounts[w]--;
+            count(w, 1);
+        }
+    }
+
+    /**
+     * Adds a window's contribution to the tallies, or takes it away.  Called with -1 before a window changes and 1 after.
+     *
+     * @param w window index
+     * @param sign 1 to add, -1 to take away
+     */
+    private void count(int w, int sign)
+    {
+        int x = xCounts[w];
+        int o = oCounts[w];
+        if(x > 0 && o == 0)
+        {
+            score += sign * windowWeights[x];
+            countLive(w, Player.X.ordinal(), x, sign);
+        }
+        else if(o > 0 && x == 0)
+        {
+            score -= sign * windowWeights[o];
+            countLive(w, Player.O.ordinal(), o, sign);
+        }
+    }
+
+    /**
+     * Adds a live window's contribution to one player's tallies, or takes it away.
+     *
+     * @param w window index
+     * @param player ordinal of the Player owning the window
+     * @param stones number of the player's stones in the window
+     * @param sign 1 to add, -1 to take away
+     */
+    private void countLive(int w, int player, int stones, int sign)
+    {
+        liveWindows[player][stones] += sign;
+        if(stones == winLength - 1)
+        {
+            for(int square : windowSquares[w])
+            {
+                if(cells[square] == EMPTY)
+                {
+                    int before = winningSquares[player][square];
+                    winningSquares[player][square] = before + sign;
+                    if(before == 0 && sign > 0)
+                        winningSquareCount[player]++;
+                    else if(before == 1 && sign < 0)
+                        winningSquareCount[player]--;
+                    break;
+                }
+            }
+        }
+        else if(stones == winLength - 2)
+        {
+            for(int square : windowSquares[w])
+                if(cells[square] == EMPTY)
+                    fourSquares[player][square] += sign;
+        }
+    }
+
+    /* Getter / Accesesor methods */
+
+    /**
+     * @return int heuristic value of the position from X's point of view
+     */
+    public int getScore()
+    {
+        return score;
+    }
+
+    /**
+     * Returns the number of windows holding a number of a player's stones and none of the opponent's.
+     *
+     * @param p Player.X or Player.O
+     * @param stones number of stones, between 1 and winLength
+     * @return int number of windows
+     */
+    public int getLiveWindowCount(Player p, int stones)
+    {
+        return liveWindows[p.ordinal()][stones];
+    }
+
+    /**
+     * Returns the number of squares where a player wins at once.
+     *
+     * @param p Player.X or Player.O
+     * @return int number of winning squares; 2 or more means an open four, which cannot be blocked
+     */
+    public int getWinningSquareCount(Player p)
+    {
+        return winningSquareCount[p.ordinal()];
+    }
+
+    /**
+     * Checks whether a stone on a square wins at once.
+     *
+     * @param p Player.X or Player.O
+     * @param square square number
+     * @return true if the square completes one of the player's fours
+     */
+    public boolean isWinningSquare(Player p, int square)
+    {
+        return winningSquares[p.ordinal()][square] > 0;
+    }
+
+    /**
+     * Checks whether a stone on a square makes a four.
+     *
+     * @param p Player.X or Player.O
+     * @param square square number
+     * @return true if the square is empty in one of the player's threes
+     */
+    public boolean makesFour(Player p, int square)
+    {
+        return fourSquares[p.ordinal()][square] > 0 && cells[square] == EMPTY;
+    }
+
+    /**
+     * Lists the squares where a player wins at once.
+     *
+     * @param p Player.X or Player.O
+     * @param out array to fill, as long as the number of squares
+     * @return int number of squares listed
+     */
+    public int getWinningSquares(Player p, int[] out)
+    {
+        int count = 0;
+        if(winningSquareCount[p.ordinal()] == 0)
+            return 0;
+        int[] counts = winningSquares[p.ordinal()];
+        for(int square = 0; square < counts.length; square++)
+            if(counts[square] > 0)
+                out[count++] = square;
+        return count;
+    }
+
+    /**
+     * Finds a square where a player wins at once.
+     *
+     * @param p Player.X or Player.O
+     * @return int lowest winning square number, or -1 if there is none
+     */
+    public int findWinningMove(Player p)
+    {
+        if(winningSquareCount[p.ordinal()] == 0)
+            return -1;
+        int[] counts = winningSquares[p.ordinal()];
+        for(int square = 0; square < counts.length; square++)
+            if(counts[square] > 0)
+                return square;
+        return -1;
+    }
+
+    /**
+     * Returns the number of positions visited by threat space searches since the tracker was created.
+     *
+     * @return long count of positions
+     */
+    public long getNodeCount()
+    {
+        return nodeCount;
+    }
+
+    /**
+     * Searches for a win by continuous fours: the attacker makes a four with every move, so the defender's only reply is to block it, until the attacker
+     * makes two fours at once or completes a line.  Lines of play where the defender's block makes a four of its own are not followed, so a win found is
+     * certain but some wins are missed.  The tracked position is restored before returning.
+     *
+     * @param attacker Player to move, who is looking for a win
+     * @param maxDepth most fours the attacker may make
+     * @return int first move of a forced win, or -1 if none was found
+     */
+    public int findForcedWin(Player attacker, int maxDepth)
+    {
+        return findForcedWin(attacker, maxDepth, Long.MAX_VALUE);
+    }
+
+    /**
+     * Searches for a win by continuous fours as findForcedWin(attacker, maxDepth) does, giving up once a deadline has passed.
+     * The clock is checked every CLOCK_CHECK_INTERVAL positions.
+     *
+     * @param attacker Player to move, who is looking for a win
+     * @param maxDepth most fours the attacker may make
+     * @param deadline System.nanoTime value after which the search gives up
+     * @return int first move of a forced win, or -1 if none was found in time
+     */
+    public int findForcedWin(Player attacker, int maxDepth, long deadline)
+    {
+        this.deadline = deadline;
+        timedOut = false;
+        return searchForcedWin(attacker, maxDepth);
+    }
+
+    /**
+     * Searches for a win by continuous fours, stopping once the deadline has passed.
+     *
+     * @param attacker Player to move, who is looking for a win
+     * @param maxDepth most fours the attacker may make
+     * @return int first move of a forced win, or -1 if none was found
+     */
+    private int searchForcedWin(Player attacker, int maxDepth)
+    {
+        int win = findWinningMove(attacker);
+        if(win >= 0)
+            return win;
+        Player defender = attacker.getOpponent();
+        if(maxDepth == 0 || winningSquareCount[defender.ordinal()] > 0)
+            return -1; // the attacker has to block instead of attacking
+
+        for(int square = 0; square < cells.length; square++)
+        {
+            if(!makesFour(attacker, square))
+                continue;
+            if((++nodeCount & (CLOCK_CHECK_INTERVAL - 1)) == 0 && System.nanoTime() >= deadline)
+                timedOut = true;
+            if(timedOut)
+                return -1;
+            makeMove(square, attacker);
+            boolean won;
+            if(winningSquareCount[attacker.ordinal()] >= 2)
+                won = true; // two winning squares, the defender can only block one
+            else
+            {
+                int block = findWinningMove(attacker);
+                makeMove(block, defender);
+                // a block making a four for the defender would have to be answered, so that line is not followed
+                won = winningSquareCount[defender.ordinal()] == 0 && searchForcedWin(attacker, maxDepth - 1) >= 0;
+                unmakeMove(block, defender);
+            }
+            unmakeMove(square, attacker);
+            if(won)
+                return square;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,75 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * The TicTacToeDriver class is the entry point of execution for the Tic Tac Toe game.  
+ * It Instantiates new instances of the Board, Display, and Game classes representing the model, view, and controller components respectively of the MVC software design pattern.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class TicTacToeDriver
+{
+    private static final long MCTS_MILLIS = 50; // time budget per move of the "mcts" player
+    private static final long DEEPENING_MILLIS = 100; // time budget per move of the "deepening" player
+    private static final int MAX_SOLVED_SQUARES = 9; // largest board the "computer" player searches to the end, as GameServer does
+
+    /**
+     * Starts a game.  Optional arguments are the board length and number in a row needed to win (e.g. "15 5" for gomoku),
+     * followed by "human", "computer" or "mcts" for who plays X and then O (e.g. "human computer" to play against the Solver,
+     * which on boards larger than 3x3 searches iteratively deepening within 100 ms per move instead,
+     * "mcts" for Monte Carlo Tree Search with a 50 ms budget per move, better suited to large boards,
+     * "deepening" for iterative deepening alpha-beta search which answers within 100 ms on any board,
+     * or "learned=file" for a table of move values learned by the SelfPlayTrainer).
+     * The argument "ansi" redraws the board in place on ANSI terminals, and "moves=file" reads the human players' moves from a file instead of the console.
+     * 
+     * @param args command line arguments
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int[] size = new int[2];
+        int sizeCount = 0;
+        MovePolicy[] policies = new MovePolicy[2]; // X's policy then O's policy, null for a human player
+        boolean[] computers = new boolean[2]; // players whose policy depends on the board's size
+        int policyCount = 0;
+        boolean inPlace = false;
+        MoveInput input = ReaderMoveInput.console();
+        for(String arg : args)
+        {
+            if(arg.equalsIgnoreCase("ansi"))
+                inPlace = true;
+            else if(arg.startsWith("moves="))
+                input = ReaderMoveInput.file(Paths.get(arg.substring("moves=".length())));
+            else if(arg.matches("\\d+") && sizeCount < size.length)
+                size[sizeCount++] = Integer.parseInt(arg);
+            else if(policyCount < policies.length)
+            {
+                if(arg.equalsIgnoreCase("computer"))
+                    computers[policyCount++] = true;
+                else if(arg.equalsIgnoreCase("mcts"))
+                    policies[policyCount++] = new MctsPolicy(MCTS_MILLIS);
+                else if(arg.equalsIgnoreCase("deepening"))
+                    policies[policyCount++] = new IterativeDeepeningPolicy(DEEPENING_MILLIS);
+                else if(arg.startsWith("learned="))
+                    policies[policyCount++] = new LearnedPolicy(ValueTable.load(Paths.get(arg.substring("learned=".length()))));
+                else
+                    policies[policyCount++] = null;
+            }
+        }
+        
+        Board tttBoard;
+        if(sizeCount == size.length)
+            tttBoard = new Board(size[0], size[1]); //model
+        else
+            tttBoard = new Board(); //model
+        for(int i = 0; i < computers.length; i++)
+            if(computers[i])
+                policies[i] = tttBoard.getTotalSquares() <= MAX_SOLVED_SQUARES ? new Solver() : new IterativeDeepeningPolicy(DEEPENING_MILLIS);
+        Display tttDisplay = new Display(tttBoard, inPlace, input); //view
+        Game tttGame = new Game(tttBoard, tttDisplay, policies[0], policies[1]); //controller
+        
+        tttGame.mainLoop(); //start execution of the game from the controller Game class.
+    }
+}
\ No newline at end of file
@@ -0,0 +1,433 @@
+package tictactoe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * The Tournament class ranks computer players by playing matches between them, with round robin or Swiss pairings.
+ * A match is a series of games between two entrants with colours alternated, so neither gains from always playing X.
+ * Matches run in parallel on a fixed pool of worker threads, with at most two matches per thread queued at once; every match creates its own
+ * policies from the entrant's supplier, since policies are not thread safe.  Results are collected on the calling thread, which updates the table
+ * and passes the standings to the listeners after every match.
+ * Ratings are Elo, fitted to every game played so far with the Bradley-Terry model (a draw counts as half a win).  Each entrant is also given
+ * one virtual draw against a 1500 rated player, which keeps ratings finite for entrants that won or lost everything.
+ * The 95% confidence interval of each rating comes from the curvature of the likelihood at the fitted ratings.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class Tournament
+{
+	/* Static fields */
+	private static final double ELO_SCALE = 400 / Math.log(10); // Elo points per unit of log strength
+	private static final double BASE_RATING = 1500; // average rating of the field
+	private static final double Z_95 = 1.96; // standard deviations either side of a 95% confidence interval
+	private static final int MAX_ITERATIONS = 1000;
+	private static final double TOLERANCE = 1e-9; // largest relative change in strength at which the fit stops
+	private static final int QUEUED_PER_THREAD = 2; // matches submitted ahead of the workers, keeping the queue bounded
+	private static final int DEFAULT_GAMES = 100;
+
+	/* Instance variables */
+    private final int length;
+    private final int winLength;
+    private final int gamesPerMatch;
+    private final int parallelism;
+    private final List<String> names;
+    private final List<Supplier<MovePolicy>> policies;
+    private final List<TournamentListener> listeners;
+    private double[][] points; // points[i][j] is the score of entrant i against entrant j
+    private int[][] games; // games[i][j] is the number of games between entrants i and j
+    private int[] wins;
+    private int[] losses;
+    private int[] draws;
+
+    /**
+     * Constructor for a tournament using every available processor.
+     *
+     * @param length length of a side of the board
+     * @param winLength number of squares in a row needed to win
+     * @param gamesPerMatch number of games in each match, X alternating between the entrants
+     */
+    public Tournament(int length, int winLength, int gamesPerMatch)
+    {
+        this(length, winLength, gamesPerMatch, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for a tournament.
+     *
+     * @param length length of a side of the board
+     * @param winLength number of squares in a row needed to win
+     * @param gamesPerMatch number of games in each match, X alternating between the entrants
+     * @param parallelism number of matches played at once
+     */
+    public Tournament(int length, int winLength, int gamesPerMatch, int parallelism)
+    {
+        Board.checkSize(length, winLength);
+        if(gamesPerMatch < 1)
+            throw new IllegalArgumentException("A match needs at least one game");
+        this.length = length;
+        this.winLength = winLength;
+        this.gamesPerMatch = gamesPerMatch;
+        this.parallelism = parallelism;
+        names = new ArrayList<String>();
+        policies = new ArrayList<Supplier<MovePolicy>>();
+        listeners = new ArrayList<TournamentListener>();
+        resize(0);
+    }
+
+    /**
+     * Enters a player.
+     *
+     * @param name name shown in the standings
+     * @param policy creates the entrant's MovePolicy, called once per match
+     * @return int index of the entrant
+     */
+    public int addEntrant(String name, Supplier<MovePolicy> policy)
+    {
+        names.add(name);
+        policies.add(policy);
+        resize(names.size());
+        return names.size() - 1;
+    }
+
+    /**
+     * Adds a listener to receive the standings after every match.
+     *
+     * @param listener TournamentListener to add
+     */
+    public void addListener(TournamentListener listener)
+    {
+        listeners.add(listener);
+    }
+
+    /**
+     * Grows the result tables to hold every entrant, keeping results already played.
+     *
+     * @param count number of entrants
+     */
+    private void resize(int count)
+    {
+        double[][] newPoints = new double[count][count];
+        int[][] newGames = new int[count][count];
+        for(int i = 0; i < count - 1; i++)
+        {
+            System.arraycopy(points[i], 0, newPoints[i], 0, count - 1);
+            System.arraycopy(games[i], 0, newGames[i], 0, count - 1);
+        }
+        points = newPoints;
+        games = newGames;
+        wins = wins == null ? new int[count] : Arrays.copyOf(wins, count);
+        losses = losses == null ? new int[count] : Arrays.copyOf(losses, count);
+        draws = draws == null ? new int[count] : Arrays.copyOf(draws, count);
+    }
+
+    /**
+     * Plays a match between every pair of entrants.
+     *
+     * @return List of Standing, best rating first
+     */
+    public List<Standing> runRoundRobin()
+    {
+        List<int[]> pairings = new ArrayList<int[]>();
+        for(int i = 0; i < names.size(); i++)
+            for(int j = i + 1; j < names.size(); j++)
+                pairings.add(new int[] {i, j});
+        runMatches(pairings);
+        return getStandings();
+    }
+
+    /**
+     * Plays rounds of a Swiss system tournament.  Each round pairs entrants with similar scores who have not met yet;
+     * with an odd number of entrants the lowest ranked entrant without a match sits the round out.
+     *
+     * @param rounds number of rounds
+     * @return List of Standing, best rating first
+     */
+    public List<Standing> runSwiss(int rounds)
+    {
+        for(int round = 0; round < rounds; round++)
+            runMatches(swissPairings());
+        return getStandings();
+    }
+
+    /**
+     * Pairs entrants for a Swiss round: in order of score, then rating, each unpaired entrant meets the next one it has not played,
+     * or the next one at all if it has played everyone left.
+     *
+     * @return List of pairs of entrant indexes
+     */
+    private List<int[]> swissPairings()
+    {
+        final double[] ratings = ratings(strengths());
+        List<Integer> order = new ArrayList<Integer>();
+        for(int i = 0; i < names.size(); i++)
+            order.add(i);
+        Collections.sort(order, new Comparator<Integer>()
+        {
+            public int compare(Integer a, Integer b)
+            {
+                int byScore = Double.compare(score(b), score(a));
+                return byScore != 0 ? byScore : Double.compare(ratings[b], ratings[a]);
+            }
+        });
+
+        List<int[]> pairings = new ArrayList<int[]>();
+        boolean[] paired = new boolean[names.size()];
+        for(int i = 0; i < order.size(); i++)
+        {
+            int a = order.get(i);
+            if(paired[a])
+                continue;
+            int opponent = -1;
+            for(int j = i + 1; j < order.size(); j++)
+            {
+                int b = order.get(j);
+                if(paired[b])
+                    continue;
+                if(opponent < 0)
+                    opponent = b; // fallback if a has played everyone left
+                if(games[a][b] == 0)
+                {
+                    opponent = b;
+                    break;
+                }
+            }
+            if(opponent >= 0)
+            {
+                paired[a] = true;
+                paired[opponent] = true;
+                pairings.add(new int[] {a, opponent});
+            }
+        }
+        return pairings;
+    }
+
+    /**
+     * @param i entrant index
+     * @return double points scored by the entrant so far
+     */
+    private double score(int i)
+    {
+        return wins[i] + 0.5 * draws[i];
+    }
+
+    /**
+     * Plays matches on the worker pool, recording each result and notifying the listeners as it arrives.
+     *
+     * @param pairings List of pairs of entrant indexes
+     */
+    private void runMatches(List<int[]> pairings)
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        CompletionService<MatchResult> completion = new ExecutorCompletionService<MatchResult>(executor);
+        try
+        {
+            int submitted = 0;
+            int finished = 0;
+            while(finished < pairings.size())
+            {
+                while(submitted < pairings.size() && submitted - finished < parallelism * QUEUED_PER_THREAD)
+                {
+                    final int[] pair = pairings.get(submitted++);
+                    completion.submit(() -> playMatch(pair[0], pair[1]));
+                }
+                MatchResult result = completion.take().get();
+                finished++;
+                record(result);
+                List<Standing> standings = getStandings();
+                for(TournamentListener listener : listeners)
+                    listener.onMatchFinished(result, standings);
+            }
+        }
+        catch(InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while playing matches", ie);
+        }
+        catch(ExecutionException ee)
+        {
+            throw new IllegalStateException("Match failed", ee.getCause());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays a match on the calling thread.
+     *
+     * @param a index of the entrant playing X in the first game
+     * @param b index of the entrant playing O in the first game
+     * @return MatchResult of the match
+     */
+    private MatchResult playMatch(int a, int b)
+    {
+        MovePolicy first = policies.get(a).get();
+        MovePolicy second = policies.get(b).get();
+        Board board = new Board(length, winLength);
+        int firstWins = 0;
+        int secondWins = 0;
+        int drawn = 0;
+        for(int game = 0; game < gamesPerMatch; game++)
+        {
+            board.reset();
+            boolean firstIsX = game % 2 == 0;
+            Player winner = firstIsX ? Simulator.playGame(board, first, second) : Simulator.playGame(board, second, first);
+            if(winner == Player.NONE)
+                drawn++;
+            else if((winner == Player.X) == firstIsX)
+                firstWins++;
+            else
+                secondWins++;
+        }
+        return new MatchResult(a, names.get(a), b, names.get(b), firstWins, secondWins, drawn);
+    }
+
+    /**
+     * Adds a match to the result tables.
+     *
+     * @param result MatchResult to add
+     */
+    private void record(MatchResult result)
+    {
+        int a = result.getFirst();
+        int b = result.getSecond();
+        points[a][b] += result.getFirstWins() + 0.5 * result.getDraws();
+        points[b][a] += result.getSecondWins() + 0.5 * result.getDraws();
+        games[a][b] += result.getGames();
+        games[b][a] += result.getGames();
+        wins[a] += result.getFirstWins();
+        wins[b] += result.getSecondWins();
+        losses[a] += result.getSecondWins();
+        losses[b] += result.getFirstWins();
+        draws[a] += result.getDraws();
+        draws[b] += result.getDraws();
+    }
+
+    /**
+     * Fits the strength of every entrant to the games played, by the minorization-maximization iteration for the Bradley-Terry model.
+     * Strengths are relative to the virtual opponent, whose strength is 1.
+     *
+     * @return double array of strengths
+     */
+    private double[] strengths()
+    {
+        int count = names.size();
+        double[] gamma = new double[count];
+        Arrays.fill(gamma, 1);
+        for(int iteration = 0; iteration < MAX_ITERATIONS; iteration++)
+        {
+            double change = 0;
+            for(int i = 0; i < count; i++)
+            {
+                double score = 0.5; // virtual draw
+                double denominator = 1 / (gamma[i] + 1);
+                for(int j = 0; j < count; j++)
+                {
+                    if(games[i][j] == 0)
+                        continue;
+                    score += points[i][j];
+                    denominator += games[i][j] / (gamma[i] + gamma[j]);
+                }
+                double next = score / denominator;
+                change = Math.max(change, Math.abs(next - gamma[i]) / gamma[i]);
+                gamma[i] = next;
+            }
+            if(change < TOLERANCE)
+                break;
+        }
+        return gamma;
+    }
+
+    /**
+     * @param gamma double array of strengths, from strengths()
+     * @return double array of Elo ratings, averaging BASE_RATING
+     */
+    private double[] ratings(double[] gamma)
+    {
+        double[] ratings = new double[gamma.length];
+        double mean = 0;
+        for(int i = 0; i < gamma.length; i++)
+        {
+            ratings[i] = ELO_SCALE * Math.log(gamma[i]);
+            mean += ratings[i] / gamma.length;
+        }
+        for(int i = 0; i < ratings.length; i++)
+            ratings[i] += BASE_RATING - mean;
+        return ratings;
+    }
+
+    /**
+     * Returns the current table.
+     *
+     * @return List of Standing, best rating first
+     */
+    public List<Standing> getStandings()
+    {
+        double[] gamma = strengths();
+        double[] ratings = ratings(gamma);
+        List<Standing> standings = new ArrayList<Standing>(names.size());
+        for(int i = 0; i < names.size(); i++)
+        {
+            // Fisher information of the entrant's log strength: the sum over its games of p(1 - p), p being its expected score
+            double information = gamma[i] / ((gamma[i] + 1) * (gamma[i] + 1)); // virtual draw
+            for(int j = 0; j < names.size(); j++)
+                information += games[i][j] * gamma[i] * gamma[j] / ((gamma[i] + gamma[j]) * (gamma[i] + gamma[j]));
+            double margin = Z_95 * ELO_SCALE / Math.sqrt(information);
+            standings.add(new Standing(names.get(i), wins[i], losses[i], draws[i], ratings[i], margin));
+        }
+        Collections.sort(standings, new Comparator<Standing>()
+        {
+            public int compare(Standing a, Standing b)
+            {
+                return Double.compare(b.getRating(), a.getRating());
+            }
+        });
+        return standings;
+    }
+
+    /**
+     * Runs a tournament between the built in computer players on the 3x3 board and prints each match and the final standings.
+     *
+     * @param args games per match (default 100), optionally followed by a number of Swiss rounds to play instead of a round robin
+     */
+    public static void main(String[] args)
+    {
+        int gamesPerMatch = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+        Tournament tournament = new Tournament(Board.getDefaultLength(), Board.getDefaultLength(), gamesPerMatch);
+        tournament.addEntrant("Random", RandomPolicy::new);
+        tournament.addEntrant("Solver", Solver::new);
+        tournament.addEntrant("Deepening", () -> new IterativeDeepeningPolicy(10));
+        for(int depth = 1; depth <= 4; depth++)
+        {
+            final int d = depth;
+            tournament.addEntrant("Depth " + d, () -> new Solver(new TranspositionTable(16), d));
+        }
+        tournament.addListener(new TournamentListener()
+        {
+            public void onMatchFinished(MatchResult result, List<Standing> standings)
+            {
+                System.out.println(result);
+            }
+        });
+
+        long start = System.nanoTime();
+        List<Standing> standings = args.length > 1 ? tournament.runSwiss(Integer.parseInt(args[1])) : tournament.runRoundRobin();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println();
+        for(Standing standing : standings)
+            System.out.println(standing);
+        System.out.println(String.format("%.1f seconds", seconds));
+    }
+}
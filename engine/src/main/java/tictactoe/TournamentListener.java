@@ -0,0 +1,21 @@
+package tictactoe;
+
+import java.util.List;
+
+/**
+ * The TournamentListener interface receives the standings of a Tournament each time a match finishes, so a table can be shown while the tournament runs.
+ * It is called on the thread that started the tournament, one match at a time.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public interface TournamentListener
+{
+    /**
+     * Called after each match.
+     *
+     * @param result MatchResult of the match that finished
+     * @param standings every entrant's Standing including that match, best rating first
+     */
+    void onMatchFinished(MatchResult result, List<Standing> standings);
+}
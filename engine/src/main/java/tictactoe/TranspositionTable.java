@@ -0,0 +1,141 @@
+package tictactoe;
+
+import java.util.Arrays;
+
+/**
+ * The TranspositionTable class stores search results by position hash so positions reached through different move orders are only searched once.
+ * Entries live in two primitive arrays and are replaced whenever a new result hashes to the same slot.
+ * Each slot stores the key exclusive or'd with the entry, so an entry torn by two threads writing at once fails the key check instead of being read back wrong.
+ * This makes a single table safe to share between threads without locking.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class TranspositionTable
+{
+	/* Static fields */
+	public static final int EXACT = 1; // value is the exact value of the position
+	public static final int LOWER_BOUND = 2; // search failed high, the value is at least the stored value
+	public static final int UPPER_BOUND = 3; // search failed low, the value is at most the stored value
+
+	// Entry layout: bits 0-15 value + 32768, bits 16-17 flag, bits 18-27 depth, bits 28-43 move + 1.  An empty slot holds entry 0, which has flag 0.
+	private static final int VALUE_OFFSET = 32768;
+	private static final int FLAG_SHIFT = 16;
+	private static final int DEPTH_SHIFT = 18;
+	private static final int MOVE_SHIFT = 28;
+
+	/* Instance variables */
+    final long[] keys; // key exclusive or'd with the entry in each slot, shared with subclasses that manage slots their own way
+    final long[] entries;
+    final int mask;
+
+    /**
+     * Constructor for a table with 2^sizeBits slots.
+     * 
+     * @param sizeBits base two logarithm of the number of slots, e.g. 20 for about a million entries (16 MB)
+     */
+    public TranspositionTable(int sizeBits)
+    {
+        if(sizeBits < 1 || sizeBits > 30)
+            throw new IllegalArgumentException("Invalid table size " + sizeBits);
+        keys = new long[1 << sizeBits];
+        entries = new long[1 << sizeBits];
+        mask = (1 << sizeBits) - 1;
+    }
+
+    /**
+     * Looks up the entry stored for a position.
+     * 
+     * @param key position hash
+     * @return long entry, or 0 if the position is not in the table.  Decode with getValue, getFlag, getDepth and getMove.
+     */
+    public long probe(long key)
+    {
+        int slot = (int)key & mask;
+        long entry = entries[slot];
+        if((keys[slot] ^ entry) != key)
+            return 0;
+        return entry;
+    }
+
+    /**
+     * Stores a search result for a position, replacing whatever was in its slot.
+     * 
+     * @param key position hash
+     * @param value value of the position
+     * @param flag EXACT, LOWER_BOUND or UPPER_BOUND
+     * @param depth number of moves searched below the position
+     * @param move best move found, or -1 if none
+     */
+    public void store(long key, int value, int flag, int depth, int move)
+    {
+        long entry = encode(value, flag, depth, move);
+        int slot = (int)key & mask;
+        entries[slot] = entry;
+        keys[slot] = key ^ entry;
+    }
+
+    /**
+     * Empties every slot.
+     */
+    public void clear()
+    {
+        Arrays.fill(keys, 0);
+        Arrays.fill(entries, 0);
+    }
+
+    /* Entry encoding and decoding methods */
+
+    /**
+     * Packs a search result into an entry.
+     * 
+     * @param value value of the position
+     * @param flag EXACT, LOWER_BOUND or UPPER_BOUND
+     * @param depth number of moves searched below the position
+     * @param move best move found, or -1 if none
+     * @return long entry, never 0
+     */
+    static long encode(int value, int flag, int depth, int move)
+    {
+        return (long)(value + VALUE_OFFSET)
+                | ((long)flag << FLAG_SHIFT)
+                | ((long)Math.min(depth, 1023) << DEPTH_SHIFT)
+                | ((long)(move + 1) << MOVE_SHIFT);
+    }
+
+    /**
+     * @param entry entry returned by probe
+     * @return value stored in the entry
+     */
+    public static int getValue(long entry)
+    {
+        return (int)(entry & 0xFFFF) - VALUE_OFFSET;
+    }
+
+    /**
+     * @param entry entry returned by probe
+     * @return EXACT, LOWER_BOUND or UPPER_BOUND, or 0 for an empty entry
+     */
+    public static int getFlag(long entry)
+    {
+        return (int)(entry >>> FLAG_SHIFT) & 0x3;
+    }
+
+    /**
+     * @param entry entry returned by probe
+     * @return number of moves searched below the position
+     */
+    public static int getDepth(long entry)
+    {
+        return (int)(entry >>> DEPTH_SHIFT) & 0x3FF;
+    }
+
+    /**
+     * @param entry entry returned by probe
+     * @return best move stored in the entry, or -1 if none
+     */
+    public static int getMove(long entry)
+    {
+        return (int)(entry >>> MOVE_SHIFT & 0xFFFF) - 1;
+    }
+}
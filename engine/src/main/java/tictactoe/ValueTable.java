@@ -0,0 +1,272 @@
+package tictactoe;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The ValueTable class holds learned values of positions, indexed by the top bits of the position's Zobrist hash.
+ * A value is the chance that the player who moved into the position goes on to win, counting a draw as half a win.
+ * Each slot holds a check from the low bits of its position's hash beside the value's float bits in one long of an AtomicLongArray,
+ * so many training threads update the table with compare and set and no locks.
+ * A position whose check does not match its slot's is unknown and valued as an even chance; updating it takes the slot over.
+ *
+ * File format: the 4 byte magic number "TTTV", a version byte, the board length, the win length and the table size in bits,
+ * followed by every slot as its int check, 0 for an empty slot, and its value as an unsigned short fraction of 65535.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class ValueTable
+{
+	/* Static fields */
+	static final int MAGIC = 0x54545456; // "TTTV"
+	static final int VERSION = 2;
+	static final int MAX_LENGTH = 255; // longest side the file header can hold
+	private static final int MIN_BITS = 10;
+	private static final int MAX_BITS = 24; // largest table, 16M slots (128 MB, 96 MB on disk)
+	private static final int MAX_SIZE_BITS = 30; // largest table the constructor accepts
+	private static final float INITIAL_VALUE = 0.5f;
+	private static final int SCALE = 65535; // stored value of a certain win
+	private static final int BUFFER_SIZE = 65536;
+
+	/* Instance variables */
+    private final int length;
+    private final int winLength;
+    private final int sizeBits;
+    private final AtomicLongArray slots; // check in the high int, float bits of the value in the low int
+    private final Zobrist zobrist;
+
+    /**
+     * Constructor for a table of untrained values, sized for the board.
+     *
+     * @param length length of a side of the board
+     * @param winLength number of squares in a row needed to win
+     */
+    public ValueTable(int length, int winLength)
+    {
+        this(length, winLength, sizeBitsFor(length));
+    }
+
+    /**
+     * Constructor for a table of untrained values.
+     *
+     * @param length length of a side of the board
+     * @param winLength number of squares in a row needed to win
+     * @param sizeBits base two logarithm of the number of slots
+     * @throws IllegalArgumentException if the board size is invalid, the board is longer than 255 squares a side, which a file cannot hold,
+     * or the table size is not between 1 and 30 bits
+     */
+    public ValueTable(int length, int winLength, int sizeBits)
+    {
+        Board.checkSize(length, winLength);
+        if(length > MAX_LENGTH)
+            throw new IllegalArgumentException("Board too large to save: " + length + "x" + length);
+        if(sizeBits < 1 || sizeBits > MAX_SIZE_BITS)
+            throw new IllegalArgumentException("Table size out of range");
+        this.length = length;
+        this.winLength = winLength;
+        this.sizeBits = sizeBits;
+        slots = new AtomicLongArray(1 << sizeBits);
+        zobrist = Zobrist.forLength(length);
+    }
+
+    /**
+     * Sizes the table to twice the number of board states (3 per square), capped at MAX_BITS.
+     *
+     * @param length length of a side of the board
+     * @return base two logarithm of the table size
+     */
+    private static int sizeBitsFor(int length)
+    {
+        double states = Math.pow(3, length * length);
+        int bits = MIN_BITS;
+        while(bits < MAX_BITS && (1L << bits) < states * 2)
+            bits++;
+        return bits;
+    }
+
+    /**
+     * @return int length of a side of the board the table is for
+     */
+    public int getLength()
+    {
+        return length;
+    }
+
+    /**
+     * @return int number of squares in a row needed to win on the board the table is for
+     */
+    public int getWinLength()
+    {
+        return winLength;
+    }
+
+    /**
+     * Returns the keys used to hash positions for this table.
+     *
+     * @return Zobrist keys for the board length
+     */
+    public Zobrist getZobrist()
+    {
+        return zobrist;
+    }
+
+    /**
+     * Hashes the position on a board from scratch.
+     *
+     * @param board Board with the table's length
+     * @return long Zobrist hash of the position
+     */
+    public long hash(Board board)
+    {
+        long hash = 0;
+        for(int square = 0; square < board.getTotalSquares(); square++)
+            hash ^= zobrist.key(square, board.getSquare(square));
+        return hash;
+    }
+
+    /**
+     * Returns the value of a position.
+     *
+     * @param hash Zobrist hash of the position
+     * @return float chance between 0 and 1 that the player who moved into the position wins
+     */
+    public float getValue(long hash)
+    {
+        long slot = slots.get(indexOf(hash));
+        return (int)(slot >>> 32) == checkOf(hash) ? Float.intBitsToFloat((int)slot) : INITIAL_VALUE;
+    }
+
+    /**
+     * Sets the value of a position, e.g. to the known result of a finished game.
+     *
+     * @param hash Zobrist hash of the position
+     * @param value chance between 0 and 1 that the player who moved into the position wins
+     */
+    public void setValue(long hash, float value)
+    {
+        slots.set(indexOf(hash), slotOf(checkOf(hash), value));
+    }
+
+    /**
+     * Moves the value of a position a step towards a target, atomically with respect to other threads updating the same slot.
+     * A position not in its slot starts from an even chance and replaces the position there.
+     *
+     * @param hash Zobrist hash of the position
+     * @param target value to move towards
+     * @param step fraction of the difference to move, the learning rate
+     */
+    public void update(long hash, float target, float step)
+    {
+        int index = indexOf(hash);
+        int check = checkOf(hash);
+        while(true)
+        {
+            long slot = slots.get(index);
+            float value = (int)(slot >>> 32) == check ? Float.intBitsToFloat((int)slot) : INITIAL_VALUE;
+            if(slots.compareAndSet(index, slot, slotOf(check, value + step * (target - value))))
+                return;
+        }
+    }
+
+    /**
+     * @param hash Zobrist hash of a position
+     * @return int slot of the position, from the top bits of its hash
+     */
+    private int indexOf(long hash)
+    {
+        return (int)(hash >>> (64 - sizeBits));
+    }
+
+    /**
+     * @param hash Zobrist hash of a position
+     * @return int check of the position, from the low bits of its hash, never 0 so an empty slot matches no position
+     */
+    private static int checkOf(long hash)
+    {
+        return (int)hash | 1;
+    }
+
+    /**
+     * @param check check of a position
+     * @param value value of the position
+     * @return long slot holding both
+     */
+    private static long slotOf(int check, float value)
+    {
+        return (long)check << 32 | Float.floatToRawIntBits(value) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Writes the table to a file.  The file is written under a temporary name and then moved into place,
+     * so a checkpoint interrupted part way leaves the previous one intact.
+     *
+     * @param file Path to write
+     * @throws IOException if writing fails
+     */
+    public void save(Path file) throws IOException
+    {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE)))
+        {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(length);
+            out.writeByte(winLength);
+            out.writeByte(sizeBits);
+            for(int i = 0; i < slots.length(); i++)
+            {
+                long slot = slots.get(i);
+                float value = Math.max(0, Math.min(1, Float.intBitsToFloat((int)slot)));
+                out.writeInt((int)(slot >>> 32));
+                out.writeShort(Math.round(value * SCALE));
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a table written by save.
+     *
+     * @param file Path to read
+     * @return ValueTable holding the saved values
+     * @throws IOException if the file cannot be read or is not a value table
+     */
+    public static ValueTable load(Path file) throws IOException
+    {
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE)))
+        {
+            if(in.readInt() != MAGIC)
+                throw new IOException("Not a value table: " + file);
+            int version = in.readUnsignedByte();
+            if(version != VERSION)
+                throw new IOException("Unsupported value table version " + version);
+            int length = in.readUnsignedByte();
+            int winLength = in.readUnsignedByte();
+            int sizeBits = in.readUnsignedByte();
+            ValueTable table;
+            try
+            {
+                table = new ValueTable(length, winLength, sizeBits);
+            }
+            catch(IllegalArgumentException iae)
+            {
+                throw new IOException("Corrupt value table header: " + iae.getMessage());
+            }
+            for(int i = 0; i < table.slots.length(); i++)
+            {
+                int check = in.readInt();
+                float value = (float)in.readUnsignedShort() / SCALE;
+                table.slots.lazySet(i, check == 0 ? 0 : slotOf(check, value));
+            }
+            return table;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package tictactoe;
+
+import java.util.SplittableRandom;
+
+/**
+ * The Zobrist class holds the random keys used to hash board positions.
+ * A position's hash is the exclusive or of one key per occupied square (a different key for X and O), so a move updates the hash with a single exclusive or.
+ * Keys are generated from a fixed seed so hashes are the same in every run, and are shared per board length as they are never modified.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class Zobrist
+{
+	/* Static fields */
+	private static final long SEED = 0x5DEECE66DL;
+	private static final int MAX_CACHED_LENGTH = 64;
+	private static final Zobrist[] CACHE = new Zobrist[MAX_CACHED_LENGTH + 1];
+
+	/* Instance variables */
+    private final long[] xKeys; // xKeys[square] is the key for an X on square
+    private final long[] oKeys; // oKeys[square] is the key for an O on square
+
+    /**
+     * Constructor generating the keys for a board length.
+     * 
+     * @param length length of a side of the board
+     */
+    private Zobrist(int length)
+    {
+        SplittableRandom random = new SplittableRandom(SEED + length);
+        xKeys = new long[length * length];
+        oKeys = new long[length * length];
+        for(int square = 0; square < xKeys.length; square++)
+        {
+            xKeys[square] = random.nextLong();
+            oKeys[square] = random.nextLong();
+        }
+    }
+
+    /**
+     * Returns the keys for a board length.
+     * 
+     * @param length length of a side of the board
+     * @return Zobrist keys for the board length
+     */
+    public static Zobrist forLength(int length)
+    {
+        if(length > MAX_CACHED_LENGTH)
+            return new Zobrist(length);
+        synchronized(CACHE)
+        {
+            if(CACHE[length] == null)
+                CACHE[length] = new Zobrist(length);
+            return CACHE[length];
+        }
+    }
+
+    /**
+     * Returns the key for a player occupying a square.
+     * 
+     * @param square square number
+     * @param value Player.X or Player.O
+     * @return long key to exclusive or into a hash, or 0 for Player.NONE
+     */
+    public long key(int square, Player value)
+    {
+        if(value == Player.X)
+            return xKeys[square];
+        else if(value == Player.O)
+            return oKeys[square];
+        else
+            return 0;
+    }
+}
@@ -0,0 +1,170 @@
+package tictactoe;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+/**
+ * Tests of BatchEvaluator: its position encoding and its results against Solvers which search each position on their own.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class BatchEvaluatorTest
+{
+	/* Static fields */
+	private static final int POSITIONS = 5000;
+
+    /**
+     * A batch of random positions, sharing one table across worker threads, is valued as a fresh Solver values each position alone.
+     */
+    @Test
+    public void matchesFreshSolvers()
+    {
+        Board board = new Board();
+        int words = BatchEvaluator.wordsFor(board.getTotalSquares());
+        long[] positions = new long[POSITIONS * words];
+        Board[] boards = new Board[POSITIONS];
+        SplittableRandom random = new SplittableRandom(1);
+        RandomPolicy policy = new RandomPolicy(2);
+        for(int i = 0; i < POSITIONS; i++)
+        {
+            board.reset();
+            int moves = random.nextInt(board.getTotalSquares());
+            while(board.getMovesCounter() < moves && board.getHasWon() == Player.NONE)
+                board.setSquare(policy.chooseMove(board), board.getCurrentPlayer());
+            BatchEvaluator.encode(board, positions, i * words);
+            boards[i] = new Board(board);
+        }
+
+        BatchEvaluator evaluator = new BatchEvaluator(3, 3, Integer.MAX_VALUE, new TranspositionTable(16), 4);
+        BatchResult result;
+        try
+        {
+            result = evaluator.evaluate(positions);
+        }
+        finally
+        {
+            evaluator.shutdown();
+        }
+
+        assertEquals(POSITIONS, result.getCount());
+        for(int i = 0; i < POSITIONS; i++)
+        {
+            Solver solver = new Solver(new TranspositionTable(12), Integer.MAX_VALUE);
+            int value = solver.evaluate(boards[i]);
+            assertEquals("position " + i, value, result.getValue(i));
+            Player current = boards[i].getCurrentPlayer();
+            Player winner = value > 0 ? current : (value < 0 ? current.getOpponent() : Player.NONE);
+            assertEquals("position " + i, winner, result.getWinner(i));
+            if(boards[i].getHasWon() == Player.NONE)
+                assertFalse("position " + i, boards[i].isSquareOccupied(result.getBestMove(i)));
+        }
+    }
+
+    /**
+     * Decoding an encoded position gives back the same stones.
+     */
+    @Test
+    public void encodeThenDecode()
+    {
+        Board board = position("XO.X.O..X", 5, 5);
+        long[] encoded = new long[BatchEvaluator.wordsFor(25)];
+        BatchEvaluator.encode(board, encoded, 0);
+        Board decoded = new Board(5, 5);
+        BatchEvaluator.decode(encoded, 0, decoded);
+        for(int square = 0; square < 25; square++)
+            assertEquals(board.getSquare(square), decoded.getSquare(square));
+        assertEquals(board.getMovesCounter(), decoded.getMovesCounter());
+    }
+
+    /**
+     * Positions which cannot arise in a game are rejected.
+     */
+    @Test
+    public void rejectsImpossiblePositions()
+    {
+        assertRejected("XXX......"); // too many X
+        assertRejected("OO......."); // O moved first
+        assertRejected("XXXOOO..."); // both have a line
+        assertRejected("XXX.OOO.."); // X has a line but O moved last
+        assertRejected("OOOXX.X.X"); // O has a line but X moved last
+        long[] invalid = {3}; // square code 3 is not a player
+        try
+        {
+            BatchEvaluator.decode(invalid, 0, new Board());
+            fail("Invalid square code accepted");
+        }
+        catch(IllegalArgumentException expected)
+        {
+        }
+    }
+
+    /**
+     * Positions which can arise in a game, including finished ones, are accepted.
+     */
+    @Test
+    public void acceptsPossiblePositions()
+    {
+        decode(".........");
+        decode("XXXOO....");
+        decode("OOOXX.X..");
+        decode("XOXXOOOXX");
+    }
+
+    /**
+     * Asserts that decode rejects a 3x3 position.
+     *
+     * @param squares a character per square: X, O or .
+     */
+    private static void assertRejected(String squares)
+    {
+        try
+        {
+            decode(squares);
+            fail("Accepted " + squares);
+        }
+        catch(IllegalArgumentException expected)
+        {
+        }
+    }
+
+    /**
+     * Encodes a 3x3 position and decodes it.
+     *
+     * @param squares a character per square: X, O or .
+     * @return Board decoded
+     */
+    private static Board decode(String squares)
+    {
+        long[] encoded = new long[1];
+        BatchEvaluator.encode(position(squares, 3, 3), encoded, 0);
+        Board board = new Board();
+        BatchEvaluator.decode(encoded, 0, board);
+        return board;
+    }
+
+    /**
+     * Sets up a position square by square, whether or not it could arise in a game.
+     *
+     * @param squares a character per square from square 0: X, O or .
+     * @param length length of a side of the board
+     * @param winLength number of squares in a row needed to win
+     * @return Board holding the position
+     */
+    private static Board position(String squares, int length, int winLength)
+    {
+        Board board = new Board(length, winLength);
+        for(int square = 0; square < squares.length(); square++)
+        {
+            char c = squares.charAt(square);
+            if(c != '.')
+                board.setSquare(square, c == 'X' ? Player.X : Player.O);
+        }
+        return board;
+    }
+}
@@ -0,0 +1,114 @@
+package tictactoe;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of GameTreeEnumerator against the known counts of classic tic tac toe, and shallow enumerations of larger boards.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class GameTreeEnumeratorTest
+{
+	/* Instance variables */
+    private GameTreeEnumerator enumerator;
+
+    @Before
+    public void setUp()
+    {
+        enumerator = new GameTreeEnumerator(4);
+    }
+
+    @After
+    public void tearDown()
+    {
+        enumerator.shutdown();
+    }
+
+    /**
+     * The whole 3x3 tree has 549946 positions and 255168 finished games, 765 of its positions differing by more than a symmetry.
+     */
+    @Test
+    public void classicTreeCounts()
+    {
+        GameTreeStats stats = enumerator.enumerate(new Board());
+        assertEquals(549946, stats.getNodeCount());
+        assertEquals(131184, stats.getXWins());
+        assertEquals(77904, stats.getOWins());
+        assertEquals(46080, stats.getDraws());
+        assertEquals(765, stats.getUniquePositions());
+    }
+
+    /**
+     * The tree has 9 positions after one move and 9 * 8 * 7 after three; up to symmetry there are 3 first moves and 12 positions after two.
+     */
+    @Test
+    public void classicTreeCountsByDepth()
+    {
+        GameTreeStats stats = enumerator.enumerate(new Board());
+        assertEquals(1, stats.getNodeCount(0));
+        assertEquals(9, stats.getNodeCount(1));
+        assertEquals(504, stats.getNodeCount(3));
+        assertEquals(3, stats.getUniquePositions(1));
+        assertEquals(12, stats.getUniquePositions(2));
+    }
+
+    /**
+     * A depth limited enumeration counts the positions down to the limit only.
+     */
+    @Test
+    public void depthLimit()
+    {
+        GameTreeStats stats = enumerator.enumerate(new Board(), 2);
+        assertEquals(1 + 9 + 72, stats.getNodeCount());
+        assertEquals(0, stats.getXWins() + stats.getOWins() + stats.getDraws());
+    }
+
+    /**
+     * A shallow enumeration of a 4x4 board only sizes its position set for the positions within the depth,
+     * and finds as many distinct positions per depth as canonical snapshots do.
+     */
+    @Test
+    public void shallowLargerBoards()
+    {
+        GameTreeStats stats = enumerator.enumerate(new Board(4, 4), 4);
+        assertEquals(16 * 15 * 14 * 13, stats.getNodeCount(4));
+        assertEquals(0, stats.getNodeCount(5));
+        assertDistinctPositions(new Board(4, 4), stats, 4);
+
+        stats = enumerator.enumerate(new Board(5, 4), 2);
+        assertEquals(1 + 25 + 25 * 24, stats.getNodeCount());
+        assertDistinctPositions(new Board(5, 4), stats, 2);
+    }
+
+    /**
+     * Asserts that the distinct positions counted at each depth are those found by expanding canonical snapshots breadth first.
+     *
+     * @param board Board the enumeration started from
+     * @param stats GameTreeStats of the enumeration
+     * @param maxDepth deepest depth enumerated
+     */
+    private static void assertDistinctPositions(Board board, GameTreeStats stats, int maxDepth)
+    {
+        Set<BoardSnapshot> level = new HashSet<BoardSnapshot>();
+        level.add(BoardSnapshot.of(board).canonical());
+        for(int depth = 0; depth <= maxDepth; depth++)
+        {
+            assertEquals("depth " + depth, level.size(), stats.getUniquePositions(depth));
+            Set<BoardSnapshot> next = new HashSet<BoardSnapshot>();
+            for(BoardSnapshot position : level)
+                if(!position.isOver())
+                    for(int square = 0; square < position.getTotalSquares(); square++)
+                        if(!position.isSquareOccupied(square))
+                            next.add(position.withMove(square).canonical());
+            level = next;
+        }
+    }
+}
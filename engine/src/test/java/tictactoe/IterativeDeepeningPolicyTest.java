@@ -0,0 +1,73 @@
+package tictactoe;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests of IterativeDeepeningPolicy: it plays forced wins, and its search is pruned to winning or blocking when a line is one stone short.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class IterativeDeepeningPolicyTest
+{
+	/* Static fields */
+	private static final long MILLIS = 200;
+	private static final int LENGTH = 15;
+
+    /**
+     * The four-three found by the threat search is played at once, valued as a win, and the board is left as it was.
+     */
+    @Test
+    public void playsForcedWin()
+    {
+        Board board = ThreatTrackerTest.fourThree();
+        IterativeDeepeningPolicy policy = new IterativeDeepeningPolicy(MILLIS);
+        assertEquals(7 * LENGTH + 7, policy.chooseMove(board));
+        assertTrue(policy.getLastValue() > 0);
+        Board original = ThreatTrackerTest.fourThree();
+        assertEquals(original.getMovesCounter(), board.getMovesCounter());
+        for(int square = 0; square < board.getTotalSquares(); square++)
+            assertEquals(original.getSquare(square), board.getSquare(square));
+    }
+
+    /**
+     * Facing a four with no win of its own, the player blocks it, the only move the pruned search tries.
+     */
+    @Test
+    public void blocksFour()
+    {
+        Board board = new Board(LENGTH, 5);
+        play(board, 7 * LENGTH + 4, 7 * LENGTH + 3, 7 * LENGTH + 5, 0, 7 * LENGTH + 6, 14, 7 * LENGTH + 7);
+        assertEquals(7 * LENGTH + 8, new IterativeDeepeningPolicy(MILLIS).chooseMove(board));
+    }
+
+    /**
+     * Facing a four while holding one, the win is played rather than the block.
+     */
+    @Test
+    public void winsBeforeBlocking()
+    {
+        Board board = new Board(LENGTH, 5);
+        play(board, 7 * LENGTH + 4, 7 * LENGTH + 3, 7 * LENGTH + 5, 3 * LENGTH + 3, 7 * LENGTH + 6, 3 * LENGTH + 4,
+            12 * LENGTH + 12, 3 * LENGTH + 5, 12 * LENGTH, 3 * LENGTH + 6, 7 * LENGTH + 7);
+        // X's four along row 7 is open at column 8 only, and O's along row 3 is open at both ends
+        assertEquals(Player.O, board.getCurrentPlayer());
+        int move = new IterativeDeepeningPolicy(MILLIS).chooseMove(board);
+        assertTrue("played " + move, move == 3 * LENGTH + 2 || move == 3 * LENGTH + 7);
+    }
+
+    /**
+     * Plays moves in turn.
+     *
+     * @param board Board to play on
+     * @param squares square numbers in order of play
+     */
+    private static void play(Board board, int... squares)
+    {
+        for(int square : squares)
+            board.setSquare(square, board.getCurrentPlayer());
+    }
+}
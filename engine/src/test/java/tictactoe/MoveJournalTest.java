@@ -0,0 +1,188 @@
+package tictactoe;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests of MoveJournal: recovering games in progress, a journal torn part way through a record, idle games expiring, and compaction.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class MoveJournalTest
+{
+	/* Static fields */
+	private static final int RECORD_SIZE = 16; // size of the file header and of every record
+
+	/* Instance variables */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private Path file;
+
+    @Before
+    public void setUp()
+    {
+        file = folder.getRoot().toPath().resolve("games.journal");
+    }
+
+    /**
+     * Games in progress come back with their moves and computer players; ended games and games without a move do not.
+     *
+     * @throws IOException if the journal cannot be written or read
+     */
+    @Test
+    public void recoversGamesInProgress() throws IOException
+    {
+        MoveJournal journal = new MoveJournal(file);
+        Game inProgress = play(journal, new Game(new Board(), null, new RandomPolicy(1)), 4);
+        Game quit = play(journal, new Game(new Board(), null, null), 1, 2);
+        quit.quit();
+        Game won = play(journal, new Game(new Board(), null, null), 0, 3, 1, 4, 2);
+        assertEquals(Game.State.WON, won.getState());
+        play(journal, new Game(new Board(), null, null));
+        journal.close();
+
+        journal = new MoveJournal(file);
+        List<RecoveredGame> games = journal.getRecoveredGames();
+        journal.close();
+        assertEquals(1, games.size());
+        assertSameMoves(inProgress.getBoard(), games.get(0).getBoard());
+        assertFalse(games.get(0).isComputer(Player.X));
+        assertTrue(games.get(0).isComputer(Player.O));
+    }
+
+    /**
+     * A journal committed in the background and cut off part way through its last record recovers every move before it.
+     *
+     * @throws IOException if the journal cannot be written, truncated or read
+     */
+    @Test
+    public void recoversTornJournal() throws IOException
+    {
+        MoveJournal journal = new MoveJournal(file);
+        journal.startCommitting(1, TimeUnit.MILLISECONDS);
+        Game game = play(journal, new Game(new Board(5, 4), null, null), 12, 6, 18, 0);
+        journal.close();
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE))
+        {
+            channel.truncate(channel.size() - RECORD_SIZE / 2);
+        }
+
+        journal = new MoveJournal(file);
+        List<RecoveredGame> games = journal.getRecoveredGames();
+        journal.close();
+        assertEquals(1, games.size());
+        Board board = games.get(0).getBoard();
+        assertEquals(5, board.getLength());
+        assertEquals(4, board.getWinLength());
+        assertEquals(3, board.getMovesCounter());
+        for(int i = 0; i < 3; i++)
+            assertEquals(game.getBoard().getMove(i), board.getMove(i));
+    }
+
+    /**
+     * A game nobody plays on is recovered for RECOVERY_RUNS openings and then dropped, unless a move after resuming it starts the count again.
+     *
+     * @throws IOException if the journal cannot be written or read
+     */
+    @Test
+    public void idleGamesExpire() throws IOException
+    {
+        MoveJournal journal = new MoveJournal(file);
+        play(journal, new Game(new Board(), null, null), 4);
+        play(journal, new Game(new Board(), null, null), 0);
+        journal.close();
+
+        for(int run = 1; run <= MoveJournal.RECOVERY_RUNS; run++)
+        {
+            journal = new MoveJournal(file);
+            List<RecoveredGame> games = journal.getRecoveredGames();
+            assertEquals("opening " + run, 2, games.size());
+            if(run == MoveJournal.RECOVERY_RUNS)
+            {
+                RecoveredGame played = games.get(0);
+                Game g = new Game(played.getBoard(), null, null);
+                journal.resume(played, g);
+                play(journal, g, 8);
+            }
+            journal.close();
+        }
+
+        journal = new MoveJournal(file);
+        List<RecoveredGame> games = journal.getRecoveredGames();
+        journal.close();
+        assertEquals(1, games.size());
+        assertEquals(2, games.get(0).getBoard().getMovesCounter());
+    }
+
+    /**
+     * Reopening rewrites the journal with only the games in progress, which come back the same from the compacted file.
+     *
+     * @throws IOException if the journal cannot be written or read
+     */
+    @Test
+    public void compactsOnOpening() throws IOException
+    {
+        MoveJournal journal = new MoveJournal(file);
+        for(int i = 0; i < 20; i++)
+            play(journal, new Game(new Board(), null, null), 0, 3, 1, 4, 2);
+        Game game = play(journal, new Game(new Board(), null, null), 4, 0, 8);
+        journal.close();
+        long size = Files.size(file);
+
+        journal = new MoveJournal(file);
+        journal.close();
+        assertEquals(RECORD_SIZE + RECORD_SIZE * (1 + 3), Files.size(file));
+        assertTrue(Files.size(file) < size);
+
+        journal = new MoveJournal(file);
+        List<RecoveredGame> games = journal.getRecoveredGames();
+        journal.close();
+        assertEquals(1, games.size());
+        assertSameMoves(game.getBoard(), games.get(0).getBoard());
+    }
+
+    /**
+     * Journals a game, starts it and submits moves in turn.
+     *
+     * @param journal MoveJournal to listen to the game
+     * @param g Game to play
+     * @param squares square numbers of the human players' moves in order of play
+     * @return Game played
+     */
+    private static Game play(MoveJournal journal, Game g, int... squares)
+    {
+        g.addListener(journal);
+        g.start();
+        for(int square : squares)
+            assertTrue(g.submitMove(square));
+        return g;
+    }
+
+    /**
+     * Asserts that two boards hold the same moves in the same order.
+     *
+     * @param expected Board played
+     * @param actual Board recovered
+     */
+    private static void assertSameMoves(Board expected, Board actual)
+    {
+        assertEquals(expected.getMovesCounter(), actual.getMovesCounter());
+        for(int i = 0; i < expected.getMovesCounter(); i++)
+            assertEquals("move " + i, expected.getMove(i), actual.getMove(i));
+    }
+}
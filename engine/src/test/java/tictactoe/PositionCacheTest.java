@@ -0,0 +1,109 @@
+package tictactoe;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests of PositionCache: searches stay exact while it evicts, boards with different rules can share it, and it survives a save and load.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class PositionCacheTest
+{
+	/* Static fields */
+	private static final int POSITIONS = 3000;
+
+	/* Instance variables */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * A 4 KB cache evicts all the time, yet a Solver using it values every position as a Solver with a table large enough to keep everything.
+     */
+    @Test
+    public void smallCacheStaysExact()
+    {
+        PositionCache cache = new PositionCache(4096);
+        Solver cached = new Solver(cache, Integer.MAX_VALUE);
+        SplittableRandom random = new SplittableRandom(1);
+        for(int i = 0; i < POSITIONS; i++)
+        {
+            Board board = randomPosition(3, 3, 0, random);
+            Solver reference = new Solver(new TranspositionTable(12), Integer.MAX_VALUE);
+            assertEquals("position " + i, reference.evaluate(board), cached.evaluate(board));
+        }
+        assertTrue(cache.getEvictions() > 0);
+    }
+
+    /**
+     * The same stones on a 4x4 board are valued separately for 3 and 4 in a row, although both rules share one cache.
+     */
+    @Test
+    public void winLengthsShareCache()
+    {
+        PositionCache cache = new PositionCache(1 << 20);
+        Solver cached = new Solver(cache, Integer.MAX_VALUE);
+        SplittableRandom random = new SplittableRandom(2);
+        for(int i = 0; i < 200; i++)
+        {
+            Board three = randomPosition(4, 3, 8, random);
+            Board four = new Board(4, 4);
+            for(int m = 0; m < three.getMovesCounter(); m++)
+                four.setSquare(three.getMove(m), four.getCurrentPlayer());
+            assertEquals("position " + i, new Solver(new TranspositionTable(16), Integer.MAX_VALUE).evaluate(three), cached.evaluate(three));
+            assertEquals("position " + i, new Solver(new TranspositionTable(16), Integer.MAX_VALUE).evaluate(four), cached.evaluate(four));
+        }
+    }
+
+    /**
+     * A cache loaded from a saved one answers the positions it solved with far fewer nodes, and the same values.
+     *
+     * @throws IOException if the cache file cannot be written or read
+     */
+    @Test
+    public void saveAndLoad() throws IOException
+    {
+        PositionCache cache = new PositionCache(1 << 20);
+        Solver cold = new Solver(cache, Integer.MAX_VALUE);
+        int value = cold.evaluate(new Board());
+        Path file = folder.getRoot().toPath().resolve("positions.cache");
+        cache.save(file);
+
+        PositionCache loaded = new PositionCache(1 << 20);
+        assertEquals(cache.getSize(), loaded.load(file));
+        Solver warm = new Solver(loaded, Integer.MAX_VALUE);
+        assertEquals(value, warm.evaluate(new Board()));
+        assertTrue(warm.getNodeCount() * 100 < cold.getNodeCount());
+    }
+
+    /**
+     * Plays random moves from the empty board, stopping at a random point or when the game is won.
+     *
+     * @param length length of a side of the board
+     * @param winLength number of squares in a row needed to win
+     * @param minMoves fewest moves to play, unless the game is won first
+     * @param random SplittableRandom choosing the moves
+     * @return Board holding the position
+     */
+    private static Board randomPosition(int length, int winLength, int minMoves, SplittableRandom random)
+    {
+        Board board = new Board(length, winLength);
+        int moves = minMoves + random.nextInt(board.getTotalSquares() - minMoves);
+        while(board.getMovesCounter() < moves && board.getHasWon() == Player.NONE)
+        {
+            int square = random.nextInt(board.getTotalSquares());
+            if(!board.isSquareOccupied(square))
+                board.setSquare(square, board.getCurrentPlayer());
+        }
+        return board;
+    }
+}
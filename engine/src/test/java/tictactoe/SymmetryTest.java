@@ -0,0 +1,136 @@
+package tictactoe;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+/**
+ * Tests of canonicalizing positions with Symmetry and BoardSnapshot.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class SymmetryTest
+{
+	/* Static fields */
+	private static final int MAX_LENGTH = 19;
+	private static final int POSITIONS_PER_LENGTH = 20;
+
+    /**
+     * Every orientation of a random position has the same canonical snapshot, on boards packed into a long and on boards held in words.
+     */
+    @Test
+    public void allOrientationsHaveTheSameCanonicalForm()
+    {
+        SplittableRandom random = new SplittableRandom(1);
+        for(int length = 1; length <= MAX_LENGTH; length++)
+        {
+            Symmetry symmetry = Symmetry.forLength(length);
+            for(int n = 0; n < POSITIONS_PER_LENGTH; n++)
+            {
+                int[] moves = randomMoves(length, random);
+                BoardSnapshot canonical = BoardSnapshot.of(play(length, moves, symmetry, 0)).canonical();
+                for(int t = 1; t < Symmetry.getCount(); t++)
+                    assertEquals("length " + length + ", symmetry " + t, canonical, BoardSnapshot.of(play(length, moves, symmetry, t)).canonical());
+            }
+        }
+    }
+
+    /**
+     * The canonical transform maps every square of a position onto the same stone of its canonical form.
+     */
+    @Test
+    public void canonicalTransformMapsSquares()
+    {
+        SplittableRandom random = new SplittableRandom(2);
+        for(int length = 1; length <= MAX_LENGTH; length++)
+        {
+            Symmetry symmetry = Symmetry.forLength(length);
+            for(int n = 0; n < POSITIONS_PER_LENGTH; n++)
+            {
+                BoardSnapshot snapshot = BoardSnapshot.of(play(length, randomMoves(length, random), symmetry, random.nextInt(Symmetry.getCount())));
+                BoardSnapshot canonical = snapshot.canonical();
+                int t = snapshot.getCanonicalTransform();
+                for(int square = 0; square < snapshot.getTotalSquares(); square++)
+                {
+                    assertEquals(snapshot.getSquare(square), canonical.getSquare(symmetry.map(t, square)));
+                    assertEquals(square, symmetry.map(symmetry.inverse(t), symmetry.map(t, square)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Exploring every game of classic tic tac toe reaches 765 positions which differ by more than a rotation or reflection.
+     */
+    @Test
+    public void classicBoardHas765DistinctPositions()
+    {
+        Set<BoardSnapshot> seen = new HashSet<BoardSnapshot>();
+        ArrayDeque<BoardSnapshot> queue = new ArrayDeque<BoardSnapshot>();
+        BoardSnapshot empty = BoardSnapshot.of(new Board());
+        seen.add(empty.canonical());
+        queue.add(empty);
+        while(!queue.isEmpty())
+        {
+            BoardSnapshot position = queue.remove();
+            if(position.isOver())
+                continue;
+            for(int square = 0; square < position.getTotalSquares(); square++)
+            {
+                if(position.isSquareOccupied(square))
+                    continue;
+                BoardSnapshot next = position.withMove(square);
+                if(seen.add(next.canonical()))
+                    queue.add(next);
+            }
+        }
+        assertEquals(765, seen.size());
+    }
+
+    /**
+     * @param length length of a side of the board
+     * @param random SplittableRandom choosing the moves
+     * @return int array of distinct squares, a random number of them
+     */
+    private static int[] randomMoves(int length, SplittableRandom random)
+    {
+        int totalSquares = length * length;
+        int[] squares = new int[totalSquares];
+        for(int i = 0; i < totalSquares; i++)
+            squares[i] = i;
+        int count = random.nextInt(totalSquares + 1);
+        for(int i = 0; i < count; i++)
+        {
+            int j = i + random.nextInt(totalSquares - i);
+            int swap = squares[i];
+            squares[i] = squares[j];
+            squares[j] = swap;
+        }
+        int[] moves = new int[count];
+        System.arraycopy(squares, 0, moves, 0, count);
+        return moves;
+    }
+
+    /**
+     * Plays moves in turn on a new board after mapping them through a symmetry.
+     *
+     * @param length length of a side of the board
+     * @param moves square numbers in order of play
+     * @param symmetry Symmetry of the board's length
+     * @param t symmetry number to map the moves through
+     * @return Board holding the position
+     */
+    private static Board play(int length, int[] moves, Symmetry symmetry, int t)
+    {
+        Board board = new Board(length, length);
+        for(int move : moves)
+            board.setSquare(symmetry.map(t, move), board.getCurrentPlayer());
+        return board;
+    }
+}
@@ -0,0 +1,142 @@
+package tictactoe;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+/**
+ * Tests of ThreatTracker: its tallies as moves are made and undone, and the threat space search for a win by continuous fours.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class ThreatTrackerTest
+{
+	/* Static fields */
+	private static final int STEPS = 2000;
+	private static final int LENGTH = 15;
+	private static final int FOUR_THREE = 7 * LENGTH + 7; // the square making a four and an open three in fourThree()
+
+    /**
+     * After every move made or undone in a random walk, the tallies kept up to date match those of a tracker loading the position afresh.
+     */
+    @Test
+    public void tallyMatchesLoad()
+    {
+        assertTalliesFollowMoves(9, 5, new SplittableRandom(1));
+        assertTalliesFollowMoves(7, 4, new SplittableRandom(2));
+        assertTalliesFollowMoves(3, 3, new SplittableRandom(3));
+    }
+
+    /**
+     * X wins a four-three: the move at the crossing makes a four, and once O blocks it the three becomes an open four.
+     * Two fours are needed, so a search allowed only one finds nothing, and the tracked position is left as it was either way.
+     */
+    @Test
+    public void findsFourThree()
+    {
+        Board board = fourThree();
+        ThreatTracker tracker = new ThreatTracker(board);
+        assertEquals(-1, tracker.findWinningMove(Player.X));
+        assertEquals(-1, tracker.findForcedWin(Player.X, 1));
+        assertEquals(FOUR_THREE, tracker.findForcedWin(Player.X, 2));
+        assertSameTallies(board, tracker);
+    }
+
+    /**
+     * A defender with a four of its own must be answered, so the attacker's continuous fours are not searched.
+     */
+    @Test
+    public void noForcedWinWhileDefenderHasFour()
+    {
+        Board board = fourThree();
+        for(int col = 9; col < 13; col++)
+        {
+            board.setSquare(12 * LENGTH + col, Player.O);
+            board.setSquare(2 * col, Player.X); // out of the way, along row 1
+        }
+        ThreatTracker tracker = new ThreatTracker(board);
+        assertEquals(-1, tracker.findForcedWin(Player.X, 8));
+    }
+
+    /**
+     * Makes and undoes random moves on a board and a tracker together, checking the tracker against a fresh load after each.
+     *
+     * @param length length of a side of the board
+     * @param winLength number of squares in a row needed to win
+     * @param random SplittableRandom choosing the moves
+     */
+    private static void assertTalliesFollowMoves(int length, int winLength, SplittableRandom random)
+    {
+        Board board = new Board(length, winLength);
+        ThreatTracker tracker = new ThreatTracker(length, winLength);
+        for(int step = 0; step < STEPS; step++)
+        {
+            int moves = board.getMovesCounter();
+            if(moves > 0 && (moves == board.getTotalSquares() || random.nextInt(5) < 2))
+            {
+                int square = board.getMove(moves - 1);
+                Player p = board.getSquare(square);
+                board.unmakeMove(square);
+                tracker.unmakeMove(square, p);
+            }
+            else
+            {
+                int square;
+                do
+                {
+                    square = random.nextInt(board.getTotalSquares());
+                }
+                while(board.isSquareOccupied(square));
+                Player p = board.getCurrentPlayer();
+                board.setSquare(square, p);
+                tracker.makeMove(square, p);
+            }
+            assertSameTallies(board, tracker);
+        }
+    }
+
+    /**
+     * Asserts that a tracker holds the same tallies as a new tracker loading a board's position.
+     *
+     * @param board Board holding the position
+     * @param actual ThreatTracker updated move by move
+     */
+    private static void assertSameTallies(Board board, ThreatTracker actual)
+    {
+        ThreatTracker expected = new ThreatTracker(board);
+        assertEquals(expected.getScore(), actual.getScore());
+        for(Player p : new Player[] {Player.X, Player.O})
+        {
+            assertEquals(expected.getWinningSquareCount(p), actual.getWinningSquareCount(p));
+            for(int stones = 1; stones <= board.getWinLength(); stones++)
+                assertEquals(p + " windows of " + stones, expected.getLiveWindowCount(p, stones), actual.getLiveWindowCount(p, stones));
+            for(int square = 0; square < board.getTotalSquares(); square++)
+            {
+                assertEquals(p + " wins at " + square, expected.isWinningSquare(p, square), actual.isWinningSquare(p, square));
+                assertEquals(p + " makes four at " + square, expected.makesFour(p, square), actual.makesFour(p, square));
+            }
+        }
+    }
+
+    /**
+     * Sets up a gomoku position, X to move, where X wins with a four-three: a three along row 7 blocked on the left by O,
+     * which the square at row 7 column 7 makes into a four, and two stones down column 7 which the same square makes into an open three.
+     *
+     * @return Board holding the position
+     */
+    static Board fourThree()
+    {
+        Board board = new Board(LENGTH, 5);
+        int[] x = {7 * LENGTH + 4, 7 * LENGTH + 5, 7 * LENGTH + 6, 5 * LENGTH + 7, 6 * LENGTH + 7};
+        int[] o = {7 * LENGTH + 3, 0 * LENGTH + 14, 14 * LENGTH + 0, 14 * LENGTH + 14, 10 * LENGTH + 1};
+        for(int i = 0; i < x.length; i++)
+        {
+            board.setSquare(x[i], Player.X);
+            board.setSquare(o[i], Player.O);
+        }
+        return board;
+    }
+}
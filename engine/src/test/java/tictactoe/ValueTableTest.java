@@ -0,0 +1,89 @@
+package tictactoe;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests of ValueTable: positions sharing a slot do not share a value, and values survive a save and load.
+ *
+ * @author Alexander Koster
+ * @version 2017-07-21
+ */
+public class ValueTableTest
+{
+	/* Instance variables */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Of two positions with the same slot, only the one last set has a value; the other is unknown, an even chance.
+     */
+    @Test
+    public void slotsCheckTheirPosition()
+    {
+        ValueTable table = new ValueTable(3, 3, 4);
+        long first = 0x1000000000000002L;
+        long second = 0x1000000000000004L; // same top bits, so the same slot
+        table.setValue(first, 1f);
+        assertEquals(1f, table.getValue(first), 0f);
+        assertEquals(0.5f, table.getValue(second), 0f);
+        table.update(second, 0f, 0.5f);
+        assertEquals(0.25f, table.getValue(second), 0f);
+        assertEquals(0.5f, table.getValue(first), 0f);
+    }
+
+    /**
+     * A loaded table values positions as the saved one did, to the precision of the file.
+     *
+     * @throws IOException if the table file cannot be written or read
+     */
+    @Test
+    public void saveAndLoad() throws IOException
+    {
+        ValueTable table = new ValueTable(3, 3);
+        Board board = new Board();
+        long empty = table.hash(board);
+        board.setSquare(4, Player.X);
+        long centre = table.hash(board);
+        table.setValue(centre, 0.75f);
+        Path file = folder.getRoot().toPath().resolve("values.table");
+        table.save(file);
+
+        ValueTable loaded = ValueTable.load(file);
+        assertEquals(3, loaded.getLength());
+        assertEquals(3, loaded.getWinLength());
+        assertEquals(0.75f, loaded.getValue(centre), 1f / 65535);
+        assertEquals(0.5f, loaded.getValue(empty), 0f);
+    }
+
+    /**
+     * Sizes a file could not hold are rejected when the table is made, not truncated when it is saved.
+     */
+    @Test
+    public void rejectsUnsavableSizes()
+    {
+        try
+        {
+            new ValueTable(256, 5, 10);
+            fail("Board longer than 255 accepted");
+        }
+        catch(IllegalArgumentException expected)
+        {
+        }
+        try
+        {
+            new ValueTable(3, 4, 10);
+            fail("Win length longer than the board accepted");
+        }
+        catch(IllegalArgumentException expected)
+        {
+        }
+    }
+}
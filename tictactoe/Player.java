@@ -1,13 +0,0 @@
-package tictactoe;
-
-
-/**
- * Enumeration class Player represents the possible state of a tic tac toe board square (as containig a move by player X, player O, or no player at all, NONE).
- *
- * @author Alexander Koster
- * @version 2017-07-21
- */
-public enum Player
-{
-    X, O, NONE
-}
\ No newline at end of file